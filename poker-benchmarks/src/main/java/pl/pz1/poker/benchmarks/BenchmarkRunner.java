@@ -0,0 +1,37 @@
+package pl.pz1.poker.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of the benchmark jar. Runs the selected JMH benchmarks with the GC profiler
+ * enabled, so every result reports both throughput and allocation rate.
+ * Accepts the standard JMH command-line options, for example a benchmark name pattern.
+ */
+public class BenchmarkRunner {
+
+    /**
+     * Runs the benchmarks.
+     *
+     * @param args standard JMH command-line options.
+     * @throws RunnerException            if a benchmark fails.
+     * @throws CommandLineOptionException if the options cannot be parsed.
+     */
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+
+    /**
+     * Private constructor to prevent instantiation of the entry point class.
+     */
+    private BenchmarkRunner() {}
+}
@@ -0,0 +1,65 @@
+package pl.pz1.poker.evaluator;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the batch evaluation kernels of {@link HandEvaluator} on a corpus of random hands.
+ * The forked JVM adds the Vector API module, so when the benchmarks are built with the {@code vector} profile
+ * {@link #batch()} runs the vector kernel, while {@link #scalarBatch()} always runs the scalar one. Scores are hands evaluated per microsecond.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+@State(Scope.Thread)
+public class BatchEvaluatorBenchmark {
+
+    /**
+     * Seed of the generated corpus.
+     */
+    private static final long SEED = 20241215L;
+
+    /**
+     * Number of hands in the corpus.
+     */
+    private static final int SIZE = 4096;
+
+    private final HandEvaluator evaluator = new HandEvaluator();
+
+    private long[] hands;
+
+    private int[] strengths;
+
+    @Setup
+    public void setUp() {
+        hands = HandCorpus.hands(HandCorpus.Shape.RANDOM, SIZE, SEED);
+        strengths = new int[SIZE];
+    }
+
+    /**
+     * Evaluates the corpus with the kernel chosen by the evaluator.
+     *
+     * @return the strengths.
+     */
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public int[] batch() {
+        evaluator.evaluateStrengths(hands, strengths);
+        return strengths;
+    }
+
+    /**
+     * Evaluates the corpus with the scalar kernel.
+     *
+     * @return the strengths.
+     */
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public int[] scalarBatch() {
+        BatchKernel.SCALAR.evaluate(hands, strengths, hands.length);
+        return strengths;
+    }
+}
@@ -0,0 +1,202 @@
+package pl.pz1.poker.evaluator;
+
+import pl.pz1.poker.gameplay.Card;
+import pl.pz1.poker.gameplay.Player;
+import pl.pz1.poker.util.parser.Hands;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates reproducible sets of showdown tables for the evaluator benchmarks.
+ * Every table is dealt from its own deck, so hands of one table never share cards.
+ */
+public final class HandCorpus {
+
+    /**
+     * Shapes of the hands a corpus can contain.
+     */
+    public enum Shape {
+        /**
+         * Hands dealt from a shuffled deck, following the natural distribution.
+         */
+        RANDOM(null),
+
+        /**
+         * Every player holds four of a kind, so the winner is decided by quads and kicker ranks.
+         */
+        QUADS(Hands.QUADS, 4, 1),
+
+        /**
+         * Every player holds a full house, so the winner is decided by trips and pair ranks.
+         */
+        FULL_HOUSE(Hands.FULL_HOUSE, 3, 2),
+
+        /**
+         * Every player holds two pairs, so the winner is decided by both pairs and the kicker.
+         */
+        TWO_PAIRS(Hands.TWO_PAIRS, 2, 2, 1),
+
+        /**
+         * Every player holds no combination, so the winner is decided card by card.
+         */
+        HIGH_CARD(null, 1, 1, 1, 1, 1);
+
+        private final Hands category;
+        private final int[] groups;
+
+        Shape(Hands category, int... groups) {
+            this.category = category;
+            this.groups = groups;
+        }
+
+        private int categoryValue() {
+            return category == null ? HandStrength.HIGH_CARD : category.getValue();
+        }
+    }
+
+    private static final HandEvaluator evaluator = new HandEvaluator();
+
+    /**
+     * Generates tables of players holding hands of the requested shape.
+     *
+     * @param shape   shape of the generated hands.
+     * @param players number of players at every table.
+     * @param tables  number of tables to generate.
+     * @param seed    seed making the corpus reproducible.
+     * @return list of tables, each being a list of players with IDs starting from 1.
+     */
+    public static List<List<Player>> tables(Shape shape, int players, int tables, long seed) {
+        Random random = new Random(seed);
+        List<List<Player>> corpus = new ArrayList<>(tables);
+        for (int t = 0; t < tables; t++) {
+            long deck = (1L << Card.DECK_SIZE) - 1;
+            List<Player> table = new ArrayList<>(players);
+            for (int p = 1; p <= players; p++) {
+                long hand = shape == Shape.RANDOM ? randomHand(deck, random) : shapedHand(shape, deck, random);
+                deck &= ~hand;
+
+                Player player = new Player(null);
+                player.setPlayerID(p);
+                for (long cards = hand; cards != 0; cards &= cards - 1) {
+                    player.giveCard(Long.numberOfTrailingZeros(cards));
+                }
+                table.add(player);
+            }
+            corpus.add(table);
+        }
+        return corpus;
+    }
+
+    /**
+     * Generates hands of the requested shape as card masks, without players.
+     *
+     * @param shape shape of the generated hands.
+     * @param count number of hands to generate.
+     * @param seed  seed making the corpus reproducible.
+     * @return array of five-card masks.
+     */
+    public static long[] hands(Shape shape, int count, long seed) {
+        Random random = new Random(seed);
+        long deck = (1L << Card.DECK_SIZE) - 1;
+        long[] hands = new long[count];
+        for (int i = 0; i < count; i++) {
+            hands[i] = shape == Shape.RANDOM ? randomHand(deck, random) : shapedHand(shape, deck, random);
+        }
+        return hands;
+    }
+
+    /**
+     * Generates random sets of cards of any size as card masks, e.g. seven-card Hold'em hands.
+     *
+     * @param size  number of cards in every set.
+     * @param count number of sets to generate.
+     * @param seed  seed making the corpus reproducible.
+     * @return array of masks with {@code size} bits set.
+     */
+    public static long[] cards(int size, int count, long seed) {
+        Random random = new Random(seed);
+        long deck = (1L << Card.DECK_SIZE) - 1;
+        long[] cards = new long[count];
+        for (int i = 0; i < count; i++) {
+            cards[i] = randomCards(deck, size, random);
+        }
+        return cards;
+    }
+
+    private static long randomHand(long deck, Random random) {
+        return randomCards(deck, Player.HAND_SIZE, random);
+    }
+
+    private static long randomCards(long deck, int size, Random random) {
+        long hand = 0L;
+        while (Long.bitCount(hand) < size) {
+            hand |= randomCard(deck & ~hand, random);
+        }
+        return hand;
+    }
+
+    private static long shapedHand(Shape shape, long deck, Random random) {
+        while (true) {
+            long hand = 0L;
+            int usedRanks = 0;
+            boolean complete = true;
+            for (int size : shape.groups) {
+                int rank = randomRank(deck, usedRanks, size, random);
+                if (rank < 0) {
+                    complete = false;
+                    break;
+                }
+                usedRanks |= 1 << rank;
+                long rankCards = deck & rankMask(rank);
+                for (int i = 0; i < size; i++) {
+                    long card = randomCard(rankCards, random);
+                    rankCards &= ~card;
+                    hand |= card;
+                }
+            }
+            if (complete && HandStrength.category(evaluator.evaluateStrength(hand)) == shape.categoryValue()) {
+                return hand;
+            }
+        }
+    }
+
+    private static int randomRank(long deck, int usedRanks, int size, Random random) {
+        int candidates = 0;
+        for (int rank = 0; rank < Card.RANKS_IN_SUIT; rank++) {
+            if ((usedRanks & (1 << rank)) == 0 && Long.bitCount(deck & rankMask(rank)) >= size) {
+                candidates |= 1 << rank;
+            }
+        }
+        if (candidates == 0) {
+            return -1;
+        }
+        int pick = random.nextInt(Integer.bitCount(candidates));
+        for (int i = 0; i < pick; i++) {
+            candidates &= candidates - 1;
+        }
+        return Integer.numberOfTrailingZeros(candidates);
+    }
+
+    private static long randomCard(long cards, Random random) {
+        int pick = random.nextInt(Long.bitCount(cards));
+        for (int i = 0; i < pick; i++) {
+            cards &= cards - 1;
+        }
+        return Long.lowestOneBit(cards);
+    }
+
+    private static long rankMask(int rank) {
+        long mask = 0L;
+        for (int suit = 0; suit < 4; suit++) {
+            mask |= 1L << (suit * Card.RANKS_IN_SUIT + rank);
+        }
+        return mask;
+    }
+
+    /**
+     * Private constructor to prevent instantiation of the utility class.
+     */
+    private HandCorpus() {}
+}
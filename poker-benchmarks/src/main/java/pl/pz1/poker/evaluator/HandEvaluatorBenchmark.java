@@ -0,0 +1,102 @@
+package pl.pz1.poker.evaluator;
+
+import org.openjdk.jmh.annotations.*;
+import pl.pz1.poker.gameplay.Player;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures showdown resolution and single hand evaluation of {@link HandEvaluator}.
+ * Corpora are generated from a fixed seed, so results of different runs are comparable.
+ * The shaped corpora make every player at a table hold the same category, which exercises
+ * the tie-breaking of quads, full houses, two pairs and high cards.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HandEvaluatorBenchmark {
+
+    /**
+     * Number of tables in every corpus, a power of two so the cursor can be masked.
+     */
+    private static final int TABLES = 1024;
+
+    /**
+     * Seed of the generated corpora.
+     */
+    private static final long SEED = 20241215L;
+
+    @Param({"2", "3", "4"})
+    public int players;
+
+    @Param({"RANDOM", "QUADS", "FULL_HOUSE", "TWO_PAIRS", "HIGH_CARD"})
+    public HandCorpus.Shape shape;
+
+    private final HandEvaluator evaluator = new HandEvaluator();
+
+    private final HandRanker lowball = new LowballRanker();
+
+    private List<List<Player>> tables;
+
+    private long[] hands;
+
+    private int cursor = 0;
+
+    @Setup
+    public void setUp() {
+        tables = HandCorpus.tables(shape, players, TABLES, SEED);
+        hands = new long[TABLES];
+        for (int i = 0; i < TABLES; i++) {
+            hands[i] = tables.get(i).get(0).getHandMask();
+        }
+    }
+
+    /**
+     * Resolves the showdown of one table.
+     *
+     * @return IDs of the winners.
+     */
+    @Benchmark
+    public List<Integer> evaluateHands() {
+        return evaluator.evaluateHands(tables.get(next()));
+    }
+
+    /**
+     * Evaluates the category of a single player's hand.
+     *
+     * @return the category of the hand.
+     */
+    @Benchmark
+    public int evaluateHand() {
+        return evaluator.evaluateHand(tables.get(next()).get(0));
+    }
+
+    /**
+     * Evaluates the packed strength of a hand given as a card mask.
+     *
+     * @return the strength of the hand.
+     */
+    @Benchmark
+    public int evaluateStrength() {
+        return evaluator.evaluateStrength(hands[next()]);
+    }
+
+    /**
+     * Ranks a hand under deuce-to-seven lowball rules, to compare with {@link #evaluateStrength()}.
+     *
+     * @return the lowball rank of the hand.
+     */
+    @Benchmark
+    public int lowballRank() {
+        return lowball.rank(hands[next()]);
+    }
+
+    private int next() {
+        cursor = (cursor + 1) & (TABLES - 1);
+        return cursor;
+    }
+}
@@ -0,0 +1,42 @@
+package pl.pz1.poker.gameplay;
+
+import java.security.SecureRandom;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * Random generator backends compared by the shuffle benchmark and quality harness.
+ */
+public enum ShuffleBackend {
+
+    /**
+     * {@link Random}, the generator behind {@code Collections.shuffle}.
+     */
+    RANDOM,
+
+    /**
+     * {@link SplittableRandom}, the generator of the table decks.
+     */
+    SPLITTABLE,
+
+    /**
+     * {@link SecureRandom}, the generator of the pre-shuffled deck buffer.
+     */
+    SECURE;
+
+    /**
+     * Creates a generator of this backend. Seeds are ignored by {@link SecureRandom},
+     * which seeds itself.
+     *
+     * @param seed the seed of the generator.
+     * @return the generator.
+     */
+    public RandomGenerator create(long seed) {
+        return switch (this) {
+            case RANDOM -> new Random(seed);
+            case SPLITTABLE -> new SplittableRandom(seed);
+            case SECURE -> new SecureRandom();
+        };
+    }
+}
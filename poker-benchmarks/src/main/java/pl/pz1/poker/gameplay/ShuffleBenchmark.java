@@ -0,0 +1,73 @@
+package pl.pz1.poker.gameplay;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures shuffling and dealing with every random generator backend. {@code dealTable}
+ * deals a four-player table through {@link Croupier}, {@code shuffleDeck} deals the whole
+ * deck, which costs as much as a full shuffle. Scores are operations per microsecond;
+ * run it with {@code -t max} to see how the backends scale across cores.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ShuffleBenchmark {
+
+    /**
+     * Number of players at the dealt table.
+     */
+    private static final int SEATS = 4;
+
+    @Param({"RANDOM", "SPLITTABLE", "SECURE"})
+    private ShuffleBackend backend;
+
+    private Deck deck;
+
+    private final List<Player> players = new ArrayList<>();
+
+    @Setup
+    public void setUp() {
+        deck = new Deck(backend.create(System.nanoTime()));
+        for (int seat = 0; seat < SEATS; seat++) {
+            players.add(new Player((SocketChannel) null));
+        }
+    }
+
+    /**
+     * Deals five cards to every player of the table.
+     *
+     * @return mask of the cards of the first player.
+     */
+    @Benchmark
+    public long dealTable() {
+        for (Player player : players) {
+            player.removeCards(player.getHandMask());
+        }
+        deck.reset();
+        Croupier.dealCards(deck, players);
+        return players.get(0).getHandMask();
+    }
+
+    /**
+     * Deals every card of the deck.
+     *
+     * @return the last dealt card.
+     */
+    @Benchmark
+    public int shuffleDeck() {
+        deck.reset();
+        int card = 0;
+        for (int i = 0; i < Card.DECK_SIZE; i++) {
+            card = deck.deal();
+        }
+        return card;
+    }
+}
@@ -0,0 +1,148 @@
+package pl.pz1.poker.gameplay;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.random.RandomGenerator;
+
+/**
+ * Checks both fairness and speed of the deck with every random generator backend.
+ * Full decks are dealt on all cores, every worker owning its own {@link Deck} and generator,
+ * and two tables of frequencies are collected: the card dealt at every position of the deck
+ * and the first card every seat receives in the round-robin order of {@link Croupier}. For a uniform
+ * shuffle the chi-square statistic of a table has a mean equal to its degrees of freedom;
+ * the printed z-score (Wilson-Hilferty approximation) stays below 3 for a fair shuffle.
+ * Usage: {@code ShuffleQualityHarness [shuffles] [seats] [backend...]}, by default
+ * 20 000 000 shuffles of a four-seat table with every backend.
+ */
+public final class ShuffleQualityHarness {
+
+    /**
+     * Default number of shuffles per backend.
+     */
+    private static final long DEFAULT_SHUFFLES = 20_000_000L;
+
+    /**
+     * Default number of seats at the table.
+     */
+    private static final int DEFAULT_SEATS = 4;
+
+    /**
+     * Runs the harness.
+     *
+     * @param args optional number of shuffles, number of seats and names of backends.
+     * @throws InterruptedException if the harness is interrupted.
+     * @throws ExecutionException   if a worker fails.
+     */
+    public static void main(String[] args) throws InterruptedException, ExecutionException {
+        long shuffles = args.length > 0 ? Long.parseLong(args[0]) : DEFAULT_SHUFFLES;
+        int seats = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_SEATS;
+        List<ShuffleBackend> backends = new ArrayList<>();
+        for (int i = 2; i < args.length; i++) {
+            backends.add(ShuffleBackend.valueOf(args[i]));
+        }
+        if (backends.isEmpty()) {
+            backends.addAll(List.of(ShuffleBackend.values()));
+        }
+
+        int workers = Runtime.getRuntime().availableProcessors();
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        try {
+            for (ShuffleBackend backend : backends) {
+                run(executor, workers, backend, shuffles, seats);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static void run(ExecutorService executor, int workers, ShuffleBackend backend, long shuffles, int seats)
+            throws InterruptedException, ExecutionException {
+        SplittableRandom seeds = new SplittableRandom(shuffles);
+        List<Future<Counts>> futures = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int worker = 0; worker < workers; worker++) {
+            long share = shuffles / workers + (worker < shuffles % workers ? 1 : 0);
+            long seed = seeds.nextLong();
+            futures.add(executor.submit(() -> deal(backend.create(seed), share, seats)));
+        }
+        Counts total = new Counts(seats);
+        for (Future<Counts> future : futures) {
+            total.add(future.get());
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("%-10s %,14.0f tasowań/s  pozycje: %s  pierwsza karta miejsca: %s%n", backend,
+                shuffles / seconds, describe(total.byPosition, shuffles), describe(total.bySeat, shuffles));
+    }
+
+    /**
+     * Deals full decks and counts the cards at every position and the first card of every seat.
+     */
+    private static Counts deal(RandomGenerator random, long shuffles, int seats) {
+        Deck deck = new Deck(random);
+        Counts counts = new Counts(seats);
+        for (long shuffle = 0; shuffle < shuffles; shuffle++) {
+            deck.reset();
+            for (int position = 0; position < Card.DECK_SIZE; position++) {
+                int card = deck.deal();
+                counts.byPosition[position][card]++;
+                if (position < seats) {
+                    counts.bySeat[position][card]++;
+                }
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Formats the chi-square statistic of a table of frequencies whose rows should be uniform.
+     */
+    private static String describe(long[][] counts, long perRow) {
+        double expected = (double) perRow / Card.DECK_SIZE;
+        double chiSquare = 0;
+        for (long[] row : counts) {
+            for (long count : row) {
+                chiSquare += (count - expected) * (count - expected) / expected;
+            }
+        }
+        int degrees = counts.length * (Card.DECK_SIZE - 1);
+        double variance = 2.0 / (9 * degrees);
+        double z = (Math.cbrt(chiSquare / degrees) - (1 - variance)) / Math.sqrt(variance);
+        return String.format("chi2=%.1f df=%d z=%.2f", chiSquare, degrees, z);
+    }
+
+    /**
+     * Frequencies of cards at every deck position and as the first card of every seat.
+     */
+    private static final class Counts {
+        private final long[][] byPosition = new long[Card.DECK_SIZE][Card.DECK_SIZE];
+        private final long[][] bySeat;
+
+        Counts(int seats) {
+            bySeat = new long[seats][Card.DECK_SIZE];
+        }
+
+        void add(Counts other) {
+            for (int i = 0; i < byPosition.length; i++) {
+                for (int card = 0; card < Card.DECK_SIZE; card++) {
+                    byPosition[i][card] += other.byPosition[i][card];
+                }
+            }
+            for (int i = 0; i < bySeat.length; i++) {
+                for (int card = 0; card < Card.DECK_SIZE; card++) {
+                    bySeat[i][card] += other.bySeat[i][card];
+                }
+            }
+        }
+    }
+
+    /**
+     * Private constructor to prevent instantiation of the utility class.
+     */
+    private ShuffleQualityHarness() {}
+}
@@ -0,0 +1,208 @@
+package pl.pz1.poker.server;
+
+import pl.pz1.poker.util.parser.BinaryMoveCodec;
+import pl.pz1.poker.util.parser.ClientMoveParser;
+import pl.pz1.poker.util.parser.FrameCodec;
+import pl.pz1.poker.util.parser.Moves;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Load generator comparing the reactor and the blocking modes of a running server.
+ * Connections are opened in pairs: the first player of a pair creates a two-player table,
+ * both players join it and then request the status of their table in a loop, each request
+ * waiting for its response. The number of established connections, the throughput and
+ * the percentiles of the round-trip latency are printed. With the {@code binary} option the moves
+ * are sent in the binary protocol ({@link BinaryMoveCodec}) instead of the text one.
+ * Usage: {@code LoadGenerator [host] [port] [connections] [requests] [binary]}, by default
+ * 1000 connections to localhost:8080 sending 100 text requests each.
+ */
+public final class LoadGenerator {
+
+    /**
+     * Default number of connections, rounded down to pairs.
+     */
+    private static final int DEFAULT_CONNECTIONS = 1000;
+
+    /**
+     * Default number of status requests per connection.
+     */
+    private static final int DEFAULT_REQUESTS = 100;
+
+    /**
+     * Pattern of the player ID in the response to a join.
+     */
+    private static final Pattern PLAYER_ID = Pattern.compile("Twoje ID: (\\d+)");
+
+    /**
+     * Runs the load generator.
+     *
+     * @param args optional host, port, number of connections, number of requests per connection
+     *             and {@code binary} to use the binary protocol.
+     * @throws InterruptedException if the generator is interrupted.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        String host = args.length > 0 ? args[0] : "localhost";
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : 8080;
+        int pairs = (args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_CONNECTIONS) / 2;
+        int requests = args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_REQUESTS;
+        boolean binary = args.length > 4 && args[4].equals("binary");
+        InetSocketAddress address = new InetSocketAddress(host, port);
+
+        AtomicInteger connected = new AtomicInteger();
+        List<Future<long[]>> futures = new ArrayList<>();
+        long start = System.nanoTime();
+        ExecutorService executor = newClientThreads();
+        try {
+            for (int pair = 0; pair < pairs; pair++) {
+                CompletableFuture<Integer> table = new CompletableFuture<>();
+                futures.add(executor.submit(() -> play(address, table, true, requests, binary, connected)));
+                futures.add(executor.submit(() -> play(address, table, false, requests, binary, connected)));
+            }
+            long[] latencies = collect(futures);
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            System.out.printf("połączenia: %d/%d  żądania: %d  %,.0f żądań/s%n", connected.get(), 2 * pairs,
+                    latencies.length, latencies.length / seconds);
+            if (latencies.length > 0) {
+                System.out.printf("opóźnienie [µs]  p50: %d  p99: %d  p99.9: %d  max: %d%n",
+                        percentile(latencies, 0.5), percentile(latencies, 0.99),
+                        percentile(latencies, 0.999), latencies[latencies.length - 1] / 1000);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Plays one connection: creates or waits for the table, joins it and measures status requests.
+     *
+     * @return round-trip latencies in nanoseconds, empty if the connection failed.
+     */
+    private static long[] play(InetSocketAddress address, CompletableFuture<Integer> table, boolean creator,
+                               int requests, boolean binary, AtomicInteger connected) {
+        ClientMoveParser parser = new ClientMoveParser();
+        FrameCodec codec = new FrameCodec();
+        try (SocketChannel channel = SocketChannel.open(address)) {
+            connected.incrementAndGet();
+            receive(channel, codec);
+            if (binary) {
+                channel.write(BinaryMoveCodec.handshake());
+            }
+            int gameID;
+            if (creator) {
+                String created = request(channel, codec, binary ? BinaryMoveCodec.encodeNewGame(0, 0, 2, 10, null)
+                        : FrameCodec.encode(parser.parse("NEW_GAME 2, 10", 0, 0)));
+                gameID = Integer.parseInt(created.substring(created.lastIndexOf(' ') + 1));
+                table.complete(gameID);
+            } else {
+                gameID = table.get();
+            }
+            Matcher joined = PLAYER_ID.matcher(request(channel, codec, binary ? BinaryMoveCodec.encode(Moves.JOIN, gameID, 0)
+                    : FrameCodec.encode(parser.parse("JOIN " + gameID, 0, 0))));
+            if (!joined.find()) {
+                return new long[0];
+            }
+            int playerID = Integer.parseInt(joined.group(1));
+            ByteBuffer status = binary ? BinaryMoveCodec.encode(Moves.STATUS, gameID, playerID)
+                    : FrameCodec.encode(parser.parse("STATUS", gameID, playerID));
+
+            long[] latencies = new long[requests];
+            for (int i = 0; i < requests; i++) {
+                long sent = System.nanoTime();
+                request(channel, codec, status.rewind());
+                latencies[i] = System.nanoTime() - sent;
+            }
+            return latencies;
+        } catch (IOException | NumberFormatException | ExecutionException e) {
+            table.completeExceptionally(e);
+            return new long[0];
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new long[0];
+        }
+    }
+
+    /**
+     * Sends a move and waits for its response, skipping the messages pushed by the server.
+     */
+    private static String request(SocketChannel channel, FrameCodec codec, ByteBuffer frame) throws IOException {
+        channel.write(frame);
+        String response;
+        do {
+            response = receive(channel, codec);
+        } while (FrameCodec.isPushed(response));
+        return response;
+    }
+
+    private static String receive(SocketChannel channel, FrameCodec codec) throws IOException {
+        String message;
+        while ((message = codec.next()) == null) {
+            if (codec.read(channel) == -1) {
+                throw new EOFException("Connection closed by the server");
+            }
+        }
+        return message;
+    }
+
+    /**
+     * Merges the latencies of all connections into one sorted array.
+     */
+    private static long[] collect(List<Future<long[]>> futures) throws InterruptedException {
+        List<long[]> parts = new ArrayList<>();
+        int total = 0;
+        for (Future<long[]> future : futures) {
+            try {
+                long[] part = future.get();
+                parts.add(part);
+                total += part.length;
+            } catch (ExecutionException e) {
+                System.err.println("Błąd klienta: " + e.getCause());
+            }
+        }
+        long[] latencies = new long[total];
+        int offset = 0;
+        for (long[] part : parts) {
+            System.arraycopy(part, 0, latencies, offset, part.length);
+            offset += part.length;
+        }
+        Arrays.sort(latencies);
+        return latencies;
+    }
+
+    private static long percentile(long[] sorted, double fraction) {
+        return sorted[Math.min(sorted.length - 1, (int) (fraction * sorted.length))] / 1000;
+    }
+
+    /**
+     * Creates the executor running one thread per client connection: a virtual thread
+     * if the runtime supports them, otherwise a platform thread.
+     */
+    private static ExecutorService newClientThreads() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    /**
+     * Private constructor to prevent instantiation of the utility class.
+     */
+    private LoadGenerator() {}
+}
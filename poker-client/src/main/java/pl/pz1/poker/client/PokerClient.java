@@ -1,12 +1,15 @@
 package pl.pz1.poker.client;
 
 import pl.pz1.poker.util.parser.ClientMoveParser;
+import pl.pz1.poker.util.parser.FrameCodec;
 
+import java.io.EOFException;
 import java.io.IOException;
-import java.nio.ByteBuffer;
 import java.nio.channels.SocketChannel;
 import java.net.InetSocketAddress;
 import java.util.Scanner;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -14,18 +17,25 @@ import java.util.regex.Pattern;
 /**
  * The PokerClient class represents the client-side implementation of the poker game.
  * It handles communication with the server, processes player moves, and manages game state.
+ * Messages are read by a separate thread, so state changes pushed by the server are printed
+ * as soon as they arrive, also while the player is typing a move.
  */
 public class PokerClient {
 
+    /**
+     * Response passed to the input loop when the server has closed the connection.
+     */
+    private static final String CONNECTION_CLOSED = "Serwer zamknął połączenie";
+
     /**
      * The socket channel used to connect to the server.
      */
     private SocketChannel client;
 
     /**
-     * The buffer used for reading and writing data to the server.
+     * The codec splitting the data received from the server into messages.
      */
-    private final ByteBuffer buffer;
+    private final FrameCodec codec = new FrameCodec();
 
     /**
      * The server address to which the client connects.
@@ -52,6 +62,11 @@ public class PokerClient {
      */
     private int playerID = 0;
 
+    /**
+     * Responses to the moves sent, passed from the reader thread to the input loop.
+     */
+    private final BlockingQueue<String> responses = new LinkedBlockingQueue<>();
+
     /**
      * Constructs a PokerClient with the specified server address and port.
      *
@@ -61,7 +76,6 @@ public class PokerClient {
     public PokerClient(String serverAddress, int port) {
         this.serverAddress = serverAddress;
         this.port = port;
-        this.buffer = ByteBuffer.allocate(1024);
     }
 
     /**
@@ -82,11 +96,13 @@ public class PokerClient {
      */
     public void communicateWithServer() {
         try (Scanner scanner = new Scanner(System.in)) {
-            buffer.clear();
-            client.read(buffer);
-            String initialResponse = new String(buffer.array(), 0, buffer.position()).trim();
+            String initialResponse = receive();
             System.out.println(initialResponse);
 
+            Thread reader = new Thread(this::readMessages, "poker-client-reader");
+            reader.setDaemon(true);
+            reader.start();
+
             while (true) {
                 String move;
                 while (true) {
@@ -99,18 +115,13 @@ public class PokerClient {
                     }
                     System.out.println(move);
                 }
-                buffer.clear();
-                buffer.put(move.getBytes());
-                buffer.flip();
-                client.write(buffer);
+                client.write(FrameCodec.encode(move));
 
-                buffer.clear();
-                client.read(buffer);
-                String moveResponse = new String(buffer.array(), 0, buffer.position()).trim();
+                String moveResponse = responses.take();
 
                 System.out.println(moveResponse);
 
-                if (moveResponse.equals("Do zobaczenia!")) {
+                if (moveResponse.equals("Do zobaczenia!") || moveResponse.equals(CONNECTION_CLOSED)) {
                     break;
                 } else if (moveResponse.startsWith("Dołączono")) {
                     String regex = "ID: (\\d+)";
@@ -134,11 +145,59 @@ public class PokerClient {
             }
         } catch (IOException e) {
             System.err.println("Wystąpił błąd w komunikacji z serwerem: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         } finally {
             close();
         }
     }
 
+    /**
+     * Reads messages from the server until the connection is closed. Messages pushed by the server,
+     * such as table states and late hints, are printed immediately; responses to moves are passed
+     * to the input loop.
+     */
+    private void readMessages() {
+        try {
+            while (true) {
+                String message = receiveFrame();
+                if (FrameCodec.isPushed(message)) {
+                    System.out.println(FrameCodec.unmarkPushed(message).trim());
+                } else {
+                    responses.add(message.trim());
+                }
+            }
+        } catch (IOException e) {
+            responses.add(CONNECTION_CLOSED);
+        }
+    }
+
+    /**
+     * Receives the next message from the server, reading until a whole frame has arrived.
+     *
+     * @return the message received.
+     * @throws IOException if an I/O error occurs or the server has closed the connection.
+     */
+    String receive() throws IOException {
+        return receiveFrame().trim();
+    }
+
+    /**
+     * Receives the next message from the server as sent, including the marker of a pushed message.
+     *
+     * @return the message received.
+     * @throws IOException if an I/O error occurs or the server has closed the connection.
+     */
+    private String receiveFrame() throws IOException {
+        String message;
+        while ((message = codec.next()) == null) {
+            if (codec.read(client) == -1) {
+                throw new EOFException(CONNECTION_CLOSED);
+            }
+        }
+        return message;
+    }
+
     /**
      * Closes the connection to the server and releases resources.
      */
@@ -0,0 +1,69 @@
+package pl.pz1.poker.util.parser;
+
+/**
+ * A move of the binary protocol decoded by {@link BinaryMoveCodec}. Parameters are kept as primitive
+ * fields, so the move can be validated and executed without parsing text; the fields not used
+ * by the type of the move are zero, or null for the rules.
+ *
+ * @param type     the type of the move.
+ * @param gameID   the game ID.
+ * @param playerID the player ID.
+ * @param amount   the amount by which the bet is raised, of a RAISE.
+ * @param players  the number of players, of a NEW_GAME.
+ * @param ante     the initial bet, of a NEW_GAME.
+ * @param rules    the name of the showdown rules of a NEW_GAME, or null for the default rules.
+ * @param cards    the mask of the ordinals of the cards to exchange, of an EXCHANGE.
+ */
+public record BinaryMove(Moves type, int gameID, int playerID, int amount, int players, int ante, String rules,
+                         long cards) {
+
+    /**
+     * Creates a move without parameters.
+     *
+     * @param type     the type of the move.
+     * @param gameID   the game ID.
+     * @param playerID the player ID.
+     * @return the move.
+     */
+    public static BinaryMove of(Moves type, int gameID, int playerID) {
+        return new BinaryMove(type, gameID, playerID, 0, 0, 0, null, 0L);
+    }
+
+    /**
+     * Creates a RAISE move.
+     *
+     * @param gameID   the game ID.
+     * @param playerID the player ID.
+     * @param amount   the amount by which the bet is raised.
+     * @return the move.
+     */
+    public static BinaryMove raise(int gameID, int playerID, int amount) {
+        return new BinaryMove(Moves.RAISE, gameID, playerID, amount, 0, 0, null, 0L);
+    }
+
+    /**
+     * Creates a NEW_GAME move.
+     *
+     * @param gameID   the game ID.
+     * @param playerID the player ID.
+     * @param players  the number of players.
+     * @param ante     the initial bet.
+     * @param rules    the name of the showdown rules, or null for the default rules.
+     * @return the move.
+     */
+    public static BinaryMove newGame(int gameID, int playerID, int players, int ante, String rules) {
+        return new BinaryMove(Moves.NEW_GAME, gameID, playerID, 0, players, ante, rules, 0L);
+    }
+
+    /**
+     * Creates an EXCHANGE move.
+     *
+     * @param gameID   the game ID.
+     * @param playerID the player ID.
+     * @param cards    the mask of the ordinals of the cards to exchange.
+     * @return the move.
+     */
+    public static BinaryMove exchange(int gameID, int playerID, long cards) {
+        return new BinaryMove(Moves.EXCHANGE, gameID, playerID, 0, 0, 0, null, cards);
+    }
+}
@@ -0,0 +1,435 @@
+package pl.pz1.poker.util.parser;
+
+import java.io.IOException;
+import java.net.ProtocolException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The BinaryMoveCodec class encodes and decodes moves of the compact binary protocol, an alternative
+ * to the text format built by {@link ClientMoveParser} for bots and load clients.
+ * A client chooses the protocol by sending the {@link #HANDSHAKE} byte first: the first byte of a text
+ * frame is the highest byte of its length, which is always zero, so both protocols share one port.
+ * Every move is then sent as a frame: the payload length as a varint, followed by the payload:
+ * <ul>
+ *     <li>the opcode of the move as one byte, one of the {@code OPCODE_} constants,</li>
+ *     <li>the game ID and the player ID as varints,</li>
+ *     <li>the parameters: the amount of a RAISE as a four-byte big-endian integer; the number
+ *     of players as one byte, the ante as an integer and optionally the name of the rules in UTF-8
+ *     of a NEW_GAME; the ordinals of the cards of an EXCHANGE as one byte each.</li>
+ * </ul>
+ * Varints hold seven bits per byte, the lowest first, with the highest bit set on all bytes but the last.
+ * Responses of the server are text frames in both protocols.
+ * Opcodes are fixed by the protocol and do not depend on the order of the constants of {@link Moves}.
+ * An instance decodes the moves of one connection into {@link BinaryMove} records, keeping the bytes
+ * of incomplete frames between reads.
+ */
+public class BinaryMoveCodec {
+
+    /**
+     * The first byte sent by a client choosing the binary protocol.
+     */
+    public static final byte HANDSHAKE = (byte) 0xB1;
+
+    /**
+     * Largest accepted payload size in bytes; longer frames are treated as a protocol violation.
+     */
+    public static final int MAX_MESSAGE_SIZE = 256;
+
+    /**
+     * Largest number of bytes of a varint holding an integer.
+     */
+    private static final int MAX_VARINT_SIZE = 5;
+
+    /**
+     * Initial capacity of the accumulation buffer, enough for many moves.
+     */
+    private static final int INITIAL_CAPACITY = 512;
+
+    /**
+     * Opcode of the CALL move.
+     */
+    public static final int OPCODE_CALL = 0;
+
+    /**
+     * Opcode of the EXCHANGE move.
+     */
+    public static final int OPCODE_EXCHANGE = 1;
+
+    /**
+     * Opcode of the EXIT move.
+     */
+    public static final int OPCODE_EXIT = 2;
+
+    /**
+     * Opcode of the FOLD move.
+     */
+    public static final int OPCODE_FOLD = 3;
+
+    /**
+     * Opcode of the JOIN move.
+     */
+    public static final int OPCODE_JOIN = 4;
+
+    /**
+     * Opcode of the RAISE move.
+     */
+    public static final int OPCODE_RAISE = 5;
+
+    /**
+     * Opcode of the STATUS move.
+     */
+    public static final int OPCODE_STATUS = 6;
+
+    /**
+     * Opcode of the NEW_GAME move.
+     */
+    public static final int OPCODE_NEW_GAME = 7;
+
+    /**
+     * Opcode of the HINT move.
+     */
+    public static final int OPCODE_HINT = 8;
+
+    /**
+     * Number of cards of the deck; ordinals of the cards of an EXCHANGE must be lower.
+     */
+    private final int deckSize;
+
+    /**
+     * The bytes received and not yet decoded, kept in write mode between calls.
+     */
+    private ByteBuffer buffer = ByteBuffer.allocate(INITIAL_CAPACITY);
+
+    /**
+     * Index of the next byte of the payload being decoded.
+     */
+    private int cursor;
+
+    /**
+     * Constructs a decoder of the moves of one connection.
+     *
+     * @param deckSize the number of cards of the deck, at most {@value Long#SIZE}.
+     * @throws IllegalArgumentException if the cards do not fit in a mask.
+     */
+    public BinaryMoveCodec(int deckSize) {
+        if (deckSize < 1 || deckSize > Long.SIZE) {
+            throw new IllegalArgumentException("Deck size must be between 1 and " + Long.SIZE + ": " + deckSize);
+        }
+        this.deckSize = deckSize;
+    }
+
+    /**
+     * Gets the opcode of a move.
+     *
+     * @param move the move.
+     * @return the opcode.
+     */
+    public static int opcode(Moves move) {
+        return switch (move) {
+            case CALL -> OPCODE_CALL;
+            case EXCHANGE -> OPCODE_EXCHANGE;
+            case EXIT -> OPCODE_EXIT;
+            case FOLD -> OPCODE_FOLD;
+            case JOIN -> OPCODE_JOIN;
+            case RAISE -> OPCODE_RAISE;
+            case STATUS -> OPCODE_STATUS;
+            case NEW_GAME -> OPCODE_NEW_GAME;
+            case HINT -> OPCODE_HINT;
+        };
+    }
+
+    /**
+     * Gets the move of an opcode.
+     *
+     * @param opcode the opcode.
+     * @return the move, or null if the opcode is unknown.
+     */
+    public static Moves move(int opcode) {
+        return switch (opcode) {
+            case OPCODE_CALL -> Moves.CALL;
+            case OPCODE_EXCHANGE -> Moves.EXCHANGE;
+            case OPCODE_EXIT -> Moves.EXIT;
+            case OPCODE_FOLD -> Moves.FOLD;
+            case OPCODE_JOIN -> Moves.JOIN;
+            case OPCODE_RAISE -> Moves.RAISE;
+            case OPCODE_STATUS -> Moves.STATUS;
+            case OPCODE_NEW_GAME -> Moves.NEW_GAME;
+            case OPCODE_HINT -> Moves.HINT;
+            default -> null;
+        };
+    }
+
+    /**
+     * Returns the handshake choosing the binary protocol, to be written before the first move.
+     *
+     * @return the handshake, ready to be written.
+     */
+    public static ByteBuffer handshake() {
+        return ByteBuffer.wrap(new byte[]{HANDSHAKE});
+    }
+
+    /**
+     * Encodes a move without parameters.
+     *
+     * @param move     the move.
+     * @param gameID   the game ID.
+     * @param playerID the player ID.
+     * @return the frame, ready to be written.
+     */
+    public static ByteBuffer encode(Moves move, int gameID, int playerID) {
+        return frame(move, gameID, playerID, 0).flip();
+    }
+
+    /**
+     * Encodes a RAISE move.
+     *
+     * @param gameID   the game ID.
+     * @param playerID the player ID.
+     * @param amount   the amount by which the bet is raised.
+     * @return the frame, ready to be written.
+     */
+    public static ByteBuffer encodeRaise(int gameID, int playerID, int amount) {
+        return frame(Moves.RAISE, gameID, playerID, Integer.BYTES).putInt(amount).flip();
+    }
+
+    /**
+     * Encodes a NEW_GAME move.
+     *
+     * @param gameID   the game ID.
+     * @param playerID the player ID.
+     * @param players  the number of players, from 0 to 255.
+     * @param ante     the initial bet.
+     * @param rules    the name of the showdown rules, or null for the default rules.
+     * @return the frame, ready to be written.
+     */
+    public static ByteBuffer encodeNewGame(int gameID, int playerID, int players, int ante, String rules) {
+        byte[] name = rules == null ? new byte[0] : rules.getBytes(StandardCharsets.UTF_8);
+        return frame(Moves.NEW_GAME, gameID, playerID, 1 + Integer.BYTES + name.length)
+                .put((byte) players).putInt(ante).put(name).flip();
+    }
+
+    /**
+     * Encodes an EXCHANGE move.
+     *
+     * @param gameID   the game ID.
+     * @param playerID the player ID.
+     * @param cards    the ordinals of the cards to exchange, from 0 to 255.
+     * @return the frame, ready to be written.
+     */
+    public static ByteBuffer encodeExchange(int gameID, int playerID, int... cards) {
+        ByteBuffer frame = frame(Moves.EXCHANGE, gameID, playerID, cards.length);
+        for (int card : cards) {
+            frame.put((byte) card);
+        }
+        return frame.flip();
+    }
+
+    /**
+     * Allocates a frame and writes its length, opcode and IDs.
+     *
+     * @param move            the move.
+     * @param gameID          the game ID.
+     * @param playerID        the player ID.
+     * @param parameterBytes  the size of the parameters in bytes.
+     * @return the frame in write mode, positioned at the parameters.
+     */
+    private static ByteBuffer frame(Moves move, int gameID, int playerID, int parameterBytes) {
+        int length = 1 + varintSize(gameID) + varintSize(playerID) + parameterBytes;
+        if (length > MAX_MESSAGE_SIZE) {
+            throw new IllegalArgumentException("Move too large: " + length);
+        }
+        ByteBuffer frame = ByteBuffer.allocate(varintSize(length) + length);
+        putVarint(frame, length);
+        frame.put((byte) opcode(move));
+        putVarint(frame, gameID);
+        putVarint(frame, playerID);
+        return frame;
+    }
+
+    /**
+     * Writes an integer as a varint.
+     *
+     * @param buffer the buffer to write to.
+     * @param value  the integer, treated as unsigned.
+     */
+    private static void putVarint(ByteBuffer buffer, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    /**
+     * Computes the size of an integer written as a varint.
+     *
+     * @param value the integer, treated as unsigned.
+     * @return the number of bytes.
+     */
+    private static int varintSize(int value) {
+        return value == 0 ? 1 : (Integer.SIZE - Integer.numberOfLeadingZeros(value) + 6) / 7;
+    }
+
+    /**
+     * Reads the bytes available in a channel into the accumulation buffer.
+     *
+     * @param channel the channel of the connection.
+     * @return the number of bytes read, or -1 if the connection has been closed.
+     * @throws IOException if an I/O error occurs during the operation.
+     */
+    public int read(ReadableByteChannel channel) throws IOException {
+        if (!buffer.hasRemaining()) {
+            grow(buffer.capacity() * 2);
+        }
+        return channel.read(buffer);
+    }
+
+    /**
+     * Adds bytes received by other means, such as the bytes read to detect the protocol of a connection.
+     *
+     * @param bytes the bytes received.
+     */
+    public void offer(ByteBuffer bytes) {
+        if (buffer.remaining() < bytes.remaining()) {
+            grow(buffer.position() + bytes.remaining());
+        }
+        buffer.put(bytes);
+    }
+
+    /**
+     * Decodes the next complete move received.
+     *
+     * @return the move, or null if no complete frame has been received yet.
+     * @throws ProtocolException if the frame is malformed.
+     */
+    public BinaryMove next() throws ProtocolException {
+        int received = buffer.position();
+        cursor = 0;
+        int length = 0;
+        for (int shift = 0; ; shift += 7) {
+            if (cursor == received) {
+                return null;
+            }
+            if (cursor == MAX_VARINT_SIZE) {
+                throw new ProtocolException("Invalid frame length");
+            }
+            byte part = buffer.get(cursor++);
+            length |= (part & 0x7F) << shift;
+            if (part >= 0) {
+                break;
+            }
+        }
+        if (length < 1 || length > MAX_MESSAGE_SIZE) {
+            throw new ProtocolException("Invalid frame length: " + length);
+        }
+        int end = cursor + length;
+        if (received < end) {
+            return null;
+        }
+
+        BinaryMove move = decode(end);
+        buffer.flip().position(end);
+        buffer.compact();
+        return move;
+    }
+
+    /**
+     * Decodes the payload of a frame starting at the cursor.
+     *
+     * @param end the index following the payload.
+     * @return the move.
+     * @throws ProtocolException if the payload is malformed.
+     */
+    private BinaryMove decode(int end) throws ProtocolException {
+        int opcode = buffer.get(cursor++) & 0xFF;
+        Moves type = move(opcode);
+        if (type == null) {
+            throw new ProtocolException("Unknown opcode: " + opcode);
+        }
+        int gameID = varint(end);
+        int playerID = varint(end);
+
+        BinaryMove move;
+        switch (type) {
+            case RAISE -> {
+                require(Integer.BYTES, end);
+                move = BinaryMove.raise(gameID, playerID, buffer.getInt(cursor));
+                cursor += Integer.BYTES;
+            }
+            case NEW_GAME -> {
+                require(1 + Integer.BYTES, end);
+                int players = buffer.get(cursor) & 0xFF;
+                int ante = buffer.getInt(cursor + 1);
+                cursor += 1 + Integer.BYTES;
+                String rules = null;
+                if (cursor < end) {
+                    rules = new String(buffer.array(), cursor, end - cursor, StandardCharsets.UTF_8);
+                    cursor = end;
+                }
+                move = BinaryMove.newGame(gameID, playerID, players, ante, rules);
+            }
+            case EXCHANGE -> {
+                long cards = 0L;
+                for (; cursor < end; cursor++) {
+                    int ordinal = buffer.get(cursor) & 0xFF;
+                    if (ordinal >= deckSize || (cards & 1L << ordinal) != 0) {
+                        throw new ProtocolException("Invalid card ordinal: " + ordinal);
+                    }
+                    cards |= 1L << ordinal;
+                }
+                move = BinaryMove.exchange(gameID, playerID, cards);
+            }
+            default -> move = BinaryMove.of(type, gameID, playerID);
+        }
+        if (cursor != end) {
+            throw new ProtocolException("Invalid length of move " + type.getName() + ": " + (end - cursor) + " bytes left");
+        }
+        return move;
+    }
+
+    /**
+     * Decodes a varint starting at the cursor.
+     *
+     * @param end the index following the payload.
+     * @return the integer.
+     * @throws ProtocolException if the varint exceeds the payload or an integer.
+     */
+    private int varint(int end) throws ProtocolException {
+        int value = 0;
+        for (int shift = 0; shift < MAX_VARINT_SIZE * 7; shift += 7) {
+            require(1, end);
+            byte part = buffer.get(cursor++);
+            value |= (part & 0x7F) << shift;
+            if (part >= 0) {
+                return value;
+            }
+        }
+        throw new ProtocolException("Invalid varint");
+    }
+
+    /**
+     * Checks that the payload holds the given number of bytes after the cursor.
+     *
+     * @param bytes the number of bytes.
+     * @param end   the index following the payload.
+     * @throws ProtocolException if the payload is too short.
+     */
+    private void require(int bytes, int end) throws ProtocolException {
+        if (end - cursor < bytes) {
+            throw new ProtocolException("Truncated move");
+        }
+    }
+
+    /**
+     * Replaces the accumulation buffer with a larger one, keeping the bytes received.
+     *
+     * @param capacity the capacity of the new buffer.
+     */
+    private void grow(int capacity) {
+        ByteBuffer grown = ByteBuffer.allocate(Math.max(capacity, buffer.capacity()));
+        grown.put(buffer.flip());
+        buffer = grown;
+    }
+}
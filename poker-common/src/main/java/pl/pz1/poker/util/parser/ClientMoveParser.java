@@ -16,6 +16,10 @@ public class ClientMoveParser {
      * - Move type (RODZAJ_RUCHU)
      * - Move parameters (PARAMETRY_RUCHU)
      *
+     * A player who has not joined any game may follow JOIN or STATUS with the ID of a table,
+     * which is then sent as the game ID; an ID longer than nine digits does not fit the game ID
+     * and makes the move invalid.
+     *
      * If the input message is invalid, the method returns "Niepoprawny ruch!".
      *
      * @param message  the input message from the client.
@@ -51,6 +55,10 @@ public class ClientMoveParser {
                 result += Token.RODZAJ_RUCHU.getName() + ":STATUS\n" +
                         Token.PARAMETRY_RUCHU.getName() + ":";
             }
+            else if (parts[0].equals(Moves.HINT.getName())) {
+                result += Token.RODZAJ_RUCHU.getName() + ":HINT\n" +
+                        Token.PARAMETRY_RUCHU.getName() + ":";
+            }
             else if(parts[0].equals(Moves.EXCHANGE.getName())) {
                 result += Token.RODZAJ_RUCHU.getName() + ":EXCHANGE\n"
                         + Token.PARAMETRY_RUCHU.getName() + ":";
@@ -69,6 +77,13 @@ public class ClientMoveParser {
                 result += Token.RODZAJ_RUCHU.getName() + ":RAISE\n" +
                         Token.PARAMETRY_RUCHU.getName() + ":" + parts[1];
             }
+            else if ((parts[0].equals(Moves.JOIN.getName()) || parts[0].equals(Moves.STATUS.getName()))
+                    && gameID == 0 && parts[1].matches("\\d{1,9}")) {
+                result = Token.ID_GRY.getName() + ":" + Integer.parseInt(parts[1]) + "\n" +
+                        Token.ID_GRACZA.getName() + ":" + playerID + "\n" +
+                        Token.RODZAJ_RUCHU.getName() + ":" + parts[0] + "\n" +
+                        Token.PARAMETRY_RUCHU.getName() + ":";
+            }
             else if (message.startsWith("NEW_GAME")) {
                 result += Token.RODZAJ_RUCHU.getName() + ":NEW_GAME\n" +
                         Token.PARAMETRY_RUCHU.getName() + ":" + parts[1];
@@ -0,0 +1,155 @@
+package pl.pz1.poker.util.parser;
+
+import java.io.IOException;
+import java.net.ProtocolException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The FrameCodec class splits the byte stream of a connection into messages. Every message is sent
+ * as a frame: its length in bytes as a four-byte big-endian integer, followed by the message in UTF-8.
+ * An instance belongs to one connection and keeps the bytes of incomplete frames between reads,
+ * so one read may yield zero, one or many messages.
+ * Messages pushed by the server without a request, such as the state of a table, start with
+ * the {@link #PUSH_MARKER}, so clients can tell them from the responses to their moves.
+ */
+public class FrameCodec {
+
+    /**
+     * Size of the length prefix of a frame in bytes.
+     */
+    public static final int HEADER_SIZE = Integer.BYTES;
+
+    /**
+     * Largest accepted message size in bytes; longer frames are treated as a protocol violation.
+     */
+    public static final int MAX_MESSAGE_SIZE = 64 * 1024;
+
+    /**
+     * First character of every message pushed by the server without a request.
+     * It is a control character, so it never starts a response.
+     */
+    public static final char PUSH_MARKER = '\u0001';
+
+    /**
+     * Initial capacity of the accumulation buffer, enough for every move.
+     */
+    private static final int INITIAL_CAPACITY = 1024;
+
+    /**
+     * The bytes received and not yet decoded, kept in write mode between calls.
+     */
+    private ByteBuffer buffer = ByteBuffer.allocate(INITIAL_CAPACITY);
+
+    /**
+     * Encodes a message as a frame.
+     *
+     * @param message the message to be sent.
+     * @return the frame, ready to be written.
+     * @throws IllegalArgumentException if the encoded message exceeds {@link #MAX_MESSAGE_SIZE},
+     *                                  so the receiver would reject the frame.
+     */
+    public static ByteBuffer encode(String message) {
+        byte[] payload = message.getBytes(StandardCharsets.UTF_8);
+        if (payload.length > MAX_MESSAGE_SIZE) {
+            throw new IllegalArgumentException("Message too large: " + payload.length);
+        }
+        ByteBuffer frame = ByteBuffer.allocate(HEADER_SIZE + payload.length);
+        frame.putInt(payload.length).put(payload).flip();
+        return frame;
+    }
+
+    /**
+     * Marks a message as pushed by the server without a request.
+     *
+     * @param message the message.
+     * @return the message preceded by the {@link #PUSH_MARKER}.
+     */
+    public static String markPushed(String message) {
+        return PUSH_MARKER + message;
+    }
+
+    /**
+     * Checks whether a message has been pushed by the server without a request.
+     *
+     * @param message the message received.
+     * @return true if the message starts with the {@link #PUSH_MARKER}.
+     */
+    public static boolean isPushed(String message) {
+        return !message.isEmpty() && message.charAt(0) == PUSH_MARKER;
+    }
+
+    /**
+     * Removes the {@link #PUSH_MARKER} from a pushed message.
+     *
+     * @param message the message received.
+     * @return the message without the marker, or the message itself if it has not been pushed.
+     */
+    public static String unmarkPushed(String message) {
+        return isPushed(message) ? message.substring(1) : message;
+    }
+
+    /**
+     * Reads the bytes available in a channel into the accumulation buffer.
+     *
+     * @param channel the channel of the connection.
+     * @return the number of bytes read, or -1 if the connection has been closed.
+     * @throws IOException if an I/O error occurs during the operation.
+     */
+    public int read(ReadableByteChannel channel) throws IOException {
+        if (!buffer.hasRemaining()) {
+            grow(buffer.capacity() * 2);
+        }
+        return channel.read(buffer);
+    }
+
+    /**
+     * Adds bytes received by other means, such as the bytes read to detect the protocol of a connection.
+     *
+     * @param bytes the bytes received.
+     */
+    public void offer(ByteBuffer bytes) {
+        if (buffer.remaining() < bytes.remaining()) {
+            grow(buffer.position() + bytes.remaining());
+        }
+        buffer.put(bytes);
+    }
+
+    /**
+     * Decodes the next complete message received.
+     *
+     * @return the message, or null if no complete frame has been received yet.
+     * @throws ProtocolException if the length of the frame is negative or too large.
+     */
+    public String next() throws ProtocolException {
+        if (buffer.position() < HEADER_SIZE) {
+            return null;
+        }
+        int length = buffer.getInt(0);
+        if (length < 0 || length > MAX_MESSAGE_SIZE) {
+            throw new ProtocolException("Invalid frame length: " + length);
+        }
+        if (buffer.position() < HEADER_SIZE + length) {
+            if (buffer.capacity() < HEADER_SIZE + length) {
+                grow(HEADER_SIZE + length);
+            }
+            return null;
+        }
+        String message = new String(buffer.array(), HEADER_SIZE, length, StandardCharsets.UTF_8);
+        buffer.flip().position(HEADER_SIZE + length);
+        buffer.compact();
+        return message;
+    }
+
+    /**
+     * Replaces the accumulation buffer with a larger one, keeping the bytes received.
+     *
+     * @param capacity the capacity of the new buffer.
+     */
+    private void grow(int capacity) {
+        ByteBuffer grown = ByteBuffer.allocate(Math.min(capacity, HEADER_SIZE + MAX_MESSAGE_SIZE));
+        grown.put(buffer.flip());
+        buffer = grown;
+    }
+}
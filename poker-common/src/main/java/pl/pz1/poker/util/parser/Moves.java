@@ -44,7 +44,12 @@ public enum Moves {
     /**
      * Represents the "NEW_GAME" move.
      */
-    NEW_GAME("NEW_GAME");
+    NEW_GAME("NEW_GAME"),
+
+    /**
+     * Represents the "HINT" move.
+     */
+    HINT("HINT");
 
     /**
      * The string name of the move.
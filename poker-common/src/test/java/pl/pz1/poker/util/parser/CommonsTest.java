@@ -2,7 +2,16 @@ package pl.pz1.poker.util.parser;
 
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.ProtocolException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -68,6 +77,16 @@ class CommonsTest {
                 PARAMETRY_RUCHU:J-C""";
         assertEquals(expected, result);
 
+        result = clientMoveParser.parse("JOIN 3", 0, 0);
+        expected = """
+                ID_GRY:3
+                ID_GRACZA:0
+                RODZAJ_RUCHU:JOIN
+                PARAMETRY_RUCHU:""";
+        assertEquals(expected, result);
+        assertEquals("Niepoprawny ruch!", clientMoveParser.parse("JOIN 3", 2, 1));
+        assertEquals("Niepoprawny ruch!", clientMoveParser.parse("JOIN 99999999999", 0, 0));
+
         result = clientMoveParser.parse("RAISE 20", 0, 0);
         expected = """
                 ID_GRY:0
@@ -108,6 +127,131 @@ class CommonsTest {
     }
 
 
+    @Test
+    void ServerMoveParserSkipsLinesWithoutColonTest() {
+        ServerMoveParser serverMoveParser = new ServerMoveParser();
+        Map<String, String> result = serverMoveParser.parse("ID_GRY:0\nJOIN\nPARAMETRY_RUCHU:");
+        Map<String, String> expected = new HashMap<>();
+        expected.put("ID_GRY", "0");
+        expected.put("PARAMETRY_RUCHU", "");
+
+        assertEquals(expected, result);
+    }
+
+
+
+    @Test
+    void frameCodecReassemblesMessagesAcrossReadsTest() throws IOException {
+        String large = "PARAMETRY_RUCHU:" + "ą".repeat(3000);
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        for (String message : List.of("RODZAJ_RUCHU:CALL", "", large, "RODZAJ_RUCHU:FOLD")) {
+            ByteBuffer frame = FrameCodec.encode(message);
+            stream.write(frame.array(), 0, frame.limit());
+        }
+        byte[] bytes = stream.toByteArray();
+
+        // Whole stream in one read: every frame is extracted at once.
+        FrameCodec codec = new FrameCodec();
+        List<String> received = new ArrayList<>();
+        ReadableByteChannel whole = Channels.newChannel(new ByteArrayInputStream(bytes));
+        while (codec.read(whole) != -1) {
+            String message;
+            while ((message = codec.next()) != null) {
+                received.add(message);
+            }
+        }
+        assertEquals(List.of("RODZAJ_RUCHU:CALL", "", large, "RODZAJ_RUCHU:FOLD"), received);
+
+        // Seven bytes per read: partial frames wait for the following reads.
+        codec = new FrameCodec();
+        received.clear();
+        int offset = 0;
+        while (offset < bytes.length) {
+            int chunk = Math.min(7, bytes.length - offset);
+            ReadableByteChannel piece = Channels.newChannel(new ByteArrayInputStream(bytes, offset, chunk));
+            offset += chunk;
+            while (codec.read(piece) != -1) {
+                String message;
+                while ((message = codec.next()) != null) {
+                    received.add(message);
+                }
+            }
+        }
+        assertEquals(List.of("RODZAJ_RUCHU:CALL", "", large, "RODZAJ_RUCHU:FOLD"), received);
+
+        FrameCodec malformed = new FrameCodec();
+        malformed.read(Channels.newChannel(new ByteArrayInputStream("ID_GRY:0".getBytes())));
+        assertThrows(ProtocolException.class, malformed::next);
+
+        assertEquals(FrameCodec.HEADER_SIZE + FrameCodec.MAX_MESSAGE_SIZE,
+                FrameCodec.encode("a".repeat(FrameCodec.MAX_MESSAGE_SIZE)).remaining());
+        assertThrows(IllegalArgumentException.class, () -> FrameCodec.encode("ą".repeat(FrameCodec.MAX_MESSAGE_SIZE / 2 + 1)));
+
+        String pushed = FrameCodec.markPushed("Stan gry o ID: 1");
+        assertTrue(FrameCodec.isPushed(pushed));
+        assertEquals("Stan gry o ID: 1", FrameCodec.unmarkPushed(pushed));
+        assertFalse(FrameCodec.isPushed("Stan gry o ID: 1"));
+        assertFalse(FrameCodec.isPushed(""));
+        assertEquals("RODZAJ_RUCHU:CALL", FrameCodec.unmarkPushed("RODZAJ_RUCHU:CALL"));
+    }
+
+    @Test
+    void binaryMoveCodecDecodesTypedMovesTest() throws IOException {
+        ClientMoveParser clientMoveParser = new ClientMoveParser();
+        List<ByteBuffer> frames = List.of(
+                BinaryMoveCodec.encode(Moves.STATUS, 300, 0),
+                BinaryMoveCodec.encode(Moves.CALL, 7, 2),
+                BinaryMoveCodec.encodeRaise(7, 2, 50),
+                BinaryMoveCodec.encodeNewGame(0, 0, 2, 10, null),
+                BinaryMoveCodec.encodeNewGame(0, 0, 4, 100000, "LOW"),
+                BinaryMoveCodec.encodeExchange(7, 2, 0, 51));
+        List<BinaryMove> expected = List.of(
+                BinaryMove.of(Moves.STATUS, 300, 0),
+                BinaryMove.of(Moves.CALL, 7, 2),
+                BinaryMove.raise(7, 2, 50),
+                BinaryMove.newGame(0, 0, 2, 10, null),
+                BinaryMove.newGame(0, 0, 4, 100000, "LOW"),
+                BinaryMove.exchange(7, 2, 1L | 1L << 51));
+        assertTrue(frames.get(1).remaining() * 10 < FrameCodec.encode(clientMoveParser.parse("CALL", 7, 2)).remaining());
+
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        for (ByteBuffer frame : frames) {
+            stream.write(frame.array(), 0, frame.limit());
+        }
+        byte[] bytes = stream.toByteArray();
+
+        // Three bytes per read: partial frames wait for the following reads.
+        BinaryMoveCodec codec = new BinaryMoveCodec(52);
+        List<BinaryMove> received = new ArrayList<>();
+        for (int offset = 0; offset < bytes.length; offset += 3) {
+            int chunk = Math.min(3, bytes.length - offset);
+            codec.read(Channels.newChannel(new ByteArrayInputStream(bytes, offset, chunk)));
+            BinaryMove move;
+            while ((move = codec.next()) != null) {
+                received.add(move);
+            }
+        }
+        assertEquals(expected, received);
+
+        // Opcodes are fixed by the protocol, not by the order of the moves.
+        assertEquals(BinaryMoveCodec.OPCODE_RAISE, frames.get(2).get(1));
+        for (Moves move : Moves.values()) {
+            assertEquals(move, BinaryMoveCodec.move(BinaryMoveCodec.opcode(move)));
+        }
+
+        BinaryMoveCodec unknownCard = new BinaryMoveCodec(52);
+        unknownCard.offer(BinaryMoveCodec.encodeExchange(7, 2, 60));
+        assertThrows(ProtocolException.class, unknownCard::next);
+        BinaryMoveCodec duplicatedCard = new BinaryMoveCodec(52);
+        duplicatedCard.offer(BinaryMoveCodec.encodeExchange(7, 2, 5, 5));
+        assertThrows(ProtocolException.class, duplicatedCard::next);
+        BinaryMoveCodec unknownOpcode = new BinaryMoveCodec(52);
+        unknownOpcode.offer(ByteBuffer.wrap(new byte[]{3, (byte) 200, 0, 0}));
+        assertThrows(ProtocolException.class, unknownOpcode::next);
+        BinaryMoveCodec truncated = new BinaryMoveCodec(52);
+        truncated.offer(ByteBuffer.wrap(new byte[]{3, (byte) BinaryMoveCodec.OPCODE_RAISE, 0, 0}));
+        assertThrows(ProtocolException.class, truncated::next);
+    }
 
     @Test
     void MovesEnumTest() {
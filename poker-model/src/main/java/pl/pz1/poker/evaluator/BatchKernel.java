@@ -0,0 +1,57 @@
+package pl.pz1.poker.evaluator;
+
+/**
+ * Strategy evaluating many five-card masks at once, used by the batch API of {@link HandEvaluator}.
+ * The scalar kernel is always available. When the optional {@code poker-vector} module is on the class path
+ * and the JVM was started with {@code --add-modules jdk.incubator.vector}, a kernel computing rank histograms
+ * of several hands per instruction with the Vector API is loaded instead, unless the system property
+ * {@value #VECTOR_PROPERTY} is set to {@code false}.
+ */
+interface BatchKernel {
+
+    /**
+     * System property which disables the vector kernel when set to {@code false}.
+     */
+    String VECTOR_PROPERTY = "poker.evaluator.vector";
+
+    /**
+     * Name of the module providing the Vector API.
+     */
+    String VECTOR_MODULE = "jdk.incubator.vector";
+
+    /**
+     * Kernel looking up every hand separately.
+     */
+    BatchKernel SCALAR = (masks, strengths, count) -> {
+        for (int i = 0; i < count; i++) {
+            strengths[i] = HandEvaluator.strength(masks[i]);
+        }
+    };
+
+    /**
+     * Evaluates the first {@code count} masks.
+     *
+     * @param masks     five-card masks.
+     * @param strengths array receiving the packed strengths at the indexes of the masks.
+     * @param count     number of masks to evaluate.
+     */
+    void evaluate(long[] masks, int[] strengths, int count);
+
+    /**
+     * Chooses the fastest kernel available in the running JVM.
+     *
+     * @return the vector kernel if its module and the Vector API are present and enabled, the scalar one otherwise.
+     */
+    static BatchKernel load() {
+        if (!Boolean.parseBoolean(System.getProperty(VECTOR_PROPERTY, "true"))
+                || ModuleLayer.boot().findModule(VECTOR_MODULE).isEmpty()) {
+            return SCALAR;
+        }
+        try {
+            return (BatchKernel) Class.forName("pl.pz1.poker.evaluator.VectorBatchKernel")
+                    .getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return SCALAR;
+        }
+    }
+}
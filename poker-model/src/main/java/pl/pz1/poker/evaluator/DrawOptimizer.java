@@ -0,0 +1,295 @@
+package pl.pz1.poker.evaluator;
+
+import pl.pz1.poker.gameplay.Card;
+import pl.pz1.poker.gameplay.Player;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Computes the exact distribution of final hand categories, together with the expected packed
+ * strength of the final hand, for every way of exchanging up to {@link #MAX_DISCARD} cards
+ * of a five-card hand. Every possible draw from the remaining
+ * deck is enumerated on a fork/join pool. Results are cached by the suit-canonical form of the
+ * hand, so a repeated query for a hand, or for any hand differing only by suits, is a lookup.
+ */
+public class DrawOptimizer {
+
+    /**
+     * Maximal number of cards which can be exchanged, as enforced by the game.
+     */
+    public static final int MAX_DISCARD = 4;
+
+    /**
+     * Number of hands cached by default.
+     */
+    public static final int DEFAULT_CACHE_CAPACITY = 4096;
+
+    /**
+     * Draws of at least this many cards are split between tasks by their first card.
+     */
+    private static final int SPLIT_DRAW = 3;
+
+    /**
+     * Index of the sum of the final strengths in the arrays counted by the tasks, following the categories.
+     */
+    private static final int STRENGTH_SUM = HandEnumerator.CATEGORIES;
+
+    /**
+     * Pool the enumeration is run on.
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Options computed for canonical hands, with discards in canonical suits.
+     */
+    private final EvaluationCache<List<DrawOption>> cache;
+
+    /**
+     * Constructs an optimizer using the common fork/join pool and a cache of default capacity.
+     */
+    public DrawOptimizer() {
+        this(ForkJoinPool.commonPool(), new EvaluationCache<>(DEFAULT_CACHE_CAPACITY));
+    }
+
+    /**
+     * Constructs an optimizer using the given pool and cache.
+     *
+     * @param pool  the pool the enumeration is run on.
+     * @param cache the cache of options of canonical hands.
+     */
+    public DrawOptimizer(ForkJoinPool pool, EvaluationCache<List<DrawOption>> cache) {
+        this.pool = pool;
+        this.cache = cache;
+    }
+
+    /**
+     * Computes the outcome distributions of all allowed discards of the hand.
+     *
+     * @param hand mask of the five cards of the hand.
+     * @return the options, one for every discard subset, starting with keeping the whole hand.
+     * @throws IllegalArgumentException if the mask does not contain exactly five cards.
+     */
+    public List<DrawOption> analyze(long hand) {
+        if (Long.bitCount(hand) != Player.HAND_SIZE) {
+            throw new IllegalArgumentException("Hand must consist of " + Player.HAND_SIZE + " cards");
+        }
+        int permutation = SuitCanonicalizer.permutation(hand);
+        long canonical = SuitCanonicalizer.apply(hand, permutation);
+
+        List<DrawOption> options = cache.get(canonical, this::enumerate);
+
+        List<DrawOption> result = new ArrayList<>(options.size());
+        for (DrawOption option : options) {
+            result.add(new DrawOption(SuitCanonicalizer.revert(option.discard(), permutation),
+                    option.counts, option.strengthSum(), option.draws()));
+        }
+        return result;
+    }
+
+    /**
+     * Chooses the discard with the highest expected strength of the final hand.
+     * Between equally good options the one exchanging fewer cards is chosen.
+     *
+     * @param hand mask of the five cards of the hand.
+     * @return mask of the cards to exchange, 0 when the hand should be kept.
+     */
+    public long bestDiscard(long hand) {
+        DrawOption best = null;
+        for (DrawOption option : analyze(hand)) {
+            if (best == null || option.expectedStrength() > best.expectedStrength() + 1e-6) {
+                best = option;
+            }
+        }
+        return best.discard();
+    }
+
+    /**
+     * Gets the cache of options of canonical hands, e.g. to read its statistics.
+     *
+     * @return the cache.
+     */
+    public EvaluationCache<List<DrawOption>> getCache() {
+        return cache;
+    }
+
+    private List<DrawOption> enumerate(long hand) {
+        int[] handCards = cards(hand);
+        int[] deck = cards(((1L << Card.DECK_SIZE) - 1) & ~hand);
+
+        List<Long> discards = new ArrayList<>();
+        List<DrawTask> tasks = new ArrayList<>();
+        for (int subset = 0; subset < 1 << Player.HAND_SIZE; subset++) {
+            if (Integer.bitCount(subset) > MAX_DISCARD) {
+                continue;
+            }
+            long discard = 0L;
+            for (int i = 0; i < Player.HAND_SIZE; i++) {
+                if ((subset & (1 << i)) != 0) {
+                    discard |= 1L << handCards[i];
+                }
+            }
+            discards.add(discard);
+            tasks.add(new DrawTask(hand & ~discard, Integer.bitCount(subset), deck, 0, deck.length));
+        }
+        pool.invoke(new RecursiveTask<Void>() {
+            @Override
+            protected Void compute() {
+                ForkJoinTask.invokeAll(tasks);
+                return null;
+            }
+        });
+
+        // Order options by the number of exchanged cards, so keeping the hand comes first.
+        List<DrawOption> options = new ArrayList<>(tasks.size());
+        for (int draw = 0; draw <= MAX_DISCARD; draw++) {
+            for (int i = 0; i < tasks.size(); i++) {
+                if (tasks.get(i).draw == draw) {
+                    long[] totals = tasks.get(i).join();
+                    long[] counts = Arrays.copyOf(totals, STRENGTH_SUM);
+                    long draws = 0;
+                    for (long count : counts) {
+                        draws += count;
+                    }
+                    options.add(new DrawOption(discards.get(i), counts, totals[STRENGTH_SUM], draws));
+                }
+            }
+        }
+        return List.copyOf(options);
+    }
+
+    private static int[] cards(long mask) {
+        int[] cards = new int[Long.bitCount(mask)];
+        int size = 0;
+        for (long rest = mask; rest != 0; rest &= rest - 1) {
+            cards[size++] = Long.numberOfTrailingZeros(rest);
+        }
+        return cards;
+    }
+
+    /**
+     * Counts final categories of all draws whose first card lies in the given part of the deck
+     * and sums their final strengths.
+     */
+    private static final class DrawTask extends RecursiveTask<long[]> {
+        private final long kept;
+        private final int draw;
+        private final int[] deck;
+        private final int from;
+        private final int to;
+
+        DrawTask(long kept, int draw, int[] deck, int from, int to) {
+            this.kept = kept;
+            this.draw = draw;
+            this.deck = deck;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (draw >= SPLIT_DRAW && to - from > 2) {
+                int middle = (from + to) >>> 1;
+                DrawTask left = new DrawTask(kept, draw, deck, from, middle);
+                left.fork();
+                long[] counts = new DrawTask(kept, draw, deck, middle, to).compute();
+                long[] other = left.join();
+                for (int i = 0; i < counts.length; i++) {
+                    counts[i] += other[i];
+                }
+                return counts;
+            }
+
+            long[] counts = new long[STRENGTH_SUM + 1];
+            if (draw == 0) {
+                record(HandEvaluator.strength(kept), counts);
+                return counts;
+            }
+            for (int first = from; first < to; first++) {
+                count(kept | 1L << deck[first], draw - 1, first + 1, counts);
+            }
+            return counts;
+        }
+
+        private void count(long hand, int remaining, int start, long[] counts) {
+            if (remaining == 0) {
+                record(HandEvaluator.strength(hand), counts);
+                return;
+            }
+            for (int i = start; i <= deck.length - remaining; i++) {
+                count(hand | 1L << deck[i], remaining - 1, i + 1, counts);
+            }
+        }
+
+        private static void record(int strength, long[] counts) {
+            counts[HandStrength.category(strength)]++;
+            counts[STRENGTH_SUM] += strength;
+        }
+    }
+
+    /**
+     * Exact outcome distribution of one way of exchanging cards.
+     *
+     * @param discard     mask of the exchanged cards.
+     * @param counts      number of draws ending in every category, indexed by category value.
+     * @param strengthSum sum of the packed strengths ({@link HandStrength}) of the final hands of all draws.
+     * @param draws       number of all possible draws.
+     */
+    public record DrawOption(long discard, long[] counts, long strengthSum, long draws) {
+
+        /**
+         * Copies the counts, so the option cannot be changed through the given array.
+         */
+        public DrawOption {
+            counts = counts.clone();
+        }
+
+        /**
+         * Gets the number of draws ending in every category.
+         *
+         * @return a copy of the counts, indexed by category value.
+         */
+        @Override
+        public long[] counts() {
+            return counts.clone();
+        }
+
+        /**
+         * Gets the probability of ending with a hand of the given category.
+         *
+         * @param category value of {@link pl.pz1.poker.util.parser.Hands} or {@link HandStrength#HIGH_CARD}.
+         * @return the probability.
+         */
+        public double probability(int category) {
+            return (double) counts[category] / draws;
+        }
+
+        /**
+         * Gets the expected packed strength of the final hand, which orders the options
+         * by both categories and kickers of the final hands.
+         *
+         * @return the mean strength of the final hands.
+         */
+        public double expectedStrength() {
+            return (double) strengthSum / draws;
+        }
+
+        /**
+         * Gets the expected category value of the final hand. Category values are only labels
+         * of the categories, so options should be compared by {@link #expectedStrength()}.
+         *
+         * @return the expected category.
+         */
+        public double expectedCategory() {
+            double sum = 0;
+            for (int category = 0; category < counts.length; category++) {
+                sum += (double) category * counts[category];
+            }
+            return sum / draws;
+        }
+    }
+}
@@ -0,0 +1,457 @@
+package pl.pz1.poker.evaluator;
+
+import pl.pz1.poker.gameplay.Card;
+import pl.pz1.poker.gameplay.Player;
+
+import java.time.Duration;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Monte Carlo equity calculator for five-card draw.
+ * A sample replaces the discarded cards of the hand with random cards from the remaining deck
+ * and deals a random five-card hand to every opponent, then compares final strengths.
+ * Opponents are modelled as holding random hands, as their drawing strategy is unknown.
+ * Hands are compared with the {@link HandRanker} of the calculator, high-hand rules by default.
+ * Sampling is split across a fork/join pool, every worker using its own {@link SplittableRandom}
+ * stream and a primitive array deck, so a sample does not allocate any objects.
+ * Estimates without dead cards are cached by the suit-canonical form of the hand, the discarded
+ * cards and the number of opponents. A cached estimate is returned only to requests of at most as many
+ * samples as it holds, so a cheap estimate never answers a request for a precise one; requests limited
+ * by time only are always simulated, their results serving later requests limited by samples.
+ */
+public class EquityCalculator {
+
+    /**
+     * Minimal number of samples handled by a single worker.
+     */
+    private static final long MIN_CHUNK = 4096;
+
+    /**
+     * Number of estimates cached by default.
+     */
+    public static final int DEFAULT_CACHE_CAPACITY = 65536;
+
+    /**
+     * Key of estimates which are not cached.
+     */
+    private static final long NO_KEY = -1L;
+
+    /**
+     * Number of samples simulated between checks of the time budget.
+     */
+    private static final int BATCH = 256;
+
+    /**
+     * Pool the simulations are run on.
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Source of the per-estimate random streams.
+     */
+    private final SplittableRandom seeds;
+
+    /**
+     * Cache of estimates, or null when estimates are not cached.
+     */
+    private final EvaluationCache<Equity> cache;
+
+    /**
+     * Rules the simulated hands are compared with.
+     */
+    private final HandRanker ranker;
+
+    /**
+     * Constructs a calculator using the common fork/join pool, a random seed and a cache
+     * of default capacity.
+     */
+    public EquityCalculator() {
+        this(ForkJoinPool.commonPool(), new SplittableRandom(), new EvaluationCache<>(DEFAULT_CACHE_CAPACITY),
+                new HandEvaluator());
+    }
+
+    /**
+     * Constructs a calculator using the given pool and a fixed seed, making estimates reproducible
+     * as long as sample budgets are used.
+     *
+     * @param pool the pool the simulations are run on.
+     * @param seed the seed of the random streams.
+     */
+    public EquityCalculator(ForkJoinPool pool, long seed) {
+        this(pool, seed, new EvaluationCache<>(DEFAULT_CACHE_CAPACITY));
+    }
+
+    /**
+     * Constructs a calculator using the given pool, a fixed seed and the given cache.
+     *
+     * @param pool  the pool the simulations are run on.
+     * @param seed  the seed of the random streams.
+     * @param cache the cache of estimates, or null to disable caching.
+     */
+    public EquityCalculator(ForkJoinPool pool, long seed, EvaluationCache<Equity> cache) {
+        this(pool, seed, cache, new HandEvaluator());
+    }
+
+    /**
+     * Constructs a calculator using the given pool, a fixed seed, the given cache and showdown rules.
+     *
+     * @param pool   the pool the simulations are run on.
+     * @param seed   the seed of the random streams.
+     * @param cache  the cache of estimates, or null to disable caching.
+     * @param ranker the rules the simulated hands are compared with.
+     */
+    public EquityCalculator(ForkJoinPool pool, long seed, EvaluationCache<Equity> cache, HandRanker ranker) {
+        this(pool, new SplittableRandom(seed), cache, ranker);
+    }
+
+    private EquityCalculator(ForkJoinPool pool, SplittableRandom seeds, EvaluationCache<Equity> cache,
+                             HandRanker ranker) {
+        this.pool = pool;
+        this.seeds = seeds;
+        this.cache = cache;
+        this.ranker = ranker;
+    }
+
+    /**
+     * Estimates the probability of winning, tying and losing the showdown.
+     *
+     * @param hand      mask of the five cards of the hand.
+     * @param discard   mask of the cards to be exchanged, a subset of the hand (may be 0).
+     * @param dead      mask of cards known to be out of the deck (may be 0).
+     * @param opponents number of opponents still in the game.
+     * @param budget    limit of samples or time spent on the estimate.
+     * @return the estimated equity with its confidence interval.
+     * @throws IllegalArgumentException if the cards do not describe a valid situation.
+     */
+    public Equity estimate(long hand, long discard, long dead, int opponents, Budget budget) {
+        long deck = validate(hand, discard, dead, opponents);
+        long key = cacheKey(hand, discard, dead, opponents);
+        Equity cached = lookup(key, budget);
+        if (cached != null) {
+            return cached;
+        }
+        return store(key, pool.invoke(createTask(hand, discard, deck, opponents, budget)).toEquity());
+    }
+
+    /**
+     * Starts the estimate on the calculator's pool without blocking the calling thread.
+     *
+     * @param hand      mask of the five cards of the hand.
+     * @param discard   mask of the cards to be exchanged, a subset of the hand (may be 0).
+     * @param dead      mask of cards known to be out of the deck (may be 0).
+     * @param opponents number of opponents still in the game.
+     * @param budget    limit of samples or time spent on the estimate.
+     * @return future completed with the estimated equity.
+     * @throws IllegalArgumentException if the cards do not describe a valid situation.
+     */
+    public CompletableFuture<Equity> estimateAsync(long hand, long discard, long dead, int opponents, Budget budget) {
+        long deck = validate(hand, discard, dead, opponents);
+        long key = cacheKey(hand, discard, dead, opponents);
+        Equity cached = lookup(key, budget);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        SimulationTask task = createTask(hand, discard, deck, opponents, budget);
+        return CompletableFuture.supplyAsync(() -> store(key, task.invoke().toEquity()), pool);
+    }
+
+    /**
+     * Gets the cache of estimates, e.g. to read its statistics.
+     *
+     * @return the cache, or null when estimates are not cached.
+     */
+    public EvaluationCache<Equity> getCache() {
+        return cache;
+    }
+
+    /**
+     * Gets a cached estimate holding at least as many samples as the budget asks for.
+     */
+    private Equity lookup(long key, Budget budget) {
+        if (key == NO_KEY) {
+            return null;
+        }
+        Equity cached = cache.getIfPresent(key);
+        return cached != null && cached.samples() >= budget.samples() ? cached : null;
+    }
+
+    /**
+     * Caches an estimate unless a more precise one is already cached.
+     */
+    private Equity store(long key, Equity equity) {
+        if (key != NO_KEY) {
+            Equity cached = cache.getIfPresent(key);
+            if (cached == null || cached.samples() < equity.samples()) {
+                cache.put(key, equity);
+            }
+        }
+        return equity;
+    }
+
+    /**
+     * Builds the cache key from the canonical hand (52 bits), the positions of the discarded
+     * cards within it (5 bits) and the number of opponents.
+     */
+    private long cacheKey(long hand, long discard, long dead, int opponents) {
+        if (cache == null || dead != 0) {
+            return NO_KEY;
+        }
+        int permutation = SuitCanonicalizer.permutation(hand);
+        long canonical = SuitCanonicalizer.apply(hand, permutation);
+        long canonicalDiscard = SuitCanonicalizer.apply(discard, permutation);
+        long positions = 0L;
+        int position = 0;
+        for (long rest = canonical; rest != 0; rest &= rest - 1, position++) {
+            if ((canonicalDiscard & Long.lowestOneBit(rest)) != 0) {
+                positions |= 1L << position;
+            }
+        }
+        return canonical | positions << Card.DECK_SIZE | (long) opponents << (Card.DECK_SIZE + Player.HAND_SIZE);
+    }
+
+    /**
+     * Checks that the cards describe a valid situation and returns the mask of the cards left in the deck.
+     */
+    private static long validate(long hand, long discard, long dead, int opponents) {
+        if (Long.bitCount(hand) != Player.HAND_SIZE || (discard & ~hand) != 0 || (dead & hand) != 0) {
+            throw new IllegalArgumentException("Hand must consist of " + Player.HAND_SIZE + " live cards and contain the discarded ones");
+        }
+        long deck = ((1L << Card.DECK_SIZE) - 1) & ~hand & ~dead;
+        int needed = Long.bitCount(discard) + Player.HAND_SIZE * opponents;
+        if (opponents < 1 || needed > Long.bitCount(deck)) {
+            throw new IllegalArgumentException("Not enough cards for " + opponents + " opponents");
+        }
+        return deck;
+    }
+
+    private SimulationTask createTask(long hand, long discard, long deck, int opponents, Budget budget) {
+        SplittableRandom random;
+        synchronized (seeds) {
+            random = seeds.split();
+        }
+        long deadline = budget.nanos() == Long.MAX_VALUE ? Long.MAX_VALUE : System.nanoTime() + budget.nanos();
+        int workers = budget.samples() == Long.MAX_VALUE
+                ? pool.getParallelism()
+                : (int) Math.max(1, Math.min(pool.getParallelism(), budget.samples() / MIN_CHUNK));
+        return new SimulationTask(ranker, hand & ~discard, Long.bitCount(discard), deck, opponents,
+                budget.samples(), deadline, workers, random);
+    }
+
+    /**
+     * Simulates a share of the samples of one estimate, splitting itself between workers.
+     */
+    private static final class SimulationTask extends RecursiveTask<Tally> {
+        private final HandRanker ranker;
+        private final long kept;
+        private final int draw;
+        private final long deck;
+        private final int opponents;
+        private final long samples;
+        private final long deadline;
+        private final int workers;
+        private final SplittableRandom random;
+
+        SimulationTask(HandRanker ranker, long kept, int draw, long deck, int opponents, long samples,
+                       long deadline, int workers, SplittableRandom random) {
+            this.ranker = ranker;
+            this.kept = kept;
+            this.draw = draw;
+            this.deck = deck;
+            this.opponents = opponents;
+            this.samples = samples;
+            this.deadline = deadline;
+            this.workers = workers;
+            this.random = random;
+        }
+
+        @Override
+        protected Tally compute() {
+            if (workers > 1) {
+                int leftWorkers = workers / 2;
+                long leftSamples = samples == Long.MAX_VALUE ? samples : samples * leftWorkers / workers;
+                long rightSamples = samples == Long.MAX_VALUE ? samples : samples - leftSamples;
+                SimulationTask left = new SimulationTask(ranker, kept, draw, deck, opponents, leftSamples,
+                        deadline, leftWorkers, random.split());
+                left.fork();
+                Tally right = new SimulationTask(ranker, kept, draw, deck, opponents, rightSamples,
+                        deadline, workers - leftWorkers, random).compute();
+                return left.join().add(right);
+            }
+            return simulate();
+        }
+
+        private Tally simulate() {
+            int[] cards = new int[Long.bitCount(deck)];
+            int size = 0;
+            for (long rest = deck; rest != 0; rest &= rest - 1) {
+                cards[size++] = Long.numberOfTrailingZeros(rest);
+            }
+
+            Tally tally = new Tally();
+            while (tally.samples < samples && System.nanoTime() < deadline) {
+                long batch = Math.min(BATCH, samples - tally.samples);
+                for (long i = 0; i < batch; i++) {
+                    int position = 0;
+                    long hero = kept;
+                    for (int c = 0; c < draw; c++) {
+                        hero |= 1L << take(cards, position++);
+                    }
+                    int heroStrength = ranker.rank(hero);
+
+                    boolean lost = false;
+                    int tied = 0;
+                    for (int o = 0; o < opponents && !lost; o++) {
+                        long opponent = 0L;
+                        for (int c = 0; c < Player.HAND_SIZE; c++) {
+                            opponent |= 1L << take(cards, position++);
+                        }
+                        int strength = ranker.rank(opponent);
+                        if (strength > heroStrength) {
+                            lost = true;
+                        } else if (strength == heroStrength) {
+                            tied++;
+                        }
+                    }
+                    tally.record(lost, tied);
+                }
+            }
+            return tally;
+        }
+
+        /**
+         * Moves a random card from the undealt part of the deck to the given position (partial
+         * Fisher-Yates shuffle) and returns it.
+         */
+        private int take(int[] cards, int position) {
+            int swap = position + random.nextInt(cards.length - position);
+            int card = cards[swap];
+            cards[swap] = cards[position];
+            cards[position] = card;
+            return card;
+        }
+    }
+
+    /**
+     * Mutable counters of simulated showdowns.
+     */
+    private static final class Tally {
+        private long samples;
+        private long wins;
+        private long ties;
+        private double share;
+        private double shareSquares;
+
+        void record(boolean lost, int tied) {
+            samples++;
+            if (lost) {
+                return;
+            }
+            double value = 1.0 / (tied + 1);
+            if (tied == 0) {
+                wins++;
+            } else {
+                ties++;
+            }
+            share += value;
+            shareSquares += value * value;
+        }
+
+        Tally add(Tally other) {
+            samples += other.samples;
+            wins += other.wins;
+            ties += other.ties;
+            share += other.share;
+            shareSquares += other.shareSquares;
+            return this;
+        }
+
+        Equity toEquity() {
+            if (samples == 0) {
+                return new Equity(0, 0, 0, 0, 0, 0.5);
+            }
+            double n = samples;
+            double mean = share / n;
+            double variance = Math.max(0, shareSquares / n - mean * mean);
+            double margin = 1.96 * Math.sqrt(variance / n);
+            return new Equity(samples, wins / n, ties / n, (samples - wins - ties) / n, mean, margin);
+        }
+    }
+
+    /**
+     * Limit of the work spent on a single estimate. Whichever limit is reached first ends it.
+     * {@link Long#MAX_VALUE} stands for no limit, which is allowed for one of the two only.
+     *
+     * @param samples maximal number of samples.
+     * @param nanos   maximal duration in nanoseconds.
+     */
+    public record Budget(long samples, long nanos) {
+
+        /**
+         * Validates the limits.
+         *
+         * @throws IllegalArgumentException if a limit is not positive or neither limit is set.
+         */
+        public Budget {
+            if (samples <= 0 || nanos <= 0) {
+                throw new IllegalArgumentException("Budget limits must be positive: " + samples + " samples, " + nanos + " ns");
+            }
+            if (samples == Long.MAX_VALUE && nanos == Long.MAX_VALUE) {
+                throw new IllegalArgumentException("Budget must limit the number of samples or the time");
+            }
+        }
+
+        /**
+         * Creates a budget limited by the number of samples.
+         *
+         * @param samples number of samples to simulate.
+         * @return the budget.
+         */
+        public static Budget ofSamples(long samples) {
+            return new Budget(samples, Long.MAX_VALUE);
+        }
+
+        /**
+         * Creates a budget limited by time.
+         *
+         * @param duration time to spend on the estimate.
+         * @return the budget.
+         */
+        public static Budget ofTime(Duration duration) {
+            return new Budget(Long.MAX_VALUE, duration.toNanos());
+        }
+    }
+
+    /**
+     * Result of an equity estimate.
+     *
+     * @param samples number of simulated showdowns.
+     * @param win     probability of winning alone.
+     * @param tie     probability of splitting the pot.
+     * @param loss    probability of losing.
+     * @param equity  expected share of the pot.
+     * @param margin  half-width of the 95% confidence interval of the equity.
+     */
+    public record Equity(long samples, double win, double tie, double loss, double equity, double margin) {
+
+        /**
+         * Gets the lower bound of the 95% confidence interval of the equity.
+         *
+         * @return the lower bound.
+         */
+        public double lowerBound() {
+            return Math.max(0, equity - margin);
+        }
+
+        /**
+         * Gets the upper bound of the 95% confidence interval of the equity.
+         *
+         * @return the upper bound.
+         */
+        public double upperBound() {
+            return Math.min(1, equity + margin);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package pl.pz1.poker.evaluator;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongFunction;
+
+/**
+ * Bounded cache of evaluation results keyed by a long, usually built from the suit-canonical
+ * form of a hand (see {@link SuitCanonicalizer}). Keys are spread over independently locked
+ * stripes, each keeping its least recently used entries up to an equal share of the capacity,
+ * so concurrent lookups of different hands rarely contend. Hits and misses are counted
+ * for monitoring.
+ *
+ * @param <V> type of the cached results.
+ */
+public class EvaluationCache<V> {
+
+    /**
+     * Number of stripes, a power of two.
+     */
+    private static final int STRIPES = 16;
+
+    private final Stripe<V>[] stripes;
+
+    private final int capacity;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Constructs an empty cache.
+     *
+     * @param capacity maximal number of cached results, at least {@value #STRIPES}.
+     * @throws IllegalArgumentException if the capacity is too small.
+     */
+    @SuppressWarnings("unchecked")
+    public EvaluationCache(int capacity) {
+        if (capacity < STRIPES) {
+            throw new IllegalArgumentException("Capacity must be at least " + STRIPES);
+        }
+        this.capacity = capacity;
+        this.stripes = new Stripe[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe<>(capacity / STRIPES);
+        }
+    }
+
+    /**
+     * Gets the cached result or computes and caches it on a miss. The result is computed
+     * outside of any lock, so two threads missing the same key may both compute it.
+     *
+     * @param key    key of the result.
+     * @param loader function computing the result of a key.
+     * @return the cached or computed result.
+     */
+    public V get(long key, LongFunction<? extends V> loader) {
+        V value = getIfPresent(key);
+        if (value == null) {
+            value = loader.apply(key);
+            put(key, value);
+        }
+        return value;
+    }
+
+    /**
+     * Gets the cached result, counting the lookup as a hit or a miss.
+     *
+     * @param key key of the result.
+     * @return the result, or null if it is not cached.
+     */
+    public V getIfPresent(long key) {
+        Stripe<V> stripe = stripe(key);
+        V value;
+        synchronized (stripe) {
+            value = stripe.get(key);
+        }
+        (value == null ? misses : hits).increment();
+        return value;
+    }
+
+    /**
+     * Caches a result, possibly evicting the least recently used result of its stripe.
+     *
+     * @param key   key of the result.
+     * @param value the result.
+     */
+    public void put(long key, V value) {
+        Stripe<V> stripe = stripe(key);
+        synchronized (stripe) {
+            stripe.put(key, value);
+        }
+    }
+
+    /**
+     * Gets the number of cached results.
+     *
+     * @return the size of the cache.
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe<V> stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Gets the maximal number of cached results.
+     *
+     * @return the capacity of the cache.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Gets the number of lookups which found a result.
+     *
+     * @return the number of hits.
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Gets the number of lookups which did not find a result.
+     *
+     * @return the number of misses.
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Gets the share of lookups which found a result.
+     *
+     * @return the hit rate, 0 when there were no lookups.
+     */
+    public double getHitRate() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    private Stripe<V> stripe(long key) {
+        return stripes[(int) ((key * 0x9E3779B97F4A7C15L) >>> 60) & (STRIPES - 1)];
+    }
+
+    /**
+     * Part of the cache guarded by its own monitor, evicting in access order.
+     */
+    private static final class Stripe<V> extends LinkedHashMap<Long, V> {
+        private final int capacity;
+
+        Stripe(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, V> eldest) {
+            return size() > capacity;
+        }
+    }
+}
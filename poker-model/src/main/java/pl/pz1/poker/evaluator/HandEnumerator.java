@@ -0,0 +1,397 @@
+package pl.pz1.poker.evaluator;
+
+import pl.pz1.poker.gameplay.Card;
+import pl.pz1.poker.util.parser.Hands;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.LongToIntFunction;
+
+/**
+ * Harness enumerating all 2,598,960 five-card hands on a fork/join pool.
+ * It builds a histogram of hand categories, checks it against the known combinatorial counts
+ * and measures evaluator throughput. In differential mode it compares two evaluators
+ * hand by hand and checks that they order randomly sampled pairs of hands in the same way.
+ */
+public class HandEnumerator {
+
+    /**
+     * Number of distinct five-card hands.
+     */
+    public static final long ALL_HANDS = 2_598_960L;
+
+    /**
+     * Number of hand categories, including high card.
+     */
+    public static final int CATEGORIES = Hands.ROYAL_FLUSH.getValue() + 1;
+
+    /**
+     * Known number of hands in every category, indexed by category value.
+     */
+    private static final long[] KNOWN_COUNTS = new long[CATEGORIES];
+
+    static {
+        KNOWN_COUNTS[HandStrength.HIGH_CARD] = 1_302_540L;
+        KNOWN_COUNTS[Hands.ONE_PAIR.getValue()] = 1_098_240L;
+        KNOWN_COUNTS[Hands.TWO_PAIRS.getValue()] = 123_552L;
+        KNOWN_COUNTS[Hands.THREE_OF_A_KIND.getValue()] = 54_912L;
+        KNOWN_COUNTS[Hands.STRAIGHT.getValue()] = 10_200L;
+        KNOWN_COUNTS[Hands.FLUSH.getValue()] = 5_108L;
+        KNOWN_COUNTS[Hands.FULL_HOUSE.getValue()] = 3_744L;
+        KNOWN_COUNTS[Hands.QUADS.getValue()] = 624L;
+        KNOWN_COUNTS[Hands.STRAIGHT_FLUSH.getValue()] = 36L;
+        KNOWN_COUNTS[Hands.ROYAL_FLUSH.getValue()] = 4L;
+    }
+
+    /**
+     * Pool used to split the enumeration across cores.
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Constructs an enumerator using the common fork/join pool.
+     */
+    public HandEnumerator() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructs an enumerator using the given pool.
+     *
+     * @param pool the pool the enumeration is run on.
+     */
+    public HandEnumerator(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Gets the known number of hands of a category.
+     *
+     * @param category the category value.
+     * @return number of five-card hands of the category.
+     */
+    public static long knownCount(int category) {
+        return KNOWN_COUNTS[category];
+    }
+
+    /**
+     * Evaluates every five-card hand and counts hands of each category.
+     *
+     * @param evaluator function returning the packed strength of a five-card mask.
+     * @return histogram of categories together with the measured throughput.
+     */
+    public Histogram enumerate(LongToIntFunction evaluator) {
+        long start = System.nanoTime();
+        long[] counts = pool.invoke(new HistogramTask(evaluator, 0, Card.DECK_SIZE - 4));
+        return new Histogram(counts, System.nanoTime() - start);
+    }
+
+    /**
+     * Compares two evaluators over every five-card hand and over sampled pairs of hands.
+     * Every hand must fall into the same category for both evaluators, and both must
+     * agree whether the first hand of a sampled pair is weaker, equal or stronger.
+     *
+     * @param reference evaluator treated as correct.
+     * @param candidate evaluator being verified.
+     * @param pairs     number of sampled pairs of hands.
+     * @param seed      seed of the pair sampling.
+     * @return summary of the found differences.
+     */
+    public Difference compare(LongToIntFunction reference, LongToIntFunction candidate, long pairs, long seed) {
+        long[] categoryResult = pool.invoke(new DifferenceTask(reference, candidate, 0, Card.DECK_SIZE - 4));
+        long[] orderingResult = pool.invoke(new PairTask(reference, candidate, new SplittableRandom(seed), pairs));
+        return new Difference(categoryResult[0], categoryResult[1], pairs, orderingResult[0], orderingResult[1]);
+    }
+
+    /**
+     * Enumerates all hands whose lowest card has an ordinal in the given range.
+     */
+    private abstract static class EnumerationTask extends RecursiveTask<long[]> {
+        private final int from;
+        private final int to;
+
+        EnumerationTask(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                EnumerationTask left = split(from, middle);
+                left.fork();
+                long[] right = split(middle, to).compute();
+                return merge(left.join(), right);
+            }
+
+            long[] result = newResult();
+            for (int a = from; a < to; a++) {
+                long m1 = 1L << a;
+                for (int b = a + 1; b < Card.DECK_SIZE - 3; b++) {
+                    long m2 = m1 | (1L << b);
+                    for (int c = b + 1; c < Card.DECK_SIZE - 2; c++) {
+                        long m3 = m2 | (1L << c);
+                        for (int d = c + 1; d < Card.DECK_SIZE - 1; d++) {
+                            long m4 = m3 | (1L << d);
+                            for (int e = d + 1; e < Card.DECK_SIZE; e++) {
+                                visit(m4 | (1L << e), result);
+                            }
+                        }
+                    }
+                }
+            }
+            return result;
+        }
+
+        abstract EnumerationTask split(int from, int to);
+
+        abstract long[] newResult();
+
+        abstract void visit(long hand, long[] result);
+
+        abstract long[] merge(long[] left, long[] right);
+    }
+
+    private static final class HistogramTask extends EnumerationTask {
+        private final LongToIntFunction evaluator;
+
+        HistogramTask(LongToIntFunction evaluator, int from, int to) {
+            super(from, to);
+            this.evaluator = evaluator;
+        }
+
+        @Override
+        EnumerationTask split(int from, int to) {
+            return new HistogramTask(evaluator, from, to);
+        }
+
+        @Override
+        long[] newResult() {
+            return new long[CATEGORIES];
+        }
+
+        @Override
+        void visit(long hand, long[] result) {
+            result[HandStrength.category(evaluator.applyAsInt(hand))]++;
+        }
+
+        @Override
+        long[] merge(long[] left, long[] right) {
+            for (int i = 0; i < left.length; i++) {
+                left[i] += right[i];
+            }
+            return left;
+        }
+    }
+
+    /**
+     * Counts hands categorised differently by two evaluators; the result holds
+     * the number of mismatches and the first mismatching hand (0 if none).
+     */
+    private static final class DifferenceTask extends EnumerationTask {
+        private final LongToIntFunction reference;
+        private final LongToIntFunction candidate;
+
+        DifferenceTask(LongToIntFunction reference, LongToIntFunction candidate, int from, int to) {
+            super(from, to);
+            this.reference = reference;
+            this.candidate = candidate;
+        }
+
+        @Override
+        EnumerationTask split(int from, int to) {
+            return new DifferenceTask(reference, candidate, from, to);
+        }
+
+        @Override
+        long[] newResult() {
+            return new long[2];
+        }
+
+        @Override
+        void visit(long hand, long[] result) {
+            if (HandStrength.category(reference.applyAsInt(hand)) != HandStrength.category(candidate.applyAsInt(hand))) {
+                if (result[0]++ == 0) {
+                    result[1] = hand;
+                }
+            }
+        }
+
+        @Override
+        long[] merge(long[] left, long[] right) {
+            if (left[0] == 0) {
+                left[1] = right[1];
+            }
+            left[0] += right[0];
+            return left;
+        }
+    }
+
+    /**
+     * Samples pairs of random hands and counts pairs ordered differently by two evaluators;
+     * the result holds the number of mismatches and one hand of the first mismatching pair.
+     */
+    private static final class PairTask extends RecursiveTask<long[]> {
+        private static final long THRESHOLD = 1L << 16;
+
+        private final LongToIntFunction reference;
+        private final LongToIntFunction candidate;
+        private final SplittableRandom random;
+        private final long pairs;
+
+        PairTask(LongToIntFunction reference, LongToIntFunction candidate, SplittableRandom random, long pairs) {
+            this.reference = reference;
+            this.candidate = candidate;
+            this.random = random;
+            this.pairs = pairs;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (pairs > THRESHOLD) {
+                PairTask left = new PairTask(reference, candidate, random.split(), pairs / 2);
+                left.fork();
+                long[] right = new PairTask(reference, candidate, random, pairs - pairs / 2).compute();
+                long[] result = left.join();
+                if (result[0] == 0) {
+                    result[1] = right[1];
+                }
+                result[0] += right[0];
+                return result;
+            }
+
+            long[] result = new long[2];
+            for (long i = 0; i < pairs; i++) {
+                long first = randomHand(random);
+                long second = randomHand(random);
+                int expected = Integer.signum(Integer.compare(reference.applyAsInt(first), reference.applyAsInt(second)));
+                int actual = Integer.signum(Integer.compare(candidate.applyAsInt(first), candidate.applyAsInt(second)));
+                if (expected != actual && result[0]++ == 0) {
+                    result[1] = first;
+                }
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Draws a uniformly random five-card hand.
+     *
+     * @param random source of randomness.
+     * @return 52-bit mask with five bits set.
+     */
+    static long randomHand(SplittableRandom random) {
+        long hand = 0L;
+        while (Long.bitCount(hand) < 5) {
+            hand |= 1L << random.nextInt(Card.DECK_SIZE);
+        }
+        return hand;
+    }
+
+    /**
+     * Histogram of hand categories produced by a full enumeration.
+     *
+     * @param counts number of hands of each category, indexed by category value.
+     * @param nanos  duration of the enumeration in nanoseconds.
+     */
+    public record Histogram(long[] counts, long nanos) {
+
+        /**
+         * Gets the total number of evaluated hands.
+         *
+         * @return the number of hands.
+         */
+        public long hands() {
+            long total = 0;
+            for (long count : counts) {
+                total += count;
+            }
+            return total;
+        }
+
+        /**
+         * Gets the evaluation throughput.
+         *
+         * @return evaluated hands per second.
+         */
+        public double handsPerSecond() {
+            return hands() * 1e9 / Math.max(1, nanos);
+        }
+
+        /**
+         * Checks whether every category holds exactly the known number of hands.
+         *
+         * @return true if the histogram matches the combinatorial counts.
+         */
+        public boolean matchesKnownCounts() {
+            for (int category = 0; category < CATEGORIES; category++) {
+                if (counts[category] != KNOWN_COUNTS[category]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Summary of a differential comparison of two evaluators.
+     *
+     * @param categoryMismatches  number of hands categorised differently.
+     * @param firstCategoryMismatch mask of the first such hand, 0 if there is none.
+     * @param pairs               number of compared pairs of hands.
+     * @param orderingMismatches  number of pairs ordered differently.
+     * @param firstOrderingMismatch mask of a hand of the first such pair, 0 if there is none.
+     */
+    public record Difference(long categoryMismatches, long firstCategoryMismatch, long pairs,
+                             long orderingMismatches, long firstOrderingMismatch) {
+
+        /**
+         * Checks whether the evaluators agreed on every hand and every pair.
+         *
+         * @return true if no difference was found.
+         */
+        public boolean isEmpty() {
+            return categoryMismatches == 0 && orderingMismatches == 0;
+        }
+    }
+
+    /**
+     * Runs the enumeration with {@link HandEvaluator} and prints the histogram and the throughput,
+     * measured on a second run after a warm-up run.
+     * With the "--diff" argument it additionally compares {@link HandEvaluator} against
+     * {@link ReferenceEvaluator}; an optional following number sets the count of sampled pairs.
+     *
+     * @param args command-line arguments.
+     */
+    public static void main(String[] args) {
+        HandEvaluator evaluator = new HandEvaluator();
+        HandEnumerator enumerator = new HandEnumerator();
+
+        // The first run only warms up the JIT; the throughput is reported of the second one.
+        enumerator.enumerate(evaluator::evaluateStrength);
+        Histogram histogram = enumerator.enumerate(evaluator::evaluateStrength);
+
+        System.out.printf("%-16s %10s %10s%n", "Układ", "Liczba", "Oczekiwana");
+        for (int category = CATEGORIES - 1; category >= 0; category--) {
+            Hands hand = HandStrength.toHands(category << HandStrength.CATEGORY_SHIFT);
+            String name = hand == null ? "HIGH_CARD" : hand.name();
+            System.out.printf("%-16s %10d %10d%n", name, histogram.counts()[category], KNOWN_COUNTS[category]);
+        }
+        System.out.println("Zgodność z wartościami teoretycznymi: " + histogram.matchesKnownCounts());
+        System.out.printf("Przepustowość: %.0f rąk/s (%d wątków)%n", histogram.handsPerSecond(), enumerator.pool.getParallelism());
+
+        if (args.length > 0 && args[0].equals("--diff")) {
+            long pairs = args.length > 1 ? Long.parseLong(args[1]) : 10_000_000L;
+            Difference difference = enumerator.compare(ReferenceEvaluator::evaluate, evaluator::evaluateStrength, pairs, 0L);
+            System.out.println("Różne kategorie: " + difference.categoryMismatches()
+                    + ", różna kolejność par: " + difference.orderingMismatches() + " z " + difference.pairs());
+            if (!difference.isEmpty()) {
+                long hand = difference.categoryMismatches() > 0
+                        ? difference.firstCategoryMismatch() : difference.firstOrderingMismatch();
+                System.out.println("Przykładowa ręka: " + Card.listOf(hand));
+            }
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package pl.pz1.poker.evaluator;
+
+import pl.pz1.poker.gameplay.Card;
+import pl.pz1.poker.gameplay.Player;
+
+/**
+ * Combinatorial number system over five-card hands. Every hand is numbered by
+ * {@code C(c0, 1) + C(c1, 2) + ... + C(c4, 5)}, where {@code c0 < c1 < ... < c4} are its card
+ * ordinals, which maps the hands one-to-one onto {@code 0 .. C(52, 5) - 1} in colexicographic
+ * order. The index is used as the bit position of a hand in a {@link HandRange}.
+ */
+final class HandIndex {
+
+    /**
+     * Number of distinct five-card hands.
+     */
+    static final int COMBINATIONS = 2_598_960;
+
+    /**
+     * Binomial coefficients {@code C(n, k)} for {@code n <= 52} and {@code k <= 5}.
+     */
+    private static final int[][] BINOMIAL = new int[Card.DECK_SIZE + 1][Player.HAND_SIZE + 1];
+
+    static {
+        for (int n = 0; n <= Card.DECK_SIZE; n++) {
+            BINOMIAL[n][0] = 1;
+            for (int k = 1; k <= Math.min(n, Player.HAND_SIZE); k++) {
+                BINOMIAL[n][k] = BINOMIAL[n - 1][k - 1] + BINOMIAL[n - 1][k];
+            }
+        }
+    }
+
+    /**
+     * Computes the index of a hand.
+     *
+     * @param hand mask of exactly five cards.
+     * @return the index of the hand.
+     */
+    static int index(long hand) {
+        int index = 0;
+        int k = 1;
+        for (long rest = hand; rest != 0; rest &= rest - 1, k++) {
+            index += BINOMIAL[Long.numberOfTrailingZeros(rest)][k];
+        }
+        return index;
+    }
+
+    /**
+     * Computes the hand of an index.
+     *
+     * @param index index of the hand, between 0 and {@value #COMBINATIONS} exclusive.
+     * @return mask of the five cards of the hand.
+     */
+    static long hand(int index) {
+        long hand = 0L;
+        int card = Card.DECK_SIZE;
+        for (int k = Player.HAND_SIZE; k > 0; k--) {
+            do {
+                card--;
+            } while (BINOMIAL[card][k] > index);
+            hand |= 1L << card;
+            index -= BINOMIAL[card][k];
+        }
+        return hand;
+    }
+
+    /**
+     * Computes the hand of the next index without decoding it: in colexicographic order
+     * the next hand is the next greater mask with the same number of cards.
+     *
+     * @param hand mask of the cards of a hand.
+     * @return mask of the hand with the index greater by one.
+     */
+    static long next(long hand) {
+        long lowest = hand & -hand;
+        long ripple = hand + lowest;
+        return ripple | ((hand ^ ripple) >>> 2) / lowest;
+    }
+
+    /**
+     * Private constructor to prevent instantiation of the utility class.
+     */
+    private HandIndex() {}
+}
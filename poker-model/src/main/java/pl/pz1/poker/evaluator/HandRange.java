@@ -0,0 +1,225 @@
+package pl.pz1.poker.evaluator;
+
+import pl.pz1.poker.gameplay.Card;
+import pl.pz1.poker.gameplay.Player;
+
+import java.util.Arrays;
+
+/**
+ * Set of five-card hands stored as a bitset over all 2,598,960 hands,
+ * one bit per hand at its combinatorial index, which takes about 317 KB per range.
+ * Ranges are built from single hands, from suit-isomorphic classes of hands or from hand
+ * categories, and combined with set operations. Card removal is expressed with masks:
+ * {@link #withoutCards(long)} drops every hand sharing a card with the given mask.
+ * Ranges are not thread-safe while being modified.
+ */
+public final class HandRange {
+
+    /**
+     * Number of hands processed in one batch when ranges are built from strengths.
+     */
+    private static final int BATCH = 4096;
+
+    /**
+     * Bits of the hands in the range.
+     */
+    private final long[] words = new long[(HandIndex.COMBINATIONS + Long.SIZE - 1) / Long.SIZE];
+
+    /**
+     * Creates a range containing every five-card hand.
+     *
+     * @return the full range.
+     */
+    public static HandRange all() {
+        HandRange range = new HandRange();
+        Arrays.fill(range.words, -1L);
+        range.words[range.words.length - 1] = -1L >>> (range.words.length * Long.SIZE - HandIndex.COMBINATIONS);
+        return range;
+    }
+
+    /**
+     * Creates a range of the hands whose high-hand category lies between the given ones.
+     *
+     * @param lowest  the lowest category included, a value of
+     *                {@link pl.pz1.poker.util.parser.Hands} or {@link HandStrength#HIGH_CARD}.
+     * @param highest the highest category included.
+     * @return the range of the hands of these categories.
+     */
+    public static HandRange ofCategories(int lowest, int highest) {
+        HandRange range = new HandRange();
+        HandEvaluator evaluator = new HandEvaluator();
+        long[] hands = new long[BATCH];
+        int[] strengths = new int[BATCH];
+        long hand = HandIndex.hand(0);
+        for (int start = 0; start < HandIndex.COMBINATIONS; start += BATCH) {
+            int count = Math.min(BATCH, HandIndex.COMBINATIONS - start);
+            long[] batch = count == BATCH ? hands : new long[count];
+            for (int i = 0; i < count; i++, hand = HandIndex.next(hand)) {
+                batch[i] = hand;
+            }
+            evaluator.evaluateStrengths(batch, strengths);
+            for (int i = 0; i < count; i++) {
+                int category = HandStrength.category(strengths[i]);
+                if (category >= lowest && category <= highest) {
+                    range.set(start + i);
+                }
+            }
+        }
+        return range;
+    }
+
+    /**
+     * Adds a hand to the range.
+     *
+     * @param hand mask of exactly five cards.
+     * @return this range.
+     * @throws IllegalArgumentException if the mask does not contain exactly five cards.
+     */
+    public HandRange add(long hand) {
+        set(indexOf(hand));
+        return this;
+    }
+
+    /**
+     * Adds a hand and every hand differing from it only by a permutation of suits.
+     *
+     * @param hand mask of exactly five cards.
+     * @return this range.
+     * @throws IllegalArgumentException if the mask does not contain exactly five cards.
+     */
+    public HandRange addClass(long hand) {
+        indexOf(hand);
+        int[] suits = {0, 1, 2, 3};
+        addPermutations(hand, suits, 0);
+        return this;
+    }
+
+    /**
+     * Removes a hand from the range.
+     *
+     * @param hand mask of exactly five cards.
+     * @return this range.
+     * @throws IllegalArgumentException if the mask does not contain exactly five cards.
+     */
+    public HandRange remove(long hand) {
+        int index = indexOf(hand);
+        words[index >>> 6] &= ~(1L << index);
+        return this;
+    }
+
+    /**
+     * Tells whether the range contains a hand.
+     *
+     * @param hand mask of exactly five cards.
+     * @return true if the hand belongs to the range.
+     * @throws IllegalArgumentException if the mask does not contain exactly five cards.
+     */
+    public boolean contains(long hand) {
+        int index = indexOf(hand);
+        return (words[index >>> 6] & 1L << index) != 0;
+    }
+
+    /**
+     * Counts the hands of the range.
+     *
+     * @return the number of hands.
+     */
+    public int size() {
+        int size = 0;
+        for (long word : words) {
+            size += Long.bitCount(word);
+        }
+        return size;
+    }
+
+    /**
+     * Adds every hand of another range to this one.
+     *
+     * @param other the range to add.
+     * @return this range.
+     */
+    public HandRange or(HandRange other) {
+        for (int i = 0; i < words.length; i++) {
+            words[i] |= other.words[i];
+        }
+        return this;
+    }
+
+    /**
+     * Keeps only the hands also belonging to another range.
+     *
+     * @param other the range to intersect with.
+     * @return this range.
+     */
+    public HandRange and(HandRange other) {
+        for (int i = 0; i < words.length; i++) {
+            words[i] &= other.words[i];
+        }
+        return this;
+    }
+
+    /**
+     * Creates a copy of the range without the hands holding any of the given cards,
+     * e.g. the cards of a known hand or the exposed ones.
+     *
+     * @param dead mask of the removed cards.
+     * @return the range of hands not colliding with the cards.
+     */
+    public HandRange withoutCards(long dead) {
+        HandRange range = new HandRange();
+        for (int i = 0; i < words.length; i++) {
+            for (long word = words[i]; word != 0; word &= word - 1) {
+                int index = i << 6 | Long.numberOfTrailingZeros(word);
+                if ((HandIndex.hand(index) & dead) == 0) {
+                    range.set(index);
+                }
+            }
+        }
+        return range;
+    }
+
+    /**
+     * Lists the hands of the range in index order.
+     *
+     * @return masks of the hands.
+     */
+    public long[] hands() {
+        long[] hands = new long[size()];
+        int next = 0;
+        for (int i = 0; i < words.length; i++) {
+            for (long word = words[i]; word != 0; word &= word - 1) {
+                hands[next++] = HandIndex.hand(i << 6 | Long.numberOfTrailingZeros(word));
+            }
+        }
+        return hands;
+    }
+
+    private void set(int index) {
+        words[index >>> 6] |= 1L << index;
+    }
+
+    private void addPermutations(long hand, int[] suits, int fixed) {
+        if (fixed == SuitCanonicalizer.SUITS) {
+            add(SuitCanonicalizer.apply(hand, suits[0] | suits[1] << 2 | suits[2] << 4 | suits[3] << 6));
+            return;
+        }
+        for (int i = fixed; i < SuitCanonicalizer.SUITS; i++) {
+            swap(suits, fixed, i);
+            addPermutations(hand, suits, fixed + 1);
+            swap(suits, fixed, i);
+        }
+    }
+
+    private static void swap(int[] suits, int i, int j) {
+        int suit = suits[i];
+        suits[i] = suits[j];
+        suits[j] = suit;
+    }
+
+    private static int indexOf(long hand) {
+        if (Long.bitCount(hand) != Player.HAND_SIZE || hand >>> Card.DECK_SIZE != 0) {
+            throw new IllegalArgumentException("Hand must consist of " + Player.HAND_SIZE + " cards");
+        }
+        return HandIndex.index(hand);
+    }
+}
@@ -0,0 +1,90 @@
+package pl.pz1.poker.evaluator;
+
+import pl.pz1.poker.gameplay.Player;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rules deciding which five-card hand wins the showdown. Every hand is mapped to an int
+ * rank, and a greater rank always means a better hand under the ranker's rules, so a showdown
+ * is a scan for the maximal rank. The ranker of a game is chosen when the game is created.
+ */
+public interface HandRanker {
+
+    /**
+     * Name of the standard high-hand rules.
+     */
+    String HIGH = "HIGH";
+
+    /**
+     * Name of the deuce-to-seven lowball rules.
+     */
+    String LOWBALL = "LOWBALL";
+
+    /**
+     * Ranks a five-card hand.
+     *
+     * @param hand 52-bit mask with exactly five bits set.
+     * @return the rank of the hand, greater for better hands.
+     * @throws IllegalArgumentException if the mask does not contain exactly five cards.
+     */
+    int rank(long hand);
+
+    /**
+     * Gets the name of the rules, as given in the NEW_GAME move.
+     *
+     * @return the name of the ranker.
+     */
+    String getName();
+
+    /**
+     * Describes a rank in words, e.g. for the player's status.
+     *
+     * @param rank rank returned by {@link #rank(long)}.
+     * @return the description of the hand.
+     */
+    String describe(int rank);
+
+    /**
+     * Finds the players holding the best hand. When several players share the best rank,
+     * all of them are returned and split the pot. Ranks stored in the players by
+     * {@link Player#rankHand(HandRanker)} are reused, so usually no hand is evaluated here.
+     *
+     * @param players list of players to compare.
+     * @return IDs of the winning players.
+     */
+    default List<Integer> winners(List<Player> players) {
+        List<Integer> result = new ArrayList<>();
+        int best = Integer.MIN_VALUE;
+
+        for (Player player : players) {
+            int rank = player.getHandRank(this);
+            if (rank > best) {
+                best = rank;
+                result.clear();
+                result.add(player.getPlayerID());
+            } else if (rank == best) {
+                result.add(player.getPlayerID());
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Creates the ranker of the given name, ignoring case.
+     *
+     * @param name {@link #HIGH} or {@link #LOWBALL}.
+     * @return the ranker, or null if there is no ranker of this name.
+     */
+    static HandRanker forName(String name) {
+        if (HIGH.equalsIgnoreCase(name)) {
+            return new HandEvaluator();
+        }
+        if (LOWBALL.equalsIgnoreCase(name)) {
+            return new LowballRanker();
+        }
+        return null;
+    }
+}
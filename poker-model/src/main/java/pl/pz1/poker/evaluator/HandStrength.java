@@ -0,0 +1,68 @@
+package pl.pz1.poker.evaluator;
+
+import pl.pz1.poker.util.parser.Hands;
+
+/**
+ * Utility class describing the packed hand strength produced by the table-driven evaluator.
+ * A strength is a single int: the hand category (value of {@link Hands}, 0 for high card)
+ * is stored above bit 20 and up to five rank ordinals, most significant first, are stored
+ * in 4-bit groups below it. Comparing two strengths as ints compares the hands.
+ */
+public final class HandStrength {
+
+    /**
+     * Category value used for a hand without any combination (high card).
+     */
+    public static final int HIGH_CARD = 0;
+
+    /**
+     * Number of bits reserved for the kicker ranks.
+     */
+    static final int CATEGORY_SHIFT = 20;
+
+    /**
+     * Packs a category and ordered kicker ranks into a single strength value.
+     *
+     * @param category the hand category.
+     * @param ranks    rank ordinals ordered from the most to the least significant one.
+     * @return the packed strength.
+     */
+    static int pack(int category, int... ranks) {
+        int strength = category << CATEGORY_SHIFT;
+        for (int i = 0; i < ranks.length; i++) {
+            strength |= ranks[i] << (16 - 4 * i);
+        }
+        return strength;
+    }
+
+    /**
+     * Extracts the hand category from a packed strength.
+     *
+     * @param strength the packed strength.
+     * @return the category, equal to a value of {@link Hands} or {@link #HIGH_CARD}.
+     */
+    public static int category(int strength) {
+        return strength >>> CATEGORY_SHIFT;
+    }
+
+    /**
+     * Converts a packed strength to the matching {@link Hands} constant.
+     *
+     * @param strength the packed strength.
+     * @return the hand, or null when the strength describes a high card.
+     */
+    public static Hands toHands(int strength) {
+        int category = category(strength);
+        for (Hands hand : Hands.values()) {
+            if (hand.getValue() == category) {
+                return hand;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Private constructor to prevent instantiation of the utility class.
+     */
+    private HandStrength() {}
+}
@@ -0,0 +1,163 @@
+package pl.pz1.poker.evaluator;
+
+import pl.pz1.poker.util.parser.Hands;
+
+import java.util.Arrays;
+
+/**
+ * Precomputed lookup tables used by the five-card evaluator.
+ * Every possible multiset of five ranks is scored once when the class is loaded:
+ * unsuited hands are stored in a rank-pattern table indexed by the sum of per-rank keys,
+ * suited hands are stored in a flush table indexed by the 13-bit mask of their ranks.
+ */
+final class HandTables {
+
+    /**
+     * Number of card ranks.
+     */
+    static final int RANKS = 13;
+
+    /**
+     * Ordinal of the ace, the highest rank.
+     */
+    static final int ACE = 12;
+
+    /**
+     * Ordinal of the five, the top card of the lowest straight (A-2-3-4-5).
+     */
+    static final int FIVE = 3;
+
+    /**
+     * Rank mask of the lowest straight, in which the ace plays as one.
+     */
+    static final int WHEEL_MASK = (1 << ACE) | 0xF;
+
+    /**
+     * Per-rank keys chosen so that the sum of keys of any five ranks (each rank used at most
+     * four times) is unique. The sum is used as the index of the rank-pattern table.
+     */
+    static final int[] RANK_KEYS = {0, 1, 5, 22, 94, 312, 992, 2422, 5624, 12522, 19998, 43258, 79415};
+
+    /**
+     * Strength of every suited hand, indexed by the mask of its ranks.
+     */
+    static final int[] FLUSH = new int[1 << RANKS];
+
+    /**
+     * Strength of every unsuited hand, indexed by the sum of its rank keys.
+     */
+    static final int[] PATTERN = new int[4 * RANK_KEYS[ACE] + RANK_KEYS[ACE - 1] + 1];
+
+    static {
+        fill(new int[RANKS], 0, 5);
+    }
+
+    /**
+     * Recursively generates every rank multiset of the given size and stores its strength.
+     *
+     * @param counts    number of cards of each rank chosen so far.
+     * @param rank      the rank to distribute cards to.
+     * @param remaining number of cards left to distribute.
+     */
+    private static void fill(int[] counts, int rank, int remaining) {
+        if (rank == RANKS) {
+            if (remaining == 0) {
+                store(counts);
+            }
+            return;
+        }
+        for (int count = 0; count <= Math.min(4, remaining); count++) {
+            counts[rank] = count;
+            fill(counts, rank + 1, remaining - count);
+        }
+        counts[rank] = 0;
+    }
+
+    private static void store(int[] counts) {
+        int key = 0;
+        int mask = 0;
+        boolean distinct = true;
+        for (int rank = 0; rank < RANKS; rank++) {
+            key += counts[rank] * RANK_KEYS[rank];
+            if (counts[rank] > 0) {
+                mask |= 1 << rank;
+            }
+            if (counts[rank] > 1) {
+                distinct = false;
+            }
+        }
+
+        PATTERN[key] = score(counts, mask, false);
+        if (distinct) {
+            FLUSH[mask] = score(counts, mask, true);
+        }
+    }
+
+    /**
+     * Scores a hand described by its rank counts.
+     *
+     * @param counts number of cards of each rank.
+     * @param mask   mask of the ranks present in the hand.
+     * @param suited whether all cards share one suit.
+     * @return the packed strength of the hand.
+     */
+    static int score(int[] counts, int mask, boolean suited) {
+        int straightTop = straightTop(mask);
+        if (straightTop >= 0) {
+            if (!suited) {
+                return HandStrength.pack(Hands.STRAIGHT.getValue(), straightTop);
+            }
+            int category = straightTop == ACE ? Hands.ROYAL_FLUSH.getValue() : Hands.STRAIGHT_FLUSH.getValue();
+            return HandStrength.pack(category, straightTop);
+        }
+
+        int[] ordered = new int[5];
+        int groups = 0;
+        for (int count = 4; count >= 1; count--) {
+            for (int rank = ACE; rank >= 0; rank--) {
+                if (counts[rank] == count) {
+                    ordered[groups++] = rank;
+                }
+            }
+        }
+        int[] kickers = Arrays.copyOf(ordered, groups);
+
+        int category;
+        int largest = counts[kickers[0]];
+        if (largest == 4) {
+            category = Hands.QUADS.getValue();
+        } else if (largest == 3 && groups == 2) {
+            category = Hands.FULL_HOUSE.getValue();
+        } else if (suited) {
+            category = Hands.FLUSH.getValue();
+        } else if (largest == 3) {
+            category = Hands.THREE_OF_A_KIND.getValue();
+        } else if (largest == 2 && groups == 3) {
+            category = Hands.TWO_PAIRS.getValue();
+        } else if (largest == 2) {
+            category = Hands.ONE_PAIR.getValue();
+        } else {
+            category = HandStrength.HIGH_CARD;
+        }
+        return HandStrength.pack(category, kickers);
+    }
+
+    /**
+     * Finds the top card of a straight made of five distinct ranks.
+     *
+     * @param mask mask of the ranks present in the hand.
+     * @return ordinal of the highest card of the straight, or -1 when there is no straight.
+     */
+    static int straightTop(int mask) {
+        if (mask == WHEEL_MASK) {
+            return FIVE;
+        }
+        int low = Integer.numberOfTrailingZeros(mask);
+        return mask == (0x1F << low) ? low + 4 : -1;
+    }
+
+    /**
+     * Private constructor to prevent instantiation of the utility class.
+     */
+    private HandTables() {}
+}
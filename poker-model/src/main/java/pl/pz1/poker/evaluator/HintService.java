@@ -0,0 +1,88 @@
+package pl.pz1.poker.evaluator;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Source of win probabilities for player hints. Estimates are computed on a pool separate from
+ * the game loop and kept in a bounded LRU cache keyed by the suit-canonical hand and the number
+ * of opponents, with one calculator per set of showdown rules. A cached estimate is returned as
+ * an already completed future, so the caller can answer at once and defer only cache misses.
+ */
+public class HintService {
+
+    /**
+     * Budget of a single estimate, giving a confidence interval of about one percentage point.
+     */
+    public static final EquityCalculator.Budget BUDGET = EquityCalculator.Budget.ofSamples(20_000);
+
+    /**
+     * Default capacity of the cache of every set of rules.
+     */
+    public static final int DEFAULT_CACHE_CAPACITY = 16_384;
+
+    /**
+     * The pool estimates are computed on.
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Capacity of the cache of every calculator.
+     */
+    private final int cacheCapacity;
+
+    /**
+     * Calculators indexed by the name of the rules they compare hands with.
+     */
+    private final Map<String, EquityCalculator> calculators = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a service with its own pool using half of the available processors
+     * and caches of default capacity.
+     */
+    public HintService() {
+        this(new ForkJoinPool(Math.max(1, Runtime.getRuntime().availableProcessors() / 2)), DEFAULT_CACHE_CAPACITY);
+    }
+
+    /**
+     * Constructs a service using the given pool and caches of the given capacity.
+     *
+     * @param pool          the pool estimates are computed on.
+     * @param cacheCapacity the capacity of the cache of every set of rules.
+     */
+    public HintService(ForkJoinPool pool, int cacheCapacity) {
+        this.pool = pool;
+        this.cacheCapacity = cacheCapacity;
+    }
+
+    /**
+     * Starts estimating the equity of standing pat with the hand, or returns the cached estimate.
+     *
+     * @param hand      mask of the five cards of the hand.
+     * @param opponents number of opponents still in the game.
+     * @param ranker    the rules of the game.
+     * @return future completed with the estimate, already completed on a cache hit.
+     * @throws IllegalArgumentException if the hand is not a valid five-card hand.
+     */
+    public CompletableFuture<EquityCalculator.Equity> winProbability(long hand, int opponents, HandRanker ranker) {
+        return calculator(ranker).estimateAsync(hand, 0L, 0L, opponents, BUDGET);
+    }
+
+    /**
+     * Gets the cache of estimates made under the given rules, e.g. to read its statistics.
+     *
+     * @param ranker the rules of the game.
+     * @return the cache of the rules.
+     */
+    public EvaluationCache<EquityCalculator.Equity> getCache(HandRanker ranker) {
+        return calculator(ranker).getCache();
+    }
+
+    private EquityCalculator calculator(HandRanker ranker) {
+        return calculators.computeIfAbsent(ranker.getName(), name -> new EquityCalculator(pool,
+                ThreadLocalRandom.current().nextLong(), new EvaluationCache<>(cacheCapacity), ranker));
+    }
+}
@@ -0,0 +1,95 @@
+package pl.pz1.poker.evaluator;
+
+import pl.pz1.poker.gameplay.Card;
+import pl.pz1.poker.gameplay.Player;
+import pl.pz1.poker.util.parser.Hands;
+
+/**
+ * Deuce-to-seven lowball rules: the worst high hand wins. The ace is always high, so
+ * A-2-3-4-5 is not a straight, while straights and flushes still count against the hand,
+ * which makes 7-5-4-3-2 of mixed suits the best hand.
+ * Ranks are looked up in tables derived from the high-hand tables, so ranking is as fast
+ * as with {@link HandEvaluator}.
+ */
+public class LowballRanker implements HandRanker {
+
+    /**
+     * Value greater than any high-hand strength, from which strengths are subtracted.
+     */
+    private static final int LIMIT = (Hands.ROYAL_FLUSH.getValue() + 1) << HandStrength.CATEGORY_SHIFT;
+
+    /**
+     * Rank of every suited hand, indexed by the mask of its ranks.
+     */
+    private static final int[] FLUSH = new int[HandTables.FLUSH.length];
+
+    /**
+     * Rank of every unsuited hand, indexed by the sum of its rank keys.
+     */
+    private static final int[] PATTERN = new int[HandTables.PATTERN.length];
+
+    static {
+        int[] aceHigh = {HandTables.ACE, HandTables.FIVE, 2, 1, 0};
+        for (int i = 0; i < FLUSH.length; i++) {
+            FLUSH[i] = LIMIT - HandTables.FLUSH[i];
+        }
+        FLUSH[HandTables.WHEEL_MASK] = LIMIT - HandStrength.pack(Hands.FLUSH.getValue(), aceHigh);
+
+        for (int i = 0; i < PATTERN.length; i++) {
+            PATTERN[i] = LIMIT - HandTables.PATTERN[i];
+        }
+        int wheelKey = 0;
+        for (int rank : aceHigh) {
+            wheelKey += HandTables.RANK_KEYS[rank];
+        }
+        PATTERN[wheelKey] = LIMIT - HandStrength.pack(HandStrength.HIGH_CARD, aceHigh);
+    }
+
+    @Override
+    public int rank(long hand) {
+        if (Long.bitCount(hand) != Player.HAND_SIZE) {
+            throw new IllegalArgumentException("Hand must consist of " + Player.HAND_SIZE + " cards");
+        }
+        int key = 0;
+        for (int suit = 0; suit < 4; suit++) {
+            int ranks = (int) (hand >>> (suit * Card.RANKS_IN_SUIT)) & 0x1FFF;
+            if (Integer.bitCount(ranks) == Player.HAND_SIZE) {
+                return FLUSH[ranks];
+            }
+            while (ranks != 0) {
+                key += HandTables.RANK_KEYS[Integer.numberOfTrailingZeros(ranks)];
+                ranks &= ranks - 1;
+            }
+        }
+        return PATTERN[key];
+    }
+
+    /**
+     * Describes a lowball rank: hands without any combination are named by their cards
+     * from the highest, e.g. 7-5-4-3-2, other hands by their high-hand category.
+     *
+     * @param rank rank returned by {@link #rank(long)}.
+     * @return the description of the hand.
+     */
+    @Override
+    public String describe(int rank) {
+        int strength = LIMIT - rank;
+        Hands hand = HandStrength.toHands(strength);
+        if (hand != null) {
+            return hand.name();
+        }
+        StringBuilder description = new StringBuilder();
+        for (int i = 0; i < Player.HAND_SIZE; i++) {
+            if (i > 0) {
+                description.append('-');
+            }
+            description.append(Card.Rank.values()[(strength >>> (16 - 4 * i)) & 0xF].getRank());
+        }
+        return description.toString();
+    }
+
+    @Override
+    public String getName() {
+        return LOWBALL;
+    }
+}
@@ -0,0 +1,225 @@
+package pl.pz1.poker.evaluator;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Equity of one {@link HandRange} against another at showdown, for offline analysis of
+ * recorded decisions. Every pair of hands from both ranges not sharing a card is equally likely;
+ * pairs sharing a card are skipped with a single mask test. Both ranges are first ranked into
+ * primitive arrays (in a batch when the rules are {@link HandEvaluator}), so the pairs are
+ * compared without evaluating any hand again.
+ * Exhaustive enumeration visits every pair and takes time proportional to the product of the
+ * range sizes; sampling picks random pairs and gives an estimate with a confidence interval.
+ * Both split the work across a fork/join pool, all cores of the machine by default.
+ */
+public class RangeEquity {
+
+    /**
+     * Number of hero hands below which an enumeration task is not split further.
+     */
+    private static final int MIN_CHUNK = 64;
+
+    /**
+     * Number of samples below which a sampling task is not split further.
+     */
+    private static final long MIN_SAMPLES = 50_000;
+
+    /**
+     * The pool enumeration is run on.
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Rules the hands are compared with.
+     */
+    private final HandRanker ranker;
+
+    /**
+     * Constructs a calculator comparing high hands on the common fork/join pool.
+     */
+    public RangeEquity() {
+        this(ForkJoinPool.commonPool(), new HandEvaluator());
+    }
+
+    /**
+     * Constructs a calculator using the given pool and showdown rules.
+     *
+     * @param pool   the pool enumeration is run on.
+     * @param ranker the rules the hands are compared with.
+     */
+    public RangeEquity(ForkJoinPool pool, HandRanker ranker) {
+        this.pool = pool;
+        this.ranker = ranker;
+    }
+
+    /**
+     * Computes the exact equity of the hero range by visiting every pair of non-colliding hands.
+     *
+     * @param hero    the range whose equity is computed.
+     * @param villain the opposing range.
+     * @return the equity, with the number of compared pairs as samples and a zero margin.
+     */
+    public EquityCalculator.Equity exhaustive(HandRange hero, HandRange villain) {
+        Ranked heroes = rank(hero);
+        Ranked villains = rank(villain);
+        long[] counts = pool.invoke(new EnumerationTask(heroes, villains, 0, heroes.hands.length));
+        return toEquity(counts, false);
+    }
+
+    /**
+     * Estimates the equity of the hero range from random pairs of hands. Pairs sharing
+     * a card are drawn but not counted.
+     *
+     * @param hero    the range whose equity is estimated.
+     * @param villain the opposing range.
+     * @param samples number of pairs to draw.
+     * @param seed    the seed of the random streams.
+     * @return the estimated equity with its 95% confidence interval.
+     */
+    public EquityCalculator.Equity sample(HandRange hero, HandRange villain, long samples, long seed) {
+        Ranked heroes = rank(hero);
+        Ranked villains = rank(villain);
+        if (heroes.hands.length == 0 || villains.hands.length == 0) {
+            return toEquity(new long[3], true);
+        }
+        long[] counts = pool.invoke(new SamplingTask(heroes, villains, samples, new SplittableRandom(seed)));
+        return toEquity(counts, true);
+    }
+
+    /**
+     * Hands of a range together with their ranks.
+     */
+    private record Ranked(long[] hands, int[] ranks) {}
+
+    private Ranked rank(HandRange range) {
+        long[] hands = range.hands();
+        int[] ranks = new int[hands.length];
+        if (ranker instanceof HandEvaluator evaluator) {
+            evaluator.evaluateStrengths(hands, ranks);
+        } else {
+            for (int i = 0; i < hands.length; i++) {
+                ranks[i] = ranker.rank(hands[i]);
+            }
+        }
+        return new Ranked(hands, ranks);
+    }
+
+    /**
+     * Builds the equity from the numbers of pairs compared, won and tied.
+     */
+    private static EquityCalculator.Equity toEquity(long[] counts, boolean sampled) {
+        long pairs = counts[0];
+        if (pairs == 0) {
+            return new EquityCalculator.Equity(0, 0, 0, 0, 0, sampled ? 0.5 : 0);
+        }
+        double n = pairs;
+        double win = counts[1] / n;
+        double tie = counts[2] / n;
+        double equity = win + tie / 2;
+        double margin = 0;
+        if (sampled) {
+            double variance = Math.max(0, win + tie / 4 - equity * equity);
+            margin = 1.96 * Math.sqrt(variance / n);
+        }
+        return new EquityCalculator.Equity(pairs, win, tie, 1 - win - tie, equity, margin);
+    }
+
+    /**
+     * Compares a slice of the hero hands with every villain hand. Produces the numbers
+     * of compared, won and tied pairs.
+     */
+    private static final class EnumerationTask extends RecursiveTask<long[]> {
+        private final Ranked heroes;
+        private final Ranked villains;
+        private final int from;
+        private final int to;
+
+        EnumerationTask(Ranked heroes, Ranked villains, int from, int to) {
+            this.heroes = heroes;
+            this.villains = villains;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (to - from > MIN_CHUNK) {
+                int middle = (from + to) >>> 1;
+                EnumerationTask left = new EnumerationTask(heroes, villains, from, middle);
+                left.fork();
+                long[] right = new EnumerationTask(heroes, villains, middle, to).compute();
+                long[] counts = left.join();
+                for (int i = 0; i < counts.length; i++) {
+                    counts[i] += right[i];
+                }
+                return counts;
+            }
+
+            long[] villainHands = villains.hands;
+            int[] villainRanks = villains.ranks;
+            long pairs = 0;
+            long wins = 0;
+            long ties = 0;
+            for (int i = from; i < to; i++) {
+                long hand = heroes.hands[i];
+                int rank = heroes.ranks[i];
+                for (int j = 0; j < villainHands.length; j++) {
+                    if ((hand & villainHands[j]) == 0) {
+                        pairs++;
+                        wins += rank > villainRanks[j] ? 1 : 0;
+                        ties += rank == villainRanks[j] ? 1 : 0;
+                    }
+                }
+            }
+            return new long[] {pairs, wins, ties};
+        }
+    }
+
+    /**
+     * Draws a share of the random pairs, splitting itself with independent random streams.
+     */
+    private static final class SamplingTask extends RecursiveTask<long[]> {
+        private final Ranked heroes;
+        private final Ranked villains;
+        private final long samples;
+        private final SplittableRandom random;
+
+        SamplingTask(Ranked heroes, Ranked villains, long samples, SplittableRandom random) {
+            this.heroes = heroes;
+            this.villains = villains;
+            this.samples = samples;
+            this.random = random;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (samples > MIN_SAMPLES) {
+                long half = samples / 2;
+                SamplingTask left = new SamplingTask(heroes, villains, half, random.split());
+                left.fork();
+                long[] right = new SamplingTask(heroes, villains, samples - half, random).compute();
+                long[] counts = left.join();
+                for (int i = 0; i < counts.length; i++) {
+                    counts[i] += right[i];
+                }
+                return counts;
+            }
+
+            long pairs = 0;
+            long wins = 0;
+            long ties = 0;
+            for (long sample = 0; sample < samples; sample++) {
+                int i = random.nextInt(heroes.hands.length);
+                int j = random.nextInt(villains.hands.length);
+                if ((heroes.hands[i] & villains.hands[j]) == 0) {
+                    pairs++;
+                    wins += heroes.ranks[i] > villains.ranks[j] ? 1 : 0;
+                    ties += heroes.ranks[i] == villains.ranks[j] ? 1 : 0;
+                }
+            }
+            return new long[] {pairs, wins, ties};
+        }
+    }
+}
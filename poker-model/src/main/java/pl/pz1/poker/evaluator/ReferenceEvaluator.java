@@ -0,0 +1,83 @@
+package pl.pz1.poker.evaluator;
+
+import pl.pz1.poker.gameplay.Card;
+import pl.pz1.poker.util.parser.Hands;
+
+/**
+ * Straightforward rule-based five-card evaluator used as the baseline of differential checks.
+ * It does not share any tables with {@link HandEvaluator}: it counts ranks, looks for
+ * straights and flushes directly and packs the result in the {@link HandStrength} format,
+ * so strengths of both evaluators can be compared with each other.
+ * It is far slower than the table-driven evaluator and is not meant for gameplay.
+ */
+public final class ReferenceEvaluator {
+
+    /**
+     * Evaluates packed strength of five-card hand given as a mask of card ordinals.
+     *
+     * @param hand 52-bit mask with exactly five bits set.
+     * @return packed strength of the hand.
+     */
+    public static int evaluate(long hand) {
+        int[] counts = new int[Card.RANKS_IN_SUIT];
+        int suits = 0;
+        int rankMask = 0;
+        for (long cards = hand; cards != 0; cards &= cards - 1) {
+            int ordinal = Long.numberOfTrailingZeros(cards);
+            counts[ordinal % Card.RANKS_IN_SUIT]++;
+            suits |= 1 << (ordinal / Card.RANKS_IN_SUIT);
+            rankMask |= 1 << (ordinal % Card.RANKS_IN_SUIT);
+        }
+        boolean flush = Integer.bitCount(suits) == 1;
+
+        int straightTop = -1;
+        if (Integer.bitCount(rankMask) == 5) {
+            if (rankMask == 0b1000000001111) {
+                straightTop = Card.Rank.FIVE.ordinal();
+            } else {
+                int highest = 31 - Integer.numberOfLeadingZeros(rankMask);
+                int lowest = Integer.numberOfTrailingZeros(rankMask);
+                if (highest - lowest == 4) {
+                    straightTop = highest;
+                }
+            }
+        }
+
+        if (straightTop >= 0 && flush) {
+            Hands category = straightTop == Card.Rank.ACE.ordinal() ? Hands.ROYAL_FLUSH : Hands.STRAIGHT_FLUSH;
+            return HandStrength.pack(category.getValue(), straightTop);
+        }
+
+        int[] kickers = new int[5];
+        int size = 0;
+        int pairs = 0;
+        int trips = 0;
+        int quads = 0;
+        for (int count = 4; count >= 1; count--) {
+            for (int rank = Card.RANKS_IN_SUIT - 1; rank >= 0; rank--) {
+                if (counts[rank] == count) {
+                    kickers[size++] = rank;
+                    if (count == 2) pairs++;
+                    if (count == 3) trips++;
+                    if (count == 4) quads++;
+                }
+            }
+        }
+        int[] ordered = new int[size];
+        System.arraycopy(kickers, 0, ordered, 0, size);
+
+        if (quads == 1) return HandStrength.pack(Hands.QUADS.getValue(), ordered);
+        if (trips == 1 && pairs == 1) return HandStrength.pack(Hands.FULL_HOUSE.getValue(), ordered);
+        if (flush) return HandStrength.pack(Hands.FLUSH.getValue(), ordered);
+        if (straightTop >= 0) return HandStrength.pack(Hands.STRAIGHT.getValue(), straightTop);
+        if (trips == 1) return HandStrength.pack(Hands.THREE_OF_A_KIND.getValue(), ordered);
+        if (pairs == 2) return HandStrength.pack(Hands.TWO_PAIRS.getValue(), ordered);
+        if (pairs == 1) return HandStrength.pack(Hands.ONE_PAIR.getValue(), ordered);
+        return HandStrength.pack(HandStrength.HIGH_CARD, ordered);
+    }
+
+    /**
+     * Private constructor to prevent instantiation of the utility class.
+     */
+    private ReferenceEvaluator() {}
+}
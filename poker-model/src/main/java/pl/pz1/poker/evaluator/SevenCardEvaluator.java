@@ -0,0 +1,64 @@
+package pl.pz1.poker.evaluator;
+
+import pl.pz1.poker.gameplay.Card;
+
+import java.util.List;
+
+/**
+ * Evaluator of seven-card hands (two hole cards and five board cards in Texas Hold'em).
+ * It finds the strength of the best five-card hand without trying the 21 subsets: the rank
+ * keys of the cards are summed into a single index of a precomputed table, and a suit holding
+ * five or more cards is looked up in a flush table instead. Strengths use the same packed
+ * format as {@link HandEvaluator} (see {@link HandStrength}), so they can be compared with
+ * five-card strengths and converted to {@link pl.pz1.poker.util.parser.Hands} categories.
+ */
+public class SevenCardEvaluator {
+
+    /**
+     * Number of cards of an evaluated hand.
+     */
+    public static final int HAND_SIZE = 7;
+
+    /**
+     * Evaluates packed strength of the best five cards among seven.
+     * @param cards seven cards to evaluate
+     * @return packed strength of the best hand
+     * @throws IllegalArgumentException if there are not exactly seven distinct cards
+     */
+    public int evaluateStrength(List<Card> cards) {
+        return evaluateStrength(Card.maskOf(cards));
+    }
+
+    /**
+     * Evaluates packed strength of the best five cards among seven given as a mask of card ordinals.
+     * @param cards 52-bit mask with exactly seven bits set
+     * @return packed strength of the best hand
+     * @throws IllegalArgumentException if the mask does not contain exactly seven cards
+     */
+    public int evaluateStrength(long cards) {
+        if (Long.bitCount(cards) != HAND_SIZE) {
+            throw new IllegalArgumentException("Hand must consist of " + HAND_SIZE + " cards");
+        }
+        return strength(cards);
+    }
+
+    /**
+     * Looks up the strength of a seven-card mask without validating it.
+     * @param cards 52-bit mask with exactly seven bits set
+     * @return packed strength of the best hand
+     */
+    static int strength(long cards) {
+        int key = 0;
+        for (int suit = 0; suit < 4; suit++) {
+            int ranks = (int) (cards >>> (suit * Card.RANKS_IN_SUIT)) & 0x1FFF;
+            if (Integer.bitCount(ranks) >= 5) {
+                return SevenCardTables.FLUSH[ranks];
+            }
+            while (ranks != 0) {
+                key += SevenCardTables.RANK_KEYS[Integer.numberOfTrailingZeros(ranks)];
+                ranks &= ranks - 1;
+            }
+        }
+        return SevenCardTables.STRENGTHS[SevenCardTables.CLASSES.get(key)];
+    }
+}
@@ -0,0 +1,157 @@
+package pl.pz1.poker.evaluator;
+
+import java.nio.ShortBuffer;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Precomputed lookup tables used by the seven-card evaluator.
+ * Like the five-card tables, every multiset of seven ranks is indexed by the sum of per-rank
+ * keys, but the keys are chosen so that sums of seven ranks are unique. The stored value is the
+ * strength of the best five-card hand the ranks contain. A suit holding at least five of the
+ * seven cards always makes a flush better than anything the other two cards could form,
+ * so flushes are resolved by a separate table indexed by the ranks of that suit.
+ * The class table takes about 16 MB. When the system property {@value TableFile#PATH_PROPERTY}
+ * points to a file written by {@link TableGenerator}, it is memory-mapped from that file and
+ * shared with other JVMs through the page cache; otherwise the tables are generated on first use.
+ */
+final class SevenCardTables {
+
+    /**
+     * Per-rank keys chosen so that the sum of keys of any seven ranks (each rank used at most
+     * four times) is unique.
+     */
+    static final int[] RANK_KEYS = {0, 1, 5, 22, 98, 453, 2031, 8698, 22854, 83661, 262349, 636345, 1479181};
+
+    /**
+     * Size of the class table, one more than the greatest sum of seven rank keys.
+     */
+    static final int CLASSES_SIZE = 4 * RANK_KEYS[HandTables.ACE] + 3 * RANK_KEYS[HandTables.ACE - 1] + 1;
+
+    /**
+     * Strength of the best flush among the ranks of a suit holding at least five cards,
+     * indexed by the mask of these ranks.
+     */
+    static final int[] FLUSH;
+
+    /**
+     * Index into {@link #STRENGTHS} of every multiset of seven ranks, indexed by the sum
+     * of its rank keys. Distinct strengths are few, so a short index keeps the table small.
+     */
+    static final ShortBuffer CLASSES;
+
+    /**
+     * Strengths of the best unsuited five-card hands, indexed by the values of {@link #CLASSES}.
+     */
+    static final int[] STRENGTHS;
+
+    static {
+        String path = System.getProperty(TableFile.PATH_PROPERTY);
+        Data data = path == null ? null : TableFile.read(Path.of(path));
+        if (data == null) {
+            data = generate();
+        }
+        FLUSH = data.flush();
+        CLASSES = data.classes();
+        STRENGTHS = data.strengths();
+    }
+
+    /**
+     * Contents of the tables, either generated or read from a table file.
+     *
+     * @param flush     the flush table.
+     * @param classes   the class table.
+     * @param strengths the strengths of the classes.
+     */
+    record Data(int[] flush, ShortBuffer classes, int[] strengths) {}
+
+    /**
+     * Generates the tables in memory.
+     *
+     * @return the generated tables.
+     */
+    static Data generate() {
+        int[] flush = new int[1 << HandTables.RANKS];
+        for (int mask = 0; mask < flush.length; mask++) {
+            if (Integer.bitCount(mask) >= 5) {
+                flush[mask] = bestFlush(mask);
+            }
+        }
+
+        short[] classes = new short[CLASSES_SIZE];
+        Map<Integer, Integer> indexes = new HashMap<>();
+        fill(new int[HandTables.RANKS], 0, 7, classes, indexes);
+        int[] strengths = new int[indexes.size()];
+        indexes.forEach((strength, index) -> strengths[index] = strength);
+        return new Data(flush, ShortBuffer.wrap(classes), strengths);
+    }
+
+    private static int bestFlush(int mask) {
+        int best = 0;
+        for (int subset = mask; subset != 0; subset = (subset - 1) & mask) {
+            if (Integer.bitCount(subset) == 5) {
+                best = Math.max(best, HandTables.FLUSH[subset]);
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Recursively generates every rank multiset of the given size and stores the class of its
+     * best five-card hand.
+     *
+     * @param counts    number of cards of each rank chosen so far.
+     * @param rank      the rank to distribute cards to.
+     * @param remaining number of cards left to distribute.
+     * @param classes   the class table being filled.
+     * @param indexes   class indexes assigned to strengths so far.
+     */
+    private static void fill(int[] counts, int rank, int remaining, short[] classes, Map<Integer, Integer> indexes) {
+        if (rank == HandTables.RANKS) {
+            if (remaining == 0) {
+                int key = 0;
+                for (int r = 0; r < HandTables.RANKS; r++) {
+                    key += counts[r] * RANK_KEYS[r];
+                }
+                int strength = bestPattern(counts, 0, 5, 0);
+                classes[key] = (short) (int) indexes.computeIfAbsent(strength, s -> indexes.size());
+            }
+            return;
+        }
+        for (int count = 0; count <= Math.min(4, remaining); count++) {
+            counts[rank] = count;
+            fill(counts, rank + 1, remaining - count, classes, indexes);
+        }
+        counts[rank] = 0;
+    }
+
+    /**
+     * Finds the strongest five-card rank pattern contained in the rank counts.
+     *
+     * @param counts    number of available cards of each rank.
+     * @param rank      the rank to take cards of.
+     * @param remaining number of cards left to take.
+     * @param key       five-card pattern key of the cards taken so far.
+     * @return the strongest strength found.
+     */
+    private static int bestPattern(int[] counts, int rank, int remaining, int key) {
+        if (remaining == 0) {
+            return HandTables.PATTERN[key];
+        }
+        if (rank == HandTables.RANKS) {
+            return -1;
+        }
+        int best = -1;
+        for (int count = 0; count <= Math.min(counts[rank], remaining); count++) {
+            best = Math.max(best, bestPattern(counts, rank + 1, remaining - count,
+                    key + count * HandTables.RANK_KEYS[rank]));
+        }
+        return best;
+    }
+
+    /**
+     * Private constructor to prevent instantiation of the utility class.
+     */
+    private SevenCardTables() {}
+}
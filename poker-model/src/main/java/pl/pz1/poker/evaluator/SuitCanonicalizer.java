@@ -0,0 +1,104 @@
+package pl.pz1.poker.evaluator;
+
+import pl.pz1.poker.gameplay.Card;
+
+/**
+ * Maps card masks to a form which is the same for all hands differing only by a permutation
+ * of suits. Suits of the canonical form are ordered by the number of cards and then by their
+ * rank masks, strongest first. The permutation used can be kept to move other masks, such as
+ * a discard set, between the original and the canonical suits.
+ * Anything depending only on ranks and on which cards share a suit (strength, equity, draw odds)
+ * is the same for a hand and its canonical form, so the canonical form is a natural cache key.
+ */
+public final class SuitCanonicalizer {
+
+    /**
+     * Number of suits in the deck.
+     */
+    public static final int SUITS = 4;
+
+    /**
+     * Mask of the ranks of a single suit.
+     */
+    private static final long SUIT_MASK = (1L << Card.RANKS_IN_SUIT) - 1;
+
+    /**
+     * Finds the suit permutation leading to the canonical form of the hand.
+     * Canonical suit {@code i} is the original suit stored in bits {@code 2i..2i+1} of the result.
+     *
+     * @param hand mask of the cards.
+     * @return the packed permutation.
+     */
+    public static int permutation(long hand) {
+        int[] suits = {0, 1, 2, 3};
+        for (int i = 1; i < SUITS; i++) {
+            int suit = suits[i];
+            int j = i;
+            while (j > 0 && precedes(hand, suit, suits[j - 1])) {
+                suits[j] = suits[j - 1];
+                j--;
+            }
+            suits[j] = suit;
+        }
+        return suits[0] | suits[1] << 2 | suits[2] << 4 | suits[3] << 6;
+    }
+
+    /**
+     * Computes the canonical form of the hand.
+     *
+     * @param hand mask of the cards.
+     * @return mask of the canonical hand.
+     */
+    public static long canonicalize(long hand) {
+        return apply(hand, permutation(hand));
+    }
+
+    /**
+     * Moves a mask from the original suits to the canonical ones.
+     *
+     * @param mask        mask in the original suits.
+     * @param permutation permutation returned by {@link #permutation(long)}.
+     * @return the mask in the canonical suits.
+     */
+    public static long apply(long mask, int permutation) {
+        long result = 0L;
+        for (int i = 0; i < SUITS; i++) {
+            int suit = (permutation >>> (2 * i)) & 3;
+            result |= suitRanks(mask, suit) << (i * Card.RANKS_IN_SUIT);
+        }
+        return result;
+    }
+
+    /**
+     * Moves a mask from the canonical suits back to the original ones.
+     *
+     * @param mask        mask in the canonical suits.
+     * @param permutation permutation returned by {@link #permutation(long)}.
+     * @return the mask in the original suits.
+     */
+    public static long revert(long mask, int permutation) {
+        long result = 0L;
+        for (int i = 0; i < SUITS; i++) {
+            int suit = (permutation >>> (2 * i)) & 3;
+            result |= suitRanks(mask, i) << (suit * Card.RANKS_IN_SUIT);
+        }
+        return result;
+    }
+
+    private static boolean precedes(long hand, int suit, int other) {
+        long ranks = suitRanks(hand, suit);
+        long otherRanks = suitRanks(hand, other);
+        int count = Long.bitCount(ranks);
+        int otherCount = Long.bitCount(otherRanks);
+        return count != otherCount ? count > otherCount : ranks > otherRanks;
+    }
+
+    private static long suitRanks(long mask, int suit) {
+        return (mask >>> (suit * Card.RANKS_IN_SUIT)) & SUIT_MASK;
+    }
+
+    /**
+     * Private constructor to prevent instantiation of the utility class.
+     */
+    private SuitCanonicalizer() {}
+}
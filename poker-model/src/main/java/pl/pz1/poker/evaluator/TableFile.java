@@ -0,0 +1,128 @@
+package pl.pz1.poker.evaluator;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Binary file format of the seven-card tables. The file starts with a header of six
+ * little-endian ints: magic number, format version, lengths of the flush, strength and class
+ * tables, and the CRC32 of everything after the header. The tables follow in this order.
+ * Files are mapped read-only, so the class table stays off-heap and its pages are shared
+ * by all processes mapping the same file.
+ */
+final class TableFile {
+
+    /**
+     * System property holding the path of the table file.
+     */
+    static final String PATH_PROPERTY = "poker.evaluator.tables";
+
+    /**
+     * Magic number identifying a table file ("PKRT").
+     */
+    static final int MAGIC = 0x504B5254;
+
+    /**
+     * Version of the format and of the rank keys; files of other versions are ignored.
+     */
+    static final int VERSION = 1;
+
+    /**
+     * Size of the header in bytes.
+     */
+    private static final int HEADER = 6 * Integer.BYTES;
+
+    /**
+     * Writes the tables to a file, replacing it atomically.
+     *
+     * @param path the file to write.
+     * @param data the tables to write.
+     * @throws IOException if the file cannot be written.
+     */
+    static void write(Path path, SevenCardTables.Data data) throws IOException {
+        int classes = data.classes().limit();
+        ByteBuffer payload = ByteBuffer.allocate(Integer.BYTES * (data.flush().length + data.strengths().length)
+                + Short.BYTES * classes).order(ByteOrder.LITTLE_ENDIAN);
+        payload.asIntBuffer().put(data.flush()).put(data.strengths());
+        payload.position(Integer.BYTES * (data.flush().length + data.strengths().length));
+        payload.asShortBuffer().put(data.classes().duplicate().rewind());
+        payload.rewind();
+
+        CRC32 crc = new CRC32();
+        crc.update(payload.duplicate());
+        ByteBuffer header = ByteBuffer.allocate(HEADER).order(ByteOrder.LITTLE_ENDIAN)
+                .putInt(MAGIC).putInt(VERSION)
+                .putInt(data.flush().length).putInt(data.strengths().length).putInt(classes)
+                .putInt((int) crc.getValue())
+                .flip();
+
+        Path temporary = Files.createTempFile(path.toAbsolutePath().getParent(), "tables", ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+            while (header.hasRemaining() || payload.hasRemaining()) {
+                channel.write(new ByteBuffer[] {header, payload});
+            }
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Maps the tables from a file.
+     *
+     * @param path the file to read.
+     * @return the tables, or null if the file is missing, of another version or corrupted.
+     */
+    static SevenCardTables.Data read(Path path) {
+        if (!Files.isRegularFile(path)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            ByteBuffer buffer = mapped.order(ByteOrder.LITTLE_ENDIAN);
+            if (buffer.limit() < HEADER || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                return invalid(path, "nieznany format lub wersja");
+            }
+            int flushLength = buffer.getInt(8);
+            int strengthsLength = buffer.getInt(12);
+            int classesLength = buffer.getInt(16);
+            long expected = (long) Integer.BYTES * (flushLength + strengthsLength) + (long) Short.BYTES * classesLength;
+            if (flushLength != 1 << HandTables.RANKS || classesLength != SevenCardTables.CLASSES_SIZE
+                    || strengthsLength < 0 || buffer.limit() - HEADER != expected) {
+                return invalid(path, "niepoprawne rozmiary tablic");
+            }
+
+            CRC32 crc = new CRC32();
+            crc.update(buffer.slice(HEADER, buffer.limit() - HEADER));
+            if ((int) crc.getValue() != buffer.getInt(20)) {
+                return invalid(path, "niezgodna suma kontrolna");
+            }
+
+            int[] flush = new int[flushLength];
+            int[] strengths = new int[strengthsLength];
+            buffer.slice(HEADER, Integer.BYTES * (flushLength + strengthsLength))
+                    .order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().get(flush).get(strengths);
+            int classesOffset = HEADER + Integer.BYTES * (flushLength + strengthsLength);
+            return new SevenCardTables.Data(flush, buffer.slice(classesOffset, Short.BYTES * classesLength)
+                    .order(ByteOrder.LITTLE_ENDIAN).asShortBuffer(), strengths);
+        } catch (IOException e) {
+            return invalid(path, e.getMessage());
+        }
+    }
+
+    private static SevenCardTables.Data invalid(Path path, String reason) {
+        System.err.println("Nie wczytano tablic ewaluatora z pliku " + path + ": " + reason);
+        return null;
+    }
+
+    /**
+     * Private constructor to prevent instantiation of the utility class.
+     */
+    private TableFile() {}
+}
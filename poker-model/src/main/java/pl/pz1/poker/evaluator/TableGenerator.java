@@ -0,0 +1,37 @@
+package pl.pz1.poker.evaluator;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Command line tool writing the seven-card evaluator tables to a file. Processes started with
+ * {@code -Dpoker.evaluator.tables=<file>} map the file instead of generating the tables,
+ * so several servers on one host start faster and share a single copy in the page cache.
+ */
+public final class TableGenerator {
+
+    /**
+     * Default name of the generated file.
+     */
+    public static final String DEFAULT_FILE = "poker-tables.bin";
+
+    /**
+     * Generates the tables and writes them to the file given as the first argument,
+     * or to {@value #DEFAULT_FILE} in the working directory.
+     *
+     * @param args optional path of the file to write.
+     * @throws IOException if the file cannot be written.
+     */
+    public static void main(String[] args) throws IOException {
+        Path path = Path.of(args.length > 0 ? args[0] : DEFAULT_FILE);
+        long start = System.nanoTime();
+        TableFile.write(path, SevenCardTables.generate());
+        System.out.printf("Zapisano tablice ewaluatora do %s w %d ms%n",
+                path.toAbsolutePath(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Private constructor to prevent instantiation of the utility class.
+     */
+    private TableGenerator() {}
+}
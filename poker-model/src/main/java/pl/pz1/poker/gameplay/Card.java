@@ -138,9 +138,24 @@ public class Card {
         }
     }
 
+    /**
+     * Number of cards in a standard deck.
+     */
+    public static final int DECK_SIZE = 52;
+
+    /**
+     * Number of ranks in a single suit.
+     */
+    public static final int RANKS_IN_SUIT = 13;
+
     private final Rank rank;
     private final Suit suit;
 
+    /**
+     * Position of the card in the prototype deck: suit ordinal * 13 + rank ordinal.
+     */
+    private final int ordinal;
+
     /**
      * Constructs a Card with the specified rank and suit.
      *
@@ -150,6 +165,7 @@ public class Card {
     public Card(Rank r, Suit s) {
         this.rank = r;
         this.suit = s;
+        this.ordinal = s.ordinal() * RANKS_IN_SUIT + r.ordinal();
     }
 
     /**
@@ -170,6 +186,24 @@ public class Card {
         return this.suit;
     }
 
+    /**
+     * Gets the ordinal of the card, a number from 0 to 51 unique for every card.
+     *
+     * @return the ordinal of the card.
+     */
+    public int ordinal() {
+        return this.ordinal;
+    }
+
+    /**
+     * Gets the single-bit mask representing the card in a 52-bit hand mask.
+     *
+     * @return the mask of the card.
+     */
+    public long mask() {
+        return 1L << this.ordinal;
+    }
+
     /**
      * Returns a string representation of the card.
      *
@@ -201,7 +235,7 @@ public class Card {
      */
     @Override
     public int hashCode() {
-        return Objects.hash(rank, suit);
+        return this.ordinal;
     }
 
     /**
@@ -214,17 +248,123 @@ public class Card {
         return Rank.contains(parts[0]) && Suit.contains(parts[1]);
     }
 
+    /**
+     * Shared instances of all cards, indexed by their ordinals.
+     */
+    private static final Card[] cards = new Card[DECK_SIZE];
+
+    /**
+     * Rank ordinal for every character that can start a card's text form, -1 for the others.
+     */
+    private static final byte[] rankByChar = new byte[128];
+
+    /**
+     * Suit ordinal for every character that can end a card's text form, -1 for the others.
+     */
+    private static final byte[] suitByChar = new byte[128];
+
     /**
      * A prototype deck of all possible cards.
      */
-    private static final List<Card> prototypeDeck = new ArrayList<>();
+    private static final List<Card> prototypeDeck;
 
     static {
         for (Suit s : Suit.values()) {
             for (Rank r : Rank.values()) {
-                prototypeDeck.add(new Card(r, s));
+                Card card = new Card(r, s);
+                cards[card.ordinal] = card;
             }
         }
+        prototypeDeck = List.of(cards);
+
+        Arrays.fill(rankByChar, (byte) -1);
+        Arrays.fill(suitByChar, (byte) -1);
+        for (Rank r : Rank.values()) {
+            rankByChar[r.getRank().charAt(0)] = (byte) r.ordinal();
+        }
+        for (Suit s : Suit.values()) {
+            suitByChar[s.getSuit().charAt(0)] = (byte) s.ordinal();
+        }
+    }
+
+    /**
+     * Gets the shared instance of the card with the given ordinal.
+     *
+     * @param ordinal the ordinal of the card, from 0 to 51.
+     * @return the card.
+     */
+    public static Card of(int ordinal) {
+        return cards[ordinal];
+    }
+
+    /**
+     * Parses the text form of a card (for example "10-H" or "Q-S") without creating any objects.
+     * The rank is identified by its first character and the suit by the last one, which is a
+     * perfect hash for the fixed set of valid card names.
+     *
+     * @param text the text form of the card.
+     * @return the ordinal of the card, or -1 if the text is not a valid card.
+     */
+    public static int parse(CharSequence text) {
+        return parse(text, 0, text.length());
+    }
+
+    /**
+     * Parses the text form of a card stored in a fragment of a longer sequence.
+     *
+     * @param text  the sequence containing the card.
+     * @param start index of the first character of the card.
+     * @param end   index after the last character of the card.
+     * @return the ordinal of the card, or -1 if the fragment is not a valid card.
+     */
+    public static int parse(CharSequence text, int start, int end) {
+        int length = end - start;
+        if (length < 3 || length > 4 || text.charAt(end - 2) != '-') {
+            return -1;
+        }
+
+        char first = text.charAt(start);
+        char last = text.charAt(end - 1);
+        if (first >= 128 || last >= 128) {
+            return -1;
+        }
+
+        int r = rankByChar[first];
+        int s = suitByChar[last];
+        boolean isTen = r == Rank.TEN.ordinal();
+        if (r < 0 || s < 0 || isTen != (length == 4) || (isTen && text.charAt(start + 1) != '0')) {
+            return -1;
+        }
+        return s * RANKS_IN_SUIT + r;
+    }
+
+    /**
+     * Builds the 52-bit mask of the given cards.
+     *
+     * @param hand the cards to include.
+     * @return the mask with one bit set for every card.
+     */
+    public static long maskOf(List<Card> hand) {
+        long mask = 0L;
+        for (int i = 0; i < hand.size(); i++) {
+            mask |= hand.get(i).mask();
+        }
+        return mask;
+    }
+
+    /**
+     * Lists the cards of a 52-bit mask in the order of their ordinals.
+     *
+     * @param mask the mask of cards.
+     * @return a new list containing the cards of the mask.
+     */
+    public static List<Card> listOf(long mask) {
+        List<Card> hand = new ArrayList<>(Long.bitCount(mask));
+        while (mask != 0) {
+            hand.add(cards[Long.numberOfTrailingZeros(mask)]);
+            mask &= mask - 1;
+        }
+        return hand;
     }
 
     /**
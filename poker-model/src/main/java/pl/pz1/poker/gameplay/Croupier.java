@@ -1,6 +1,7 @@
 package pl.pz1.poker.gameplay;
 
-import java.util.ArrayList;
+import pl.pz1.poker.evaluator.HandRanker;
+
 import java.util.List;
 
 /**
@@ -10,36 +11,44 @@ import java.util.List;
 public class Croupier {
 
     /**
-     * Deals cards from the deck to all players.
+     * Deals cards from the table deck to all players.
      *
-     * @param deck    the deck of cards to deal from.
+     * @param deck    the deck of the table to deal from.
      * @param players the list of players who will receive the cards.
      */
-    public static void dealCards(List<Card> deck, List<Player> players) {
-        List<Card> toRemove = new ArrayList<>();
+    public static void dealCards(Deck deck, List<Player> players) {
         for (int i = 0; i < Player.HAND_SIZE; i++) {
-            for (int j = 0; j < players.size(); j++) {
-                players.get(j).giveCard(deck.get(i * players.size() + j));
-                toRemove.add(deck.get(i * players.size() + j));
+            for (Player player : players) {
+                player.giveCard(deck.deal());
             }
         }
-        deck.removeAll(toRemove);
     }
 
     /**
-     * Adds new cards to a player's hand from the deck.
+     * Deals cards from the table deck to all players and ranks their new hands.
+     *
+     * @param deck    the deck of the table to deal from.
+     * @param players the list of players who will receive the cards.
+     * @param ranker  the rules to rank the hands with.
+     */
+    public static void dealCards(Deck deck, List<Player> players, HandRanker ranker) {
+        dealCards(deck, players);
+        for (Player player : players) {
+            player.rankHand(ranker);
+        }
+    }
+
+    /**
+     * Adds new cards to a player's hand from the table deck.
      *
-     * @param deck   the deck of cards to draw from.
+     * @param deck   the deck of the table to draw from.
      * @param player the player who will receive the cards.
      * @param amount the number of cards to give to the player.
      */
-    public static void addNewCards(List<Card> deck, Player player, int amount) {
-        List<Card> toRemove = new ArrayList<>();
+    public static void addNewCards(Deck deck, Player player, int amount) {
         for (int i = 0; i < amount; i++) {
-            player.giveCard(deck.get(i));
-            toRemove.add(deck.get(i));
+            player.giveCard(deck.deal());
         }
-        deck.removeAll(toRemove);
     }
 
     /**
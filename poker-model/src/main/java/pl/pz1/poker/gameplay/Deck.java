@@ -1,34 +1,110 @@
 package pl.pz1.poker.gameplay;
 
-import java.util.Collections;
-import java.util.List;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
 
 /**
- * The Deck class provides utility methods for creating and managing a deck of cards.
- * It includes methods for generating a new deck and shuffling an existing deck.
+ * The Deck class represents the deck of a table, reused across hands. Cards are stored as
+ * ordinals (see {@link Card#ordinal()}) in a primitive array and dealt from a cursor.
+ * The deck is shuffled lazily with a partial Fisher-Yates shuffle: every dealt card is swapped
+ * with a random one among those not dealt yet, so only as many positions are shuffled as cards
+ * are dealt, and dealing a card neither allocates nor moves the rest of the deck.
+ * A deck built on a {@link ShuffledDeckBuffer} instead takes a deck shuffled in advance with
+ * {@link java.security.SecureRandom} at every {@link #reset()} and deals it in order.
  */
 public class Deck {
 
     /**
-     * Creates a new standard deck of cards.
+     * Ordinals of the cards; the first {@link #dealt} of them have been dealt.
+     */
+    private int[] cards;
+
+    /**
+     * Number of cards dealt since the last {@link #reset()}.
+     */
+    private int dealt = 0;
+
+    /**
+     * Source of randomness of the shuffle.
+     */
+    private final RandomGenerator random;
+
+    /**
+     * Buffer of decks shuffled in advance, or null if the deck shuffles itself.
+     */
+    private final ShuffledDeckBuffer buffer;
+
+    /**
+     * Constructs a full deck shuffled with a randomly seeded generator.
+     */
+    public Deck() {
+        this(new SplittableRandom());
+    }
+
+    /**
+     * Constructs a full deck shuffled with the given generator.
      *
-     * @return a list containing all cards in a standard deck.
+     * @param random the source of randomness of the shuffle.
      */
-    public static List<Card> newDeck() {
-        return Card.newDeck();
+    public Deck(RandomGenerator random) {
+        this.random = random;
+        this.buffer = null;
+        this.cards = new int[Card.DECK_SIZE];
+        for (int i = 0; i < cards.length; i++) {
+            cards[i] = i;
+        }
     }
 
     /**
-     * Shuffles the given deck of cards randomly.
+     * Constructs a deck taking decks shuffled in advance from the buffer.
      *
-     * @param toShuffle the deck of cards to shuffle.
+     * @param buffer the buffer of shuffled decks.
      */
-    public static void shuffleDeck(List<Card> toShuffle) {
-        Collections.shuffle(toShuffle);
+    public Deck(ShuffledDeckBuffer buffer) {
+        this.random = null;
+        this.buffer = buffer;
+        this.cards = buffer.take();
     }
 
     /**
-     * Private constructor to prevent instantiation of the utility class.
+     * Returns all cards to the deck before a new hand. The order left by the previous
+     * hand does not matter, as every dealt card is drawn at random again; a deck built on
+     * a buffer exchanges its cards for a freshly shuffled deck instead.
+     */
+    public void reset() {
+        if (buffer != null && dealt > 0) {
+            buffer.recycle(cards);
+            cards = buffer.take();
+        }
+        this.dealt = 0;
+    }
+
+    /**
+     * Deals the next card.
+     *
+     * @return the ordinal of the dealt card.
+     * @throws IllegalStateException if all cards have been dealt.
      */
-    private Deck() {}
+    public int deal() {
+        if (dealt == cards.length) {
+            throw new IllegalStateException("No cards left in the deck");
+        }
+        if (buffer != null) {
+            return cards[dealt++];
+        }
+        int chosen = dealt + random.nextInt(cards.length - dealt);
+        int card = cards[chosen];
+        cards[chosen] = cards[dealt];
+        cards[dealt++] = card;
+        return card;
+    }
+
+    /**
+     * Gets the number of cards left in the deck.
+     *
+     * @return the number of cards not dealt yet.
+     */
+    public int remaining() {
+        return cards.length - dealt;
+    }
 }
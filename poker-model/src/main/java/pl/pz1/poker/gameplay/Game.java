@@ -1,13 +1,19 @@
 package pl.pz1.poker.gameplay;
 
 import pl.pz1.poker.evaluator.HandEvaluator;
+import pl.pz1.poker.evaluator.HandRanker;
 import pl.pz1.poker.moves.*;
+import pl.pz1.poker.util.parser.BinaryMove;
+import pl.pz1.poker.util.parser.FrameCodec;
 import pl.pz1.poker.util.parser.Moves;
 import pl.pz1.poker.util.parser.Token;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 /**
  * The Game class represents a poker game instance. It manages the game's state,
@@ -16,9 +22,9 @@ import java.util.*;
  */
 public class Game {
     /**
-     * Counter for tracking the number of games created.
+     * Source of unique game IDs, safe to use from many threads.
      */
-    private static int gameCounter = 0;
+    private static final AtomicInteger GAME_IDS = new AtomicInteger();
 
     /**
      * List of players participating in the game.
@@ -31,19 +37,39 @@ public class Game {
     private final Map<String, Move> moves = new HashMap<>();
 
     /**
-     * The deck of cards used in the game.
+     * Seed of the random stream of the deck, recorded so that the game can be replayed.
      */
-    private List<Card> deck = new ArrayList<>();
+    private final long seed;
 
     /**
-     * Hand evaluator for determining the winners.
+     * The deck of the table, reused across hands.
      */
-    private final HandEvaluator evaluator = new HandEvaluator();
+    private Deck deck;
 
     /**
-     * Unique identifier for the game.
+     * Rules used for determining the winners, chosen when the game is started.
      */
-    private int gameID = 0;
+    private HandRanker ranker = new HandEvaluator();
+
+    /**
+     * Receiver of messages sent to players outside of their requests, e.g. by the server.
+     */
+    private BiConsumer<Player, String> pushListener = (player, message) -> {};
+
+    /**
+     * Receiver of the changes of the state of the table, pushed to all of its players.
+     */
+    private Consumer<StateBroadcast> broadcastListener = broadcast -> {};
+
+    /**
+     * Round, turn and highest bet of the last broadcast state, packed by {@link #packState()}.
+     */
+    private long broadcastState;
+
+    /**
+     * Unique identifier for the game, allocated when the game is created.
+     */
+    private final int gameID;
 
     /**
      * The number of players required to start the game.
@@ -87,11 +113,23 @@ public class Game {
     private int round = 0;
 
     /**
-     * Constructs a new Game instance and initializes the available moves.
+     * Constructs a new Game instance with a randomly chosen seed and initializes the available moves.
      */
     public Game() {
+        this(new SplittableRandom().nextLong());
+    }
+
+    /**
+     * Constructs a new Game instance whose deck is shuffled by a random stream of the given seed.
+     * Replaying the moves of a game in a game of the same seed deals the same cards.
+     *
+     * @param seed the seed of the random stream of the deck.
+     */
+    public Game(long seed) {
+        this.gameID = GAME_IDS.incrementAndGet();
+        this.seed = seed;
+        this.deck = new Deck(new SplittableRandom(seed));
         generateMoves();
-        gameCounter++;
     }
 
     /**
@@ -101,11 +139,23 @@ public class Game {
      * @param ante        the ante amount.
      */
     public void startGame(int playerCount, int ante) {
+        startGame(playerCount, ante, new HandEvaluator());
+    }
+
+    /**
+     * Starts a new game with the specified player count, ante amount and showdown rules.
+     *
+     * @param playerCount the number of players required for the game.
+     * @param ante        the ante amount.
+     * @param ranker      the rules used for determining the winners.
+     */
+    public void startGame(int playerCount, int ante, HandRanker ranker) {
+        this.ranker = ranker;
         this.playerCount = playerCount;
         this.ante = ante;
         this.highestBet = ante;
-        this.gameID = gameCounter;
         this.round = 1;
+        this.broadcastState = packState();
     }
 
     /**
@@ -126,6 +176,39 @@ public class Game {
         return result;
     }
 
+    /**
+     * Processes a move of the binary protocol. Its parameters are validated and executed as they are,
+     * without being formatted and parsed as text.
+     *
+     * @param player the player making the move.
+     * @param move   the decoded move.
+     * @return the result of the move execution.
+     */
+    public String processMove(Player player, BinaryMove move) {
+        String moveName = move.type().getName();
+        String result = validateTurn(player, move.gameID(), move.playerID(), moveName);
+        boolean validParameters = switch (move.type()) {
+            case EXCHANGE -> Exchange.areValidCards(move.cards(), player.getHandMask());
+            case RAISE -> move.amount() > 0;
+            case NEW_GAME -> NewGame.areValidParameters(move.players(), move.ante(), move.rules());
+            default -> true;
+        };
+        if (!validParameters) {
+            result = "Niepoprawne parametry!";
+        }
+        if (result.isEmpty()) {
+            result = switch (move.type()) {
+                case EXCHANGE -> Exchange.exchange(this, player, move.cards());
+                case RAISE -> Raise.raise(this, player, move.amount());
+                case NEW_GAME -> NewGame.create(this, move.players(), move.ante(), move.rules());
+                default -> moves.get(moveName).execute(this, player, "");
+            };
+
+            adjustGameParameters(moveName);
+        }
+        return result;
+    }
+
     /**
      * Adjusts game parameters based on the most recent move.
      *
@@ -133,7 +216,7 @@ public class Game {
      */
     public void adjustGameParameters(String moveName) {
         if ((moveName.equals(Moves.JOIN.getName()) && this.round > 1) || (moveName.equals(Moves.STATUS.getName()))
-            || moveName.equals(Moves.NEW_GAME.getName())) {
+            || moveName.equals(Moves.NEW_GAME.getName()) || moveName.equals(Moves.HINT.getName())) {
             return;
         }
 
@@ -173,6 +256,23 @@ public class Game {
         else {
             this.whoseTurnID = 1;
         }
+
+        long state = packState();
+        if (state != broadcastState) {
+            broadcastState = state;
+            broadcastListener.accept(new StateBroadcast(this));
+        }
+    }
+
+    /**
+     * Packs the parts of the state whose changes are broadcast: the round, the turn and the highest bet.
+     * Turns are counted only once the cards are dealt.
+     *
+     * @return the packed state.
+     */
+    private long packState() {
+        long turn = round > 1 ? whoseTurnID : 0;
+        return ((long) round << 56) | (turn << 32) | (highestBet & 0xFFFFFFFFL);
     }
 
     /**
@@ -196,7 +296,7 @@ public class Game {
                 }
             }
 
-            this.winnersID = evaluator.evaluateHands(new ArrayList<>(toCheck));
+            this.winnersID = ranker.winners(toCheck);
         }
     }
 
@@ -306,13 +406,14 @@ public class Game {
     private void updateAllMoves() {
         if (this.round == 2 || this.round == 4) {
             List<String> newMoves = new ArrayList<>(Arrays.asList(Moves.FOLD.getName(), Moves.CALL.getName(),
-                    Moves.RAISE.getName(), Moves.STATUS.getName()));
+                    Moves.RAISE.getName(), Moves.STATUS.getName(), Moves.HINT.getName()));
             for (Player player : players) {
                 player.updateAvailableMoves(newMoves);
             }
         }
         else if (this.round == 3) {
-            List<String> newMoves = new ArrayList<>(Arrays.asList(Moves.EXCHANGE.getName(), Moves.STATUS.getName()));
+            List<String> newMoves = new ArrayList<>(Arrays.asList(Moves.EXCHANGE.getName(), Moves.STATUS.getName(),
+                    Moves.HINT.getName()));
             for (Player player : players) {
                 player.updateAvailableMoves(newMoves);
             }
@@ -326,12 +427,11 @@ public class Game {
     }
 
     /**
-     * Deals cards to all players and shuffles the deck.
+     * Collects the cards into the deck and deals them to all players.
      */
     public void dealCards() {
-        this.deck = Deck.newDeck();
-        Deck.shuffleDeck(this.deck);
-        Croupier.dealCards(this.deck, this.players);
+        this.deck.reset();
+        Croupier.dealCards(this.deck, this.players, this.ranker);
     }
 
 
@@ -365,15 +465,49 @@ public class Game {
 
     public int getAnte() { return ante; }
 
+    public HandRanker getRanker() { return ranker; }
+
+    /**
+     * Sets the receiver of messages pushed to players outside of their requests.
+     *
+     * @param pushListener the receiver, called with the addressed player and the message.
+     */
+    public void setPushListener(BiConsumer<Player, String> pushListener) { this.pushListener = pushListener; }
+
+    /**
+     * Pushes a message to a player outside of their requests, marked with {@link FrameCodec#PUSH_MARKER}.
+     * May be called from any thread.
+     *
+     * @param player  the addressed player.
+     * @param message the message to send.
+     */
+    public void push(Player player, String message) { pushListener.accept(player, FrameCodec.markPushed(message)); }
+
+    /**
+     * Sets the receiver of the changes of the state of the table. It is called while a move is processed,
+     * whenever the move has changed the round, the turn or the highest bet.
+     *
+     * @param broadcastListener the receiver, called with the state to be sent to all players of the table.
+     */
+    public void setBroadcastListener(Consumer<StateBroadcast> broadcastListener) { this.broadcastListener = broadcastListener; }
+
     public int getGameID() { return gameID; }
 
+    /**
+     * Gets the seed of the random stream of the deck. It reproduces the dealt cards unless
+     * the deck has been replaced with {@link #setDeck(Deck)}.
+     *
+     * @return the seed of the game.
+     */
+    public long getSeed() { return seed; }
+
     public void updateHighestBet(int bet) { this.highestBet += bet; }
 
     public int getHighestBet() { return this.highestBet; }
 
-    public List<Card> getDeck() { return this.deck; }
+    public Deck getDeck() { return this.deck; }
 
-    public void setDeck(List<Card> deck) { this.deck = deck; }
+    public void setDeck(Deck deck) { this.deck = deck; }
 
     public List<Player> getPlayers() { return this.players; }
 
@@ -389,38 +523,14 @@ public class Game {
 
 
     private String validateMove(Player player, Map<String, String> move) {
-        String result = "";
         String wrongParams = "Niepoprawne parametry!";
-
-        if ((Integer.parseInt(move.get(Token.ID_GRY.getName())) != this.gameID && player.getPlayerID() != 0)
-                || Integer.parseInt(move.get(Token.ID_GRACZA.getName())) != player.getPlayerID()) {
-            result = "Ruch wykonany został przez gracza o niepoprawnych danych ID!";
-        }
-        else if (!player.isMoveAvailable(move.get(Token.RODZAJ_RUCHU.getName()))
-                || (move.get(Token.RODZAJ_RUCHU.getName()).equals(Moves.CALL.getName()) && player.getBet() == this.highestBet)) {
-            result = "Ruch jest niedostępny!";
-        }
-        else if (player.getPlayerID() != 0 && this.whoseTurnID != player.getPlayerID()
-                && this.round > 1 && !move.get(Token.RODZAJ_RUCHU.getName()).equals(Moves.STATUS.getName())) {
-            result = "Nie twoja kolej!";
-        }
+        String result = validateTurn(player, Integer.parseInt(move.get(Token.ID_GRY.getName())),
+                Integer.parseInt(move.get(Token.ID_GRACZA.getName())), move.get(Token.RODZAJ_RUCHU.getName()));
 
         if (move.get(Token.RODZAJ_RUCHU.getName()).equals(Moves.EXCHANGE.getName())) {
             String parameters = move.get(Token.PARAMETRY_RUCHU.getName());
-            if (!parameters.isEmpty()) {
-                String[] params = parameters.split(",");
-                if (params.length > 4) {
-                    result = wrongParams;
-                }
-
-                String playerCards = player.getCopyOfHand().toString();
-                for (int i = 0; i < params.length; i++) {
-                    params[i] = params[i].trim();
-                    String[] parts = params[i].split("-");
-                    if (parts.length != 2 || !Card.exists(parts) || !playerCards.contains(params[i])) {
-                        result = wrongParams;
-                    }
-                }
+            if (!Exchange.areValidCards(parameters, player.getHandMask())) {
+                result = wrongParams;
             }
         }
         else if (move.get(Token.RODZAJ_RUCHU.getName()).equals(Moves.RAISE.getName())) {
@@ -438,22 +548,21 @@ public class Game {
         else if (move.get(Token.RODZAJ_RUCHU.getName()).equals(Moves.NEW_GAME.getName())) {
             String parameters = move.get(Token.PARAMETRY_RUCHU.getName());
             String[] params = parameters.split(",");
-            if (params.length != 2) {
-                result = wrongParams;
+            if (params.length != 2 && params.length != 3) {
+                return wrongParams;
             }
 
             Integer[] parsedParams = new Integer[2];
-            for (int i = 0; i < params.length; i++) {
-                params[i] = params[i].trim();
+            for (int i = 0; i < 2; i++) {
                 try {
-                    parsedParams[i] = Integer.parseInt(params[i]);
+                    parsedParams[i] = Integer.parseInt(params[i].trim());
                 }
                 catch (NumberFormatException e) {
-                    result = wrongParams;
+                    return wrongParams;
                 }
             }
 
-            if (parsedParams[0] < 2 || parsedParams[0] > 4 || parsedParams[1] < 0) {
+            if (!NewGame.areValidParameters(parsedParams[0], parsedParams[1], params.length == 3 ? params[2].trim() : null)) {
                 result = wrongParams;
             }
         }
@@ -461,6 +570,31 @@ public class Game {
         return result;
     }
 
+    /**
+     * Checks that a move is made by the player it claims to be made by, is available to them
+     * and is made in their turn, unless it may be made at any time.
+     *
+     * @param player   the player making the move.
+     * @param gameID   the game ID of the move.
+     * @param playerID the player ID of the move.
+     * @param moveName the name of the move.
+     * @return the reason the move is rejected, or an empty string if it may be made.
+     */
+    private String validateTurn(Player player, int gameID, int playerID, String moveName) {
+        if ((gameID != this.gameID && player.getPlayerID() != 0) || playerID != player.getPlayerID()) {
+            return "Ruch wykonany został przez gracza o niepoprawnych danych ID!";
+        }
+        if (!player.isMoveAvailable(moveName)
+                || (moveName.equals(Moves.CALL.getName()) && player.getBet() == this.highestBet)) {
+            return "Ruch jest niedostępny!";
+        }
+        if (player.getPlayerID() != 0 && this.whoseTurnID != player.getPlayerID() && this.round > 1
+                && !moveName.equals(Moves.STATUS.getName()) && !moveName.equals(Moves.HINT.getName())) {
+            return "Nie twoja kolej!";
+        }
+        return "";
+    }
+
 
     private void generateMoves() {
         moves.put(Moves.EXCHANGE.getName(), new Exchange());
@@ -470,5 +604,6 @@ public class Game {
         moves.put(Moves.CALL.getName(), new Call());
         moves.put(Moves.STATUS.getName(), new Status());
         moves.put(Moves.NEW_GAME.getName(), new NewGame());
+        moves.put(Moves.HINT.getName(), new Hint());
     }
 }
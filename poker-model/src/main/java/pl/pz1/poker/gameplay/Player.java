@@ -1,9 +1,11 @@
 package pl.pz1.poker.gameplay;
 
+import pl.pz1.poker.evaluator.HandRanker;
 import pl.pz1.poker.util.parser.Moves;
 
 import java.nio.channels.SocketChannel;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -13,9 +15,25 @@ import java.util.List;
 public class Player {
 
     /**
-     * The player's hand of cards, with a fixed size defined by HAND_SIZE.
+     * The player's hand of cards stored as a 52-bit mask of card ordinals,
+     * holding at most HAND_SIZE cards.
      */
-    private final ArrayList<Card> hand = new ArrayList<>(HAND_SIZE);
+    private long hand = 0L;
+
+    /**
+     * Read-only list of the cards of the hand, built on demand and dropped when the hand changes.
+     */
+    private List<Card> handView = null;
+
+    /**
+     * The rank of the hand under the rules it was last ranked with.
+     */
+    private int handRank = 0;
+
+    /**
+     * The rules the hand rank was computed with, or null when the hand has changed since.
+     */
+    private HandRanker rankedBy = null;
 
     /**
      * The network channel associated with the player.
@@ -67,6 +85,15 @@ public class Player {
         setDefaultMoves();
     }
 
+    /**
+     * Gets the network channel associated with the player.
+     *
+     * @return the player's channel.
+     */
+    public SocketChannel getChannel() {
+        return this.channel;
+    }
+
     /**
      * Gets the player's unique identifier.
      *
@@ -200,7 +227,20 @@ public class Player {
      * @param card the card to add.
      */
     public void giveCard(Card card) {
-        this.hand.add(card);
+        this.hand |= card.mask();
+        this.rankedBy = null;
+        this.handView = null;
+    }
+
+    /**
+     * Adds a card to the player's hand.
+     *
+     * @param ordinal the ordinal of the card to add.
+     */
+    public void giveCard(int ordinal) {
+        this.hand |= 1L << ordinal;
+        this.rankedBy = null;
+        this.handView = null;
     }
 
     /**
@@ -209,26 +249,86 @@ public class Player {
      * @param hand the new list of cards.
      */
     public void updateHand(List<Card> hand) {
-        this.hand.clear();
-        this.hand.addAll(hand);
+        this.hand = Card.maskOf(hand);
+        this.rankedBy = null;
+        this.handView = null;
     }
 
     /**
-     * Gets a copy of the player's hand.
+     * Checks if the player holds the given card.
      *
-     * @return a copy of the hand.
+     * @param ordinal the ordinal of the card.
+     * @return true if the card is in the player's hand, false otherwise.
+     */
+    public boolean hasCard(int ordinal) {
+        return (this.hand & (1L << ordinal)) != 0;
+    }
+
+    /**
+     * Removes the given cards from the player's hand.
+     *
+     * @param cards the mask of cards to remove.
+     */
+    public void removeCards(long cards) {
+        this.hand &= ~cards;
+        this.rankedBy = null;
+        this.handView = null;
+    }
+
+    /**
+     * Gets the player's hand as a 52-bit mask of card ordinals.
+     *
+     * @return the mask of the hand.
+     */
+    public long getHandMask() {
+        return this.hand;
+    }
+
+    /**
+     * Computes and stores the rank of the player's complete hand, so the showdown
+     * and hints can read it without evaluating the hand again.
+     *
+     * @param ranker the rules to rank the hand with.
+     */
+    public void rankHand(HandRanker ranker) {
+        this.handRank = ranker.rank(this.hand);
+        this.rankedBy = ranker;
+    }
+
+    /**
+     * Gets the rank of the player's hand, computing it only if the hand has changed
+     * or was ranked with other rules.
+     *
+     * @param ranker the rules to rank the hand with.
+     * @return the rank of the hand.
+     */
+    public int getHandRank(HandRanker ranker) {
+        if (this.rankedBy != ranker) {
+            rankHand(ranker);
+        }
+        return this.handRank;
+    }
+
+    /**
+     * Gets a copy of the player's hand, ordered by card ordinals, which the caller may modify.
+     *
+     * @return a new list of the cards of the hand.
      */
     public List<Card> getCopyOfHand() {
-        return new ArrayList<>(this.hand);
+        return Card.listOf(this.hand);
     }
 
     /**
-     * Gets the player's hand.
+     * Gets the player's hand, ordered by card ordinals. The list is read-only and shared
+     * until the hand changes; code evaluating hands should use {@link #getHandMask()} instead.
      *
      * @return the hand.
      */
     public List<Card> getHand() {
-        return this.hand;
+        if (this.handView == null) {
+            this.handView = Collections.unmodifiableList(Card.listOf(this.hand));
+        }
+        return this.handView;
     }
 
     /**
@@ -241,6 +341,8 @@ public class Player {
         this.hasPassed = false;
         setDefaultMoves();
         this.lastMove = "";
-        this.hand.clear();
+        this.hand = 0L;
+        this.rankedBy = null;
+        this.handView = null;
     }
 }
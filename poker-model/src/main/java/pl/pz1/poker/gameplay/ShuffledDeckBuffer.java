@@ -0,0 +1,177 @@
+package pl.pz1.poker.gameplay;
+
+import java.security.SecureRandom;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded ring buffer of decks shuffled with {@link SecureRandom}, kept full by a background
+ * producer thread. Cryptographically strong shuffles are slow, so taking a ready deck keeps
+ * them off the game loop: {@link #take()} only removes an array from the buffer. When the
+ * buffer is empty the deck is shuffled inline instead, which is counted as a fallback.
+ * Dealt decks are handed back with {@link #recycle(int[])} and reshuffled by the producer,
+ * so a running buffer does not allocate.
+ */
+public class ShuffledDeckBuffer implements AutoCloseable {
+
+    /**
+     * Default number of decks kept ready.
+     */
+    public static final int DEFAULT_CAPACITY = 64;
+
+    /**
+     * Decks shuffled and ready to be taken.
+     */
+    private final BlockingQueue<int[]> ready;
+
+    /**
+     * Dealt decks waiting to be shuffled again.
+     */
+    private final BlockingQueue<int[]> recycled;
+
+    /**
+     * Source of randomness of all shuffles.
+     */
+    private final SecureRandom random = new SecureRandom();
+
+    /**
+     * Number of decks shuffled inline because the buffer was empty.
+     */
+    private final AtomicLong fallbacks = new AtomicLong();
+
+    /**
+     * Number of decks shuffled by the producer.
+     */
+    private final AtomicLong produced = new AtomicLong();
+
+    /**
+     * The producer thread, or null if the buffer has not been started.
+     */
+    private Thread producer;
+
+    /**
+     * Constructs a buffer of the given capacity. The producer is started by {@link #start()}.
+     *
+     * @param capacity the number of decks kept ready.
+     * @throws IllegalArgumentException if the capacity is not positive.
+     */
+    public ShuffledDeckBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.ready = new ArrayBlockingQueue<>(capacity);
+        this.recycled = new ArrayBlockingQueue<>(capacity);
+    }
+
+    /**
+     * Starts the background producer filling the buffer.
+     *
+     * @return this buffer.
+     */
+    public synchronized ShuffledDeckBuffer start() {
+        if (producer == null) {
+            producer = new Thread(this::produce, "deck-shuffler");
+            producer.setDaemon(true);
+            producer.start();
+        }
+        return this;
+    }
+
+    /**
+     * Takes a shuffled deck, shuffling one inline if none is ready.
+     *
+     * @return ordinals of all cards in random order.
+     */
+    public int[] take() {
+        int[] deck = ready.poll();
+        if (deck == null) {
+            fallbacks.incrementAndGet();
+            deck = shuffle(newOrRecycled());
+        }
+        return deck;
+    }
+
+    /**
+     * Hands a dealt deck back to be shuffled again.
+     *
+     * @param deck a deck previously returned by {@link #take()}.
+     */
+    public void recycle(int[] deck) {
+        recycled.offer(deck);
+    }
+
+    /**
+     * Gets the number of decks ready to be taken.
+     *
+     * @return the depth of the buffer.
+     */
+    public int getDepth() {
+        return ready.size();
+    }
+
+    /**
+     * Gets the number of decks shuffled inline because the buffer was empty.
+     *
+     * @return the number of fallbacks.
+     */
+    public long getFallbacks() {
+        return fallbacks.get();
+    }
+
+    /**
+     * Gets the number of decks shuffled by the producer.
+     *
+     * @return the number of produced decks.
+     */
+    public long getProduced() {
+        return produced.get();
+    }
+
+    /**
+     * Stops the producer. Decks can still be taken, shuffled inline.
+     */
+    @Override
+    public synchronized void close() {
+        if (producer != null) {
+            producer.interrupt();
+            producer = null;
+        }
+    }
+
+    private void produce() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                ready.put(shuffle(newOrRecycled()));
+                produced.incrementAndGet();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private int[] newOrRecycled() {
+        int[] deck = recycled.poll();
+        if (deck == null) {
+            deck = new int[Card.DECK_SIZE];
+            for (int i = 0; i < deck.length; i++) {
+                deck[i] = i;
+            }
+        }
+        return deck;
+    }
+
+    /**
+     * Shuffles all cards with the Fisher-Yates shuffle. Any permutation is a valid starting
+     * point, so recycled decks are not sorted first.
+     */
+    private int[] shuffle(int[] deck) {
+        for (int i = deck.length - 1; i > 0; i--) {
+            int chosen = random.nextInt(i + 1);
+            int card = deck[chosen];
+            deck[chosen] = deck[i];
+            deck[i] = card;
+        }
+        return deck;
+    }
+}
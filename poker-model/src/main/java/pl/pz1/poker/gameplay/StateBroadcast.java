@@ -0,0 +1,98 @@
+package pl.pz1.poker.gameplay;
+
+import pl.pz1.poker.util.parser.FrameCodec;
+import pl.pz1.poker.util.parser.Moves;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The StateBroadcast class describes a change of the state of a table pushed to all of its players.
+ * The public part, the same for every player, is encoded once when the broadcast is created;
+ * the private part of every recipient (their cards, hand and bet) is encoded separately
+ * and sent right after the public part. The public part starts with {@link FrameCodec#PUSH_MARKER}.
+ */
+public final class StateBroadcast {
+
+    /**
+     * The game whose state has changed.
+     */
+    private final Game game;
+
+    /**
+     * The players of the table when the broadcast was created.
+     */
+    private final List<Player> recipients;
+
+    /**
+     * The public part of the state encoded in UTF-8.
+     */
+    private final byte[] publicState;
+
+    /**
+     * Constructs a broadcast of the current state of a game.
+     *
+     * @param game the game whose state has changed.
+     */
+    StateBroadcast(Game game) {
+        this.game = game;
+        this.recipients = new ArrayList<>(game.getPlayers());
+        this.publicState = describePublicState(game).getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Gets the players the broadcast is addressed to.
+     *
+     * @return the players of the table.
+     */
+    public List<Player> getRecipients() {
+        return recipients;
+    }
+
+    /**
+     * Gets the public part of the state encoded in UTF-8, shared by all recipients.
+     * The returned array must not be modified.
+     *
+     * @return the encoded public part.
+     */
+    public byte[] getPublicState() {
+        return publicState;
+    }
+
+    /**
+     * Encodes the private part of the state of a recipient. It reflects the current state
+     * of the player, so it is encoded while the move causing the broadcast is processed.
+     *
+     * @param player the recipient.
+     * @return the private part encoded in UTF-8.
+     */
+    public byte[] getPrivateState(Player player) {
+        StringBuilder state = new StringBuilder();
+        if (player.getHandMask() != 0) {
+            state.append("\nTwoje karty: ").append(player.getHand())
+                    .append("\nTwój układ: ").append(game.getRanker().describe(player.getHandRank(game.getRanker())));
+        }
+        state.append("\nTwój BET: ").append(player.getBet()).append("zł");
+        if (game.getRound() > 1 && game.getRound() < 5 && game.whoseTurn() == player.getPlayerID()
+                && !player.hasPlayerPassed()) {
+            state.append("\nKolejka: Twoja kolej! Możliwe ruchy: ").append(player.getAvailableMoves());
+        }
+        return state.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Describes the state of the game known to every player.
+     *
+     * @param game the game whose state has changed.
+     * @return the description of the public state.
+     */
+    private static String describePublicState(Game game) {
+        String state = FrameCodec.markPushed("Stan gry o ID: ") + game.getGameID() + "\n"
+                + "Runda: " + game.getRound() + ", najwyższy BET w grze: " + game.getHighestBet() + "zł";
+        if (game.getRound() == 5) {
+            return state + "\nKoniec rozdania! Sprawdź wynik ruchem " + Moves.STATUS.getName();
+        }
+        return state + ", kolej gracza: " + game.whoseTurn();
+    }
+}
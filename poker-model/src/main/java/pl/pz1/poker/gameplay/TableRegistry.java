@@ -0,0 +1,143 @@
+package pl.pz1.poker.gameplay;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of the tables hosted by one server, keyed by game ID. Games receive unique IDs
+ * when they are created, so tables can be opened and closed from any thread.
+ * Games may only be read by the thread processing their moves, so the lobby reads immutable
+ * summaries of the tables instead, published by that thread after every move with {@link #publish(Game)}.
+ */
+public class TableRegistry {
+
+    /**
+     * Open tables indexed by game ID.
+     */
+    private final Map<Integer, Game> tables = new ConcurrentHashMap<>();
+
+    /**
+     * Latest summaries of the open tables indexed by game ID.
+     */
+    private final Map<Integer, TableSummary> summaries = new ConcurrentHashMap<>();
+
+    /**
+     * Registers a table and publishes its summary. Must be called by the thread processing its moves.
+     *
+     * @param game the game played at the table.
+     */
+    public void open(Game game) {
+        tables.put(game.getGameID(), game);
+        publish(game);
+    }
+
+    /**
+     * Removes a table once its game has ended.
+     *
+     * @param game the game played at the table.
+     */
+    public void close(Game game) {
+        if (tables.remove(game.getGameID(), game)) {
+            summaries.remove(game.getGameID());
+        }
+    }
+
+    /**
+     * Publishes the current summary of an open table. Must be called by the thread processing its moves,
+     * after every move which may change the players seated at it or its round.
+     *
+     * @param game the game played at the table.
+     */
+    public void publish(Game game) {
+        if (tables.get(game.getGameID()) == game) {
+            summaries.put(game.getGameID(), TableSummary.of(game));
+        }
+    }
+
+    /**
+     * Finds a table by its game ID.
+     *
+     * @param gameID the ID of the game.
+     * @return the game, or null if no table has this ID.
+     */
+    public Game get(int gameID) {
+        return tables.get(gameID);
+    }
+
+    /**
+     * Finds the table with the lowest game ID accepting players according to its latest summary.
+     * The table may have been filled since, which is checked when the player joins it.
+     *
+     * @return the game, or null if no table is accepting players.
+     */
+    public Game findJoinable() {
+        int joinable = 0;
+        for (TableSummary summary : summaries.values()) {
+            if (summary.joinable() && (joinable == 0 || summary.gameID() < joinable)) {
+                joinable = summary.gameID();
+            }
+        }
+        return joinable == 0 ? null : tables.get(joinable);
+    }
+
+    /**
+     * Tells whether a table is accepting players.
+     *
+     * @param game the game played at the table.
+     * @return true if the game has started and has free seats.
+     */
+    public static boolean isJoinable(Game game) {
+        return game.getRound() == 1 && game.getNumberOfPlayersInGame() < game.getPlayerCount();
+    }
+
+    /**
+     * Gets all open tables.
+     *
+     * @return view of the games played at the open tables.
+     */
+    public Collection<Game> getTables() {
+        return tables.values();
+    }
+
+    /**
+     * Gets the latest summaries of the open tables, safe to read from any thread.
+     *
+     * @return view of the summaries.
+     */
+    public Collection<TableSummary> getSummaries() {
+        return summaries.values();
+    }
+
+    /**
+     * Gets the number of open tables.
+     *
+     * @return the number of tables.
+     */
+    public int size() {
+        return tables.size();
+    }
+
+    /**
+     * Immutable summary of a table shown in the lobby.
+     *
+     * @param gameID   the ID of the game played at the table.
+     * @param players  the number of seated players.
+     * @param seats    the number of players the game is played by.
+     * @param ante     the initial bet.
+     * @param joinable whether the table is accepting players.
+     */
+    public record TableSummary(int gameID, int players, int seats, int ante, boolean joinable) {
+
+        /**
+         * Summarizes the current state of a table.
+         *
+         * @param game the game played at the table.
+         * @return the summary.
+         */
+        static TableSummary of(Game game) {
+            return new TableSummary(game.getGameID(), game.getNumberOfPlayersInGame(), game.getPlayerCount(),
+                    game.getAnte(), isJoinable(game));
+        }
+    }
+}
@@ -6,9 +6,6 @@ import pl.pz1.poker.gameplay.Game;
 import pl.pz1.poker.gameplay.Player;
 import pl.pz1.poker.util.parser.Moves;
 
-import java.util.Iterator;
-import java.util.List;
-
 /**
  * The Exchange class represents the "EXCHANGE" move in the poker game.
  * A player can exchange selected cards from their hand for new ones from the deck.
@@ -17,7 +14,8 @@ public class Exchange implements Move {
 
     /**
      * Executes the "EXCHANGE" move by removing specified cards from the player's hand
-     * and replacing them with new cards from the game's deck.
+     * and replacing them with new cards from the game's deck. The rank of the new hand
+     * is computed right away, so the showdown does not evaluate it again.
      *
      * @param game       the current game instance.
      * @param player     the player making the move.
@@ -26,33 +24,113 @@ public class Exchange implements Move {
      */
     @Override
     public String execute(Game game, Player player, String parameters) {
-        List<Card> playersCards = player.getHand();
-        String[] cardsToRemove = parameters.split(",");
+        return exchange(game, player, parseCards(parameters));
+    }
 
-        if (cardsToRemove.length == 1 && cardsToRemove[0].isEmpty()) {
-            player.setLastMove(Moves.EXCHANGE.getName());
-            return "Ruch wykonany prawidłowo!";
+    /**
+     * Replaces the given cards of the player's hand with new cards from the game's deck.
+     *
+     * @param game   the current game instance.
+     * @param player the player making the move.
+     * @param cards  the mask of the cards to exchange; cards not held are ignored.
+     * @return a message indicating the move was successfully executed.
+     */
+    public static String exchange(Game game, Player player, long cards) {
+        long toRemove = cards & player.getHandMask();
+        if (toRemove != 0) {
+            player.removeCards(toRemove);
+            Croupier.addNewCards(game.getDeck(), player, Long.bitCount(toRemove));
+            player.rankHand(game.getRanker());
         }
+        player.setLastMove(Moves.EXCHANGE.getName());
+
+        return "Ruch wykonany prawidłowo!";
+    }
 
-        for (int i = 0; i < cardsToRemove.length; i++) {
-            cardsToRemove[i] = cardsToRemove[i].trim();
+    /**
+     * Largest number of cards exchanged in one move.
+     */
+    public static final int MAX_CARDS = 4;
+
+    /**
+     * Parses a comma-separated list of cards into a mask of card ordinals.
+     * Invalid entries are skipped, as they are rejected earlier by move validation.
+     *
+     * @param parameters a comma-separated string of cards.
+     * @return the mask of the listed cards.
+     */
+    public static long parseCards(String parameters) {
+        long cards = 0L;
+        int start = 0;
+        int length = parameters.length();
+        while (start < length) {
+            int end = parameters.indexOf(',', start);
+            if (end < 0) {
+                end = length;
+            }
+            int ordinal = parseEntry(parameters, start, end);
+            if (ordinal >= 0) {
+                cards |= 1L << ordinal;
+            }
+            start = end + 1;
         }
+        return cards;
+    }
 
-        Iterator<Card> cardIterator = playersCards.iterator();
-        while (cardIterator.hasNext()) {
-            Card card = cardIterator.next();
-            for (String s : cardsToRemove) {
-                if (card.toString().equals(s)) {
-                    cardIterator.remove();
-                    break;
-                }
+    /**
+     * Checks that a comma-separated list names at most {@value #MAX_CARDS} different cards, each of them held
+     * in the given hand. As with {@link String#split(String)}, trailing commas are ignored,
+     * while an empty entry between two commas is invalid.
+     *
+     * @param parameters a comma-separated string of cards.
+     * @param hand       the mask of the player's hand.
+     * @return true if every listed card is valid and held.
+     */
+    public static boolean areValidCards(String parameters, long hand) {
+        int length = parameters.length();
+        while (length > 0 && parameters.charAt(length - 1) == ',') {
+            length--;
+        }
+        long listed = 0L;
+        int start = 0;
+        while (start < length) {
+            int end = parameters.indexOf(',', start);
+            if (end < 0 || end > length) {
+                end = length;
             }
+            int ordinal = parseEntry(parameters, start, end);
+            long card = 1L << ordinal;
+            if (ordinal < 0 || (hand & card) == 0 || (listed & card) != 0) {
+                return false;
+            }
+            listed |= card;
+            start = end + 1;
         }
+        return areValidCards(listed, hand);
+    }
 
-        Croupier.addNewCards(game.getDeck(), player, cardsToRemove.length);
-        player.setLastMove(Moves.EXCHANGE.getName());
+    /**
+     * Checks that at most {@value #MAX_CARDS} cards are exchanged, each of them held in the given hand.
+     *
+     * @param cards the mask of the cards to exchange.
+     * @param hand  the mask of the player's hand.
+     * @return true if the cards can be exchanged.
+     */
+    public static boolean areValidCards(long cards, long hand) {
+        return (cards & ~hand) == 0 && Long.bitCount(cards) <= MAX_CARDS;
+    }
 
-        return "Ruch wykonany prawidłowo!";
+    /**
+     * Parses one entry of a comma-separated list of cards, ignoring surrounding whitespace.
+     *
+     * @param parameters the list of cards.
+     * @param start      index of the first character of the entry.
+     * @param end        index after the last character of the entry.
+     * @return the ordinal of the card, or -1 if the entry is not a valid card.
+     */
+    private static int parseEntry(String parameters, int start, int end) {
+        while (start < end && Character.isWhitespace(parameters.charAt(start))) start++;
+        while (end > start && Character.isWhitespace(parameters.charAt(end - 1))) end--;
+        return Card.parse(parameters, start, end);
     }
 }
-
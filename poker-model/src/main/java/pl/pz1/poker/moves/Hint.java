@@ -0,0 +1,116 @@
+package pl.pz1.poker.moves;
+
+import pl.pz1.poker.evaluator.EquityCalculator;
+import pl.pz1.poker.evaluator.HandRanker;
+import pl.pz1.poker.evaluator.HintService;
+import pl.pz1.poker.gameplay.Game;
+import pl.pz1.poker.gameplay.Player;
+
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The Hint class represents the "HINT" move in the poker game.
+ * A player asks for the category of their hand, its probability of winning against the
+ * opponents still in the game and the pot odds of calling. The move does not change the game
+ * state and does not use up the player's turn. Win probabilities come from a {@link HintService};
+ * when an estimate is not cached yet the player is answered at once and the estimate, or the
+ * information that it has failed, is pushed with {@link Game#push(Player, String)} once it is done.
+ */
+public class Hint implements Move {
+
+    /**
+     * Message sent instead of the win probability when its estimate has failed.
+     */
+    private static final String ESTIMATE_FAILED = "Nie udało się obliczyć szansy wygranej";
+
+    /**
+     * Message sent instead of the win probability when every opponent has left the table.
+     */
+    private static final String NO_OPPONENTS = "Szansa wygranej: 100% (brak przeciwników w grze)";
+
+    /**
+     * Service shared by all games of the server, so they share its pool and cache.
+     */
+    private static final HintService SHARED_SERVICE = new HintService();
+
+    /**
+     * The service providing win probabilities.
+     */
+    private final HintService service;
+
+    /**
+     * Constructs the move using the service shared by all games.
+     */
+    public Hint() {
+        this(SHARED_SERVICE);
+    }
+
+    /**
+     * Constructs the move using the given service.
+     *
+     * @param service the service providing win probabilities.
+     */
+    public Hint(HintService service) {
+        this.service = service;
+    }
+
+    /**
+     * Executes the "HINT" move by describing the player's hand and pot odds, together with
+     * the win probability if it is already known.
+     *
+     * @param game       the current game instance.
+     * @param player     the player making the move.
+     * @param parameters additional parameters for the move (unused in this implementation).
+     * @return the hint, or a message that the win probability will be sent later.
+     */
+    @Override
+    public String execute(Game game, Player player, String parameters) {
+        if (player.getPlayerID() == 0 || player.hasPlayerPassed() || game.getRound() < 2 || game.getRound() > 4) {
+            return "Podpowiedź jest niedostępna!";
+        }
+
+        HandRanker ranker = game.getRanker();
+        int inGame = 0;
+        int pot = 0;
+        for (Player other : game.getPlayers()) {
+            pot += other.getBet();
+            if (!other.hasPlayerPassed()) {
+                inGame++;
+            }
+        }
+        int opponents = inGame - 1;
+        String summary = "Twój układ: " + ranker.describe(player.getHandRank(ranker)) + "\n"
+                + potOdds(game.getHighestBet() - player.getBet(), pot) + "\n";
+
+        if (opponents < 1) {
+            return summary + NO_OPPONENTS;
+        }
+        CompletableFuture<EquityCalculator.Equity> estimate;
+        try {
+            estimate = service.winProbability(player.getHandMask(), opponents, ranker);
+        } catch (RuntimeException e) {
+            return summary + ESTIMATE_FAILED;
+        }
+        if (estimate.isDone()) {
+            return summary + (estimate.isCompletedExceptionally()
+                    ? ESTIMATE_FAILED : winProbability(estimate.join(), opponents));
+        }
+        estimate.whenComplete((equity, failure) -> game.push(player, "Podpowiedź:\n" + summary
+                + (failure == null ? winProbability(equity, opponents) : ESTIMATE_FAILED)));
+        return summary + "Szansa wygranej jest obliczana, wynik zostanie wysłany wkrótce";
+    }
+
+    private static String potOdds(int toCall, int pot) {
+        if (toCall <= 0) {
+            return "Pot odds: nie musisz dopłacać, pula wynosi " + pot + "zł";
+        }
+        return String.format(Locale.ROOT, "Pot odds: dopłata %dzł do puli %dzł (%.1f%% puli po sprawdzeniu)",
+                toCall, pot, 100.0 * toCall / (pot + toCall));
+    }
+
+    private static String winProbability(EquityCalculator.Equity equity, int opponents) {
+        return String.format(Locale.ROOT, "Szansa wygranej przeciwko %d przeciwnikom: %.1f%% (±%.1f%%)",
+                opponents, 100.0 * equity.equity(), 100.0 * equity.margin());
+    }
+}
@@ -1,11 +1,13 @@
 package pl.pz1.poker.moves;
 
+import pl.pz1.poker.evaluator.HandRanker;
 import pl.pz1.poker.gameplay.Game;
 import pl.pz1.poker.gameplay.Player;
 
 /**
  * The NewGame class represents the "NEW_GAME" move in the poker game.
  * A player uses this move to start a new game with specified parameters.
+ * The optional third parameter chooses the showdown rules ({@link HandRanker#HIGH} by default).
  */
 public class NewGame implements Move {
 
@@ -14,7 +16,8 @@ public class NewGame implements Move {
      *
      * @param game       the current game instance.
      * @param player     the player making the move.
-     * @param parameters a comma-separated string containing the number of players and the initial bet.
+     * @param parameters a comma-separated string containing the number of players, the initial bet
+     *                   and optionally the name of the showdown rules.
      * @return a message indicating the new game was successfully created.
      */
     @Override
@@ -22,14 +25,38 @@ public class NewGame implements Move {
         String[] params = parameters.split(",");
 
         Integer[] parsedParams = new Integer[2];
-        for (int i = 0; i < params.length; i++) {
+        for (int i = 0; i < parsedParams.length; i++) {
             params[i] = params[i].trim();
             parsedParams[i] = Integer.parseInt(params[i]);
         }
+        return create(game, parsedParams[0], parsedParams[1], params.length > 2 ? params[2].trim() : null);
+    }
 
-        game.startGame(parsedParams[0], parsedParams[1]);
+    /**
+     * Initializes a new game with the given parameters.
+     *
+     * @param game    the current game instance.
+     * @param players the number of players.
+     * @param ante    the initial bet.
+     * @param rules   the name of the showdown rules, or null for the default rules.
+     * @return a message indicating the new game was successfully created.
+     */
+    public static String create(Game game, int players, int ante, String rules) {
+        game.startGame(players, ante, HandRanker.forName(rules == null ? HandRanker.HIGH : rules));
 
         return "Nowa gra została utworzona!";
     }
+
+    /**
+     * Checks the parameters of a new game: from 2 to 4 players, a non-negative ante and known rules.
+     *
+     * @param players the number of players.
+     * @param ante    the initial bet.
+     * @param rules   the name of the showdown rules, or null for the default rules.
+     * @return true if a game can be created with the parameters.
+     */
+    public static boolean areValidParameters(int players, int ante, String rules) {
+        return players >= 2 && players <= 4 && ante >= 0 && (rules == null || HandRanker.forName(rules) != null);
+    }
 }
 
@@ -20,7 +20,19 @@ public class Raise implements Move {
      */
     @Override
     public String execute(Game game, Player player, String parameters) {
-        game.updateHighestBet(Integer.parseInt(parameters));
+        return raise(game, player, Integer.parseInt(parameters));
+    }
+
+    /**
+     * Raises the game's highest bet by the given amount, matching it with the player's bet.
+     *
+     * @param game   the current game instance.
+     * @param player the player making the move.
+     * @param amount the amount by which the bet is raised.
+     * @return a message indicating the move was successfully executed.
+     */
+    public static String raise(Game game, Player player, int amount) {
+        game.updateHighestBet(amount);
         player.updateBet(game.getHighestBet());
         player.setLastMove(Moves.RAISE.getName());
         return "Ruch wykonany prawidłowo!";
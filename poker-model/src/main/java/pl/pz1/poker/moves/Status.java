@@ -34,17 +34,20 @@ public class Status implements Move {
                     + "Spasowałeś w tej rozgrywce! Zaczekaj na jej zakończenie";
         } else if (game.getRound() > 1 && game.getRound() < 5 && player.getPlayerID() != 0 && game.whoseTurn() == player.getPlayerID()) {
             if ((game.getRound() == 2 || game.getRound() == 4) && player.getBet() == game.getHighestBet()) {
-                status = constant + "[" + Moves.FOLD.getName() + ", " + Moves.RAISE.getName() + ", " + Moves.STATUS.getName() + "]\n";
+                status = constant + "[" + Moves.FOLD.getName() + ", " + Moves.RAISE.getName() + ", " + Moves.STATUS.getName()
+                        + ", " + Moves.HINT.getName() + "]\n";
             } else {
                 status = constant + player.getAvailableMoves() + "\n";
             }
 
-            status += "Twoje karty: " + player.getCopyOfHand().toString() + "\n"
+            status += "Twoje karty: " + player.getHand() + "\n"
+                    + "Twój układ: " + describeHand(game, player) + "\n"
                     + "Twój BET: " + player.getBet() + "zł, najwyższy BET w grze: " + game.getHighestBet() + "zł\n"
                     + "Kolejka: Twoja kolej!";
         } else if (game.getRound() > 1 && game.getRound() < 5 && player.getPlayerID() != 0 && game.whoseTurn() != player.getPlayerID()) {
-            status += constant + "[" + Moves.STATUS.getName() + "]\n"
-                    + "Twoje karty: " + player.getCopyOfHand().toString() + "\n"
+            status += constant + "[" + Moves.STATUS.getName() + ", " + Moves.HINT.getName() + "]\n"
+                    + "Twoje karty: " + player.getHand() + "\n"
+                    + "Twój układ: " + describeHand(game, player) + "\n"
                     + "Twój BET: " + player.getBet() + "zł, najwyższy BET w grze: " + game.getHighestBet() + "zł\n"
                     + "Kolejka: kolej gracza " + game.whoseTurn();
         } else if (game.getRound() == 1 && player.getPlayerID() > 0) {
@@ -64,4 +67,15 @@ public class Status implements Move {
 
         return status;
     }
+
+    /**
+     * Describes the player's hand using the rank stored at deal or exchange time.
+     *
+     * @param game   the current game instance.
+     * @param player the player whose hand is described.
+     * @return the description of the hand under the rules of the game.
+     */
+    private String describeHand(Game game, Player player) {
+        return game.getRanker().describe(player.getHandRank(game.getRanker()));
+    }
 }
@@ -1,12 +1,23 @@
 package pl.pz1.poker;
 
 import org.junit.jupiter.api.Test;
+import pl.pz1.poker.evaluator.EquityCalculator;
+import pl.pz1.poker.evaluator.HandEvaluator;
+import pl.pz1.poker.evaluator.HandRanker;
+import pl.pz1.poker.evaluator.HintService;
 import pl.pz1.poker.gameplay.*;
+import pl.pz1.poker.moves.Exchange;
 import pl.pz1.poker.moves.Exit;
+import pl.pz1.poker.moves.Hint;
+import pl.pz1.poker.util.parser.BinaryMove;
+import pl.pz1.poker.util.parser.FrameCodec;
 import pl.pz1.poker.util.parser.Moves;
 
 import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -17,15 +28,310 @@ class GameplayAndMovesTest {
     @Test
     void CroupierDealCardsTest() {
         List<Player> players = new ArrayList<>(List.of(new Player(mock(SocketChannel.class))));
-        List<Card> deck = Deck.newDeck();
-        Deck.shuffleDeck(deck);
+        Deck sameShuffle = new Deck(new SplittableRandom(7));
         List<Card> toCheck = new ArrayList<>();
         for (int i = 0; i < 5; i++) {
-            toCheck.add(deck.get(i));
+            toCheck.add(Card.of(sameShuffle.deal()));
         }
+        Deck deck = new Deck(new SplittableRandom(7));
         Croupier.dealCards(deck, players);
-        assertEquals(toCheck, players.get(0).getHand());
-        assertFalse(deck.containsAll(toCheck));
+        assertEquals(Card.maskOf(toCheck), players.get(0).getHandMask());
+        assertEquals(5, players.get(0).getHand().size());
+        assertEquals(Card.DECK_SIZE - 5, deck.remaining());
+    }
+
+
+
+    @Test
+    void deckDealsEveryCardOnceFromCursorTest() {
+        Deck deck = new Deck(new SplittableRandom(15));
+        Deck twin = new Deck(new SplittableRandom(15));
+        for (int hand = 0; hand < 3; hand++) {
+            long dealt = 0L;
+            for (int i = 0; i < Card.DECK_SIZE; i++) {
+                int card = deck.deal();
+                assertEquals(card, twin.deal());
+                assertEquals(0, dealt & 1L << card);
+                dealt |= 1L << card;
+            }
+            assertEquals(0, deck.remaining());
+            assertThrows(IllegalStateException.class, deck::deal);
+            deck.reset();
+            twin.reset();
+            assertEquals(Card.DECK_SIZE, deck.remaining());
+        }
+
+        Game game = new Game();
+        game.startGame(2, 50);
+        game.addPlayer(new Player(mock(SocketChannel.class)));
+        game.addPlayer(new Player(mock(SocketChannel.class)));
+        for (int hand = 0; hand < 2; hand++) {
+            game.getPlayers().forEach(Player::resetPlayer);
+            game.dealCards();
+            assertEquals(Card.DECK_SIZE - 2 * Player.HAND_SIZE, game.getDeck().remaining());
+            assertEquals(0, game.getPlayers().get(0).getHandMask() & game.getPlayers().get(1).getHandMask());
+        }
+    }
+
+
+
+    @Test
+    void shuffledDeckBufferFeedsDecksTest() throws InterruptedException {
+        try (ShuffledDeckBuffer buffer = new ShuffledDeckBuffer(4)) {
+            Deck deck = new Deck(buffer);
+            assertEquals(1, buffer.getFallbacks());
+            long dealt = 0L;
+            for (int i = 0; i < Card.DECK_SIZE; i++) {
+                dealt |= 1L << deck.deal();
+            }
+            assertEquals((1L << Card.DECK_SIZE) - 1, dealt);
+
+            buffer.start();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (buffer.getDepth() < 4 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(4, buffer.getDepth());
+
+            deck.reset();
+            assertEquals(1, buffer.getFallbacks());
+            assertTrue(buffer.getProduced() >= 4);
+            assertEquals(Card.DECK_SIZE, deck.remaining());
+            dealt = 0L;
+            for (int i = 0; i < Card.DECK_SIZE; i++) {
+                dealt |= 1L << deck.deal();
+            }
+            assertEquals((1L << Card.DECK_SIZE) - 1, dealt);
+        }
+    }
+
+
+
+    @Test
+    void gameReplayedFromSeedDealsSameCardsTest() {
+        long[][] hands = new long[2][];
+        for (int run = 0; run < 2; run++) {
+            Game game = new Game(17L);
+            assertEquals(17L, game.getSeed());
+            game.startGame(2, 50);
+            Player player1 = new Player(mock(SocketChannel.class));
+            Player player2 = new Player(mock(SocketChannel.class));
+            game.addPlayer(player1);
+            game.addPlayer(player2);
+            game.adjustGameParameters(Moves.JOIN.getName());
+            long dealt = player1.getHandMask();
+            new Exchange().execute(game, player1, player1.getHand().get(0) + ", " + player1.getHand().get(1));
+            hands[run] = new long[] {dealt, player2.getHandMask(), player1.getHandMask()};
+        }
+        assertArrayEquals(hands[0], hands[1]);
+        assertNotEquals(hands[0][0], hands[0][2]);
+    }
+
+
+
+    @Test
+    void shuffleIsUniformAcrossPositionsAndSeatsTest() {
+        int hands = 200_000;
+        int seats = 4;
+        int positions = seats * Player.HAND_SIZE;
+        for (java.util.random.RandomGenerator random : List.of(new Random(18), new SplittableRandom(18))) {
+            Deck deck = new Deck(random);
+            long[][] byPosition = new long[positions][Card.DECK_SIZE];
+            for (int hand = 0; hand < hands; hand++) {
+                deck.reset();
+                for (int position = 0; position < positions; position++) {
+                    byPosition[position][deck.deal()]++;
+                }
+            }
+            assertUniform(byPosition, hands);
+
+            List<Player> players = new ArrayList<>();
+            for (int seat = 0; seat < seats; seat++) {
+                players.add(new Player(mock(SocketChannel.class)));
+            }
+            long[][] bySeat = new long[seats][Card.DECK_SIZE];
+            for (int hand = 0; hand < hands / 4; hand++) {
+                deck.reset();
+                Croupier.dealCards(deck, players);
+                for (int seat = 0; seat < seats; seat++) {
+                    Player player = players.get(seat);
+                    for (long cards = player.getHandMask(); cards != 0; cards &= cards - 1) {
+                        bySeat[seat][Long.numberOfTrailingZeros(cards)]++;
+                    }
+                    player.removeCards(player.getHandMask());
+                }
+            }
+            assertUniform(bySeat, (long) hands / 4 * Player.HAND_SIZE);
+        }
+    }
+
+    /**
+     * Checks that every row of the table is a uniform distribution over the cards, with the
+     * chi-square statistic of the whole table below five standard deviations above its mean.
+     */
+    private static void assertUniform(long[][] counts, long perRow) {
+        double expected = (double) perRow / Card.DECK_SIZE;
+        double chiSquare = 0;
+        for (long[] row : counts) {
+            for (long count : row) {
+                chiSquare += (count - expected) * (count - expected) / expected;
+            }
+        }
+        int degrees = counts.length * (Card.DECK_SIZE - 1);
+        assertTrue(chiSquare < degrees + 5 * Math.sqrt(2.0 * degrees), "chi-square " + chiSquare + " for " + degrees);
+    }
+
+
+
+    @Test
+    void handRankCachedAtDealAndExchangeTest() {
+        HandEvaluator evaluator = new HandEvaluator();
+        int[] evaluations = {0};
+        HandRanker counting = new HandRanker() {
+            @Override
+            public int rank(long hand) {
+                evaluations[0]++;
+                return evaluator.rank(hand);
+            }
+
+            @Override
+            public String getName() {
+                return HandRanker.HIGH;
+            }
+
+            @Override
+            public String describe(int rank) {
+                return evaluator.describe(rank);
+            }
+        };
+
+        Game game = new Game();
+        game.startGame(2, 50, counting);
+        Player player1 = new Player(mock(SocketChannel.class));
+        Player player2 = new Player(mock(SocketChannel.class));
+        player1.setPlayerID(1);
+        player2.setPlayerID(2);
+        Deck deck = new Deck(new SplittableRandom(11));
+        game.setDeck(deck);
+        Croupier.dealCards(deck, List.of(player1, player2), counting);
+        assertEquals(2, evaluations[0]);
+        assertEquals(evaluator.rank(player1.getHandMask()), player1.getHandRank(counting));
+
+        List<Integer> winners = counting.winners(List.of(player1, player2));
+        assertEquals(evaluator.evaluateHands(List.of(player1, player2)), winners);
+        assertEquals(2, evaluations[0]);
+
+        new Exchange().execute(game, player1, player1.getHand().get(0).toString());
+        assertEquals(3, evaluations[0]);
+        assertEquals(evaluator.rank(player1.getHandMask()), player1.getHandRank(counting));
+        assertEquals(3, evaluations[0]);
+    }
+
+
+
+    @Test
+    void hintAnsweredWithoutBlockingAndPushedLaterTest() throws Exception {
+        Game game = new Game();
+        CompletableFuture<String> pushed = new CompletableFuture<>();
+        game.setPushListener((player, message) -> pushed.complete(player.getPlayerID() + ":" + message));
+        game.startGame(2, 50);
+        Player player1 = new Player(mock(SocketChannel.class));
+        Player player2 = new Player(mock(SocketChannel.class));
+        game.addPlayer(player1);
+        game.addPlayer(player2);
+        game.adjustGameParameters(Moves.JOIN.getName());
+        assertEquals(2, game.getRound());
+        assertTrue(player2.isMoveAvailable(Moves.HINT.getName()));
+
+        Map<String, String> move = new HashMap<>();
+        move.put("ID_GRY", String.valueOf(game.getGameID()));
+        move.put("ID_GRACZA", "2");
+        move.put("RODZAJ_RUCHU", "HINT");
+        move.put("PARAMETRY_RUCHU", "");
+
+        String result = game.processMove(player2, move);
+        assertTrue(result.startsWith("Twój układ: "));
+        assertTrue(result.contains("Pot odds: nie musisz dopłacać, pula wynosi 100zł"));
+        assertTrue(result.endsWith("wynik zostanie wysłany wkrótce"));
+        assertEquals(1, game.whoseTurn());
+        assertEquals("", player2.getLastMove());
+
+        String message = pushed.get(10, TimeUnit.SECONDS);
+        assertTrue(message.startsWith("2:" + FrameCodec.PUSH_MARKER + "Podpowiedź:"));
+        assertTrue(message.contains("Szansa wygranej przeciwko 1 przeciwnikom: "));
+
+        result = game.processMove(player2, move);
+        assertTrue(result.contains("Szansa wygranej przeciwko 1 przeciwnikom: "));
+
+        player2.setAsPassed();
+        assertEquals("Podpowiedź jest niedostępna!", game.processMove(player2, move));
+    }
+
+    @Test
+    void hintWithoutOpponentsTest() {
+        Hint hint = new Hint(new HintService(java.util.concurrent.ForkJoinPool.commonPool(), 16) {
+            @Override
+            public CompletableFuture<EquityCalculator.Equity> winProbability(long hand, int opponents, HandRanker ranker) {
+                throw new IllegalArgumentException("Not enough cards for " + opponents + " opponents");
+            }
+        });
+        Game game = new Game();
+        game.startGame(2, 50);
+        Player player1 = new Player(mock(SocketChannel.class));
+        Player player2 = new Player(mock(SocketChannel.class));
+        game.addPlayer(player1);
+        game.addPlayer(player2);
+        game.adjustGameParameters(Moves.JOIN.getName());
+        assertEquals(2, game.getRound());
+
+        assertTrue(hint.execute(game, player1, "").endsWith("Nie udało się obliczyć szansy wygranej"));
+        new Exit().execute(game, player2, "");
+        String result = new Hint().execute(game, player1, "");
+        assertTrue(result.startsWith("Twój układ: "));
+        assertTrue(result.endsWith("Szansa wygranej: 100% (brak przeciwników w grze)"));
+    }
+
+    @Test
+    void hintReportsFailedEstimateTest() throws Exception {
+        CompletableFuture<EquityCalculator.Equity> estimate = new CompletableFuture<>();
+        Hint hint = new Hint(new HintService(java.util.concurrent.ForkJoinPool.commonPool(), 16) {
+            @Override
+            public CompletableFuture<EquityCalculator.Equity> winProbability(long hand, int opponents, HandRanker ranker) {
+                return estimate;
+            }
+        });
+        Game game = new Game();
+        CompletableFuture<String> pushed = new CompletableFuture<>();
+        game.setPushListener((player, message) -> pushed.complete(message));
+        game.startGame(2, 50);
+        Player player1 = new Player(mock(SocketChannel.class));
+        Player player2 = new Player(mock(SocketChannel.class));
+        game.addPlayer(player1);
+        game.addPlayer(player2);
+        game.adjustGameParameters(Moves.JOIN.getName());
+
+        assertTrue(hint.execute(game, player2, "").endsWith("wynik zostanie wysłany wkrótce"));
+        estimate.completeExceptionally(new IllegalStateException("pool shut down"));
+        String message = pushed.get(10, TimeUnit.SECONDS);
+        assertTrue(FrameCodec.isPushed(message));
+        assertTrue(message.endsWith("Nie udało się obliczyć szansy wygranej"));
+    }
+
+    @Test
+    void cardOrdinalAndParsingTest() {
+        for (int ordinal = 0; ordinal < Card.DECK_SIZE; ordinal++) {
+            Card card = Card.of(ordinal);
+            assertEquals(ordinal, card.ordinal());
+            assertEquals(ordinal, Card.parse(card.toString()));
+            assertSame(card, Card.of(new Card(card.getRank(), card.getSuit()).ordinal()));
+        }
+
+        assertEquals(-1, Card.parse("11-H"));
+        assertEquals(-1, Card.parse("10H"));
+        assertEquals(-1, Card.parse("1-H"));
+        assertEquals(-1, Card.parse("K-X"));
+        assertEquals(-1, Card.parse("Ł-H"));
+        assertEquals(new Card(Card.Rank.TEN, Card.Suit.HEARTS).ordinal(), Card.parse("10-H"));
     }
 
 
@@ -40,11 +346,10 @@ class GameplayAndMovesTest {
         player.setLastMove(Moves.EXCHANGE.getName());
         player.setAsPassed();
 
-        List<Card> deck = Deck.newDeck();
-        Deck.shuffleDeck(deck);
+        Deck deck = new Deck();
         List<Card> toCheck = new ArrayList<>();
         for (int i = 0; i < 5; i++) {
-            toCheck.add(deck.get(i));
+            toCheck.add(Card.of(deck.deal()));
         }
         player.updateHand(toCheck);
 
@@ -177,6 +482,31 @@ class GameplayAndMovesTest {
             assertEquals(expected, result);
             assertEquals(50, game.getAnte());
             assertEquals(2, game.getPlayerCount());
+            assertEquals(HandRanker.HIGH, game.getRanker().getName());
+        }
+
+
+
+        @Test
+        void testProcessMoveNEW_GAMEWithRules() {
+            Game game = new Game();
+
+            Map<String, String> move = new HashMap<>();
+            Player player1 = new Player(mock(SocketChannel.class));
+            player1.updateAvailableMoves(List.of("NEW_GAME"));
+
+            move.put("ID_GRY", "0");
+            move.put("ID_GRACZA", "0");
+            move.put("RODZAJ_RUCHU", "NEW_GAME");
+            move.put("PARAMETRY_RUCHU", "2, 50, POKER");
+            assertEquals("Niepoprawne parametry!", game.processMove(player1, move));
+
+            move.put("PARAMETRY_RUCHU", "2, 50, 1, 2");
+            assertEquals("Niepoprawne parametry!", game.processMove(player1, move));
+
+            move.put("PARAMETRY_RUCHU", "2, 50, lowball");
+            assertEquals("Nowa gra została utworzona!", game.processMove(player1, move));
+            assertEquals(HandRanker.LOWBALL, game.getRanker().getName());
         }
 
 
@@ -189,13 +519,13 @@ class GameplayAndMovesTest {
             Player player1 = new Player(mock(SocketChannel.class));
             player1.updateAvailableMoves(List.of("EXCHANGE"));
 
-            List<Card> deck = Deck.newDeck();
+            Deck deck = new Deck(new SplittableRandom(15));
             List<Card> toCheck = new ArrayList<>();
             for (int i = 0; i < 5; i++) {
-                player1.giveCard(deck.get(i));
-                toCheck.add(deck.get(i));
+                Card card = Card.of(deck.deal());
+                player1.giveCard(card);
+                toCheck.add(card);
             }
-            deck.removeAll(toCheck);
             game.setDeck(deck);
 
             move.put("ID_GRY", "0");
@@ -206,21 +536,64 @@ class GameplayAndMovesTest {
             String result = game.processMove(player1, move);
             String expected = "Ruch wykonany prawidłowo!";
             assertEquals(expected, result);
-            assertEquals(toCheck, player1.getHand());
+            assertEquals(Card.maskOf(toCheck), player1.getHandMask());
             assertEquals("EXCHANGE", player1.getLastMove());
 
 
             move.put("PARAMETRY_RUCHU", toCheck.get(0).toString());
-            toCheck.remove(0);
-            toCheck.add(deck.get(0));
-            int deckPreviouseSize = deck.size();
+            Card exchanged = toCheck.remove(0);
+            int deckPreviouseSize = deck.remaining();
 
             result = game.processMove(player1, move);
             expected = "Ruch wykonany prawidłowo!";
             assertEquals(expected, result);
-            assertEquals(toCheck, player1.getHand());
+            long drawn = player1.getHandMask() & ~Card.maskOf(toCheck);
+            assertEquals(1, Long.bitCount(drawn));
+            assertEquals(0, drawn & 1L << exchanged.ordinal());
+            toCheck.add(Card.of(Long.numberOfTrailingZeros(drawn)));
             assertEquals("EXCHANGE", player1.getLastMove());
-            assertEquals(deckPreviouseSize, game.getDeck().size() + 1);
+            assertEquals(deckPreviouseSize, game.getDeck().remaining() + 1);
+
+
+            move.put("PARAMETRY_RUCHU", toCheck.get(0) + ", " + toCheck.get(0));
+            result = game.processMove(player1, move);
+            assertEquals("Niepoprawne parametry!", result);
+            assertEquals(Card.maskOf(toCheck), player1.getHandMask());
+        }
+
+
+        @Test
+        void exchangeValidatesListedCardsTest() {
+            long hand = Card.maskOf(List.of(Card.of(Card.parse("2-H")), Card.of(Card.parse("3-D")),
+                    Card.of(Card.parse("10-S")), Card.of(Card.parse("Q-C")), Card.of(Card.parse("A-S"))));
+
+            assertTrue(Exchange.areValidCards("", hand));
+            assertTrue(Exchange.areValidCards("2-H, 3-D", hand));
+            assertTrue(Exchange.areValidCards("2-H,3-D,", hand));
+            assertTrue(Exchange.areValidCards("2-H, 3-D, 10-S, Q-C", hand));
+            assertFalse(Exchange.areValidCards("2-H, 3-D, 10-S, Q-C, A-S", hand));
+            assertFalse(Exchange.areValidCards("2-H,,3-D", hand));
+            assertFalse(Exchange.areValidCards("2-H, 2-H", hand));
+            assertFalse(Exchange.areValidCards("2-H, K-H", hand));
+            assertFalse(Exchange.areValidCards("2-X", hand));
+        }
+
+        @Test
+        void playerHandViewIsReadOnlyAndFollowsChangesTest() {
+            Player player = new Player(mock(SocketChannel.class));
+            player.giveCard(Card.parse("2-H"));
+            List<Card> hand = player.getHand();
+            assertSame(hand, player.getHand());
+            assertThrows(UnsupportedOperationException.class, () -> hand.add(Card.of(0)));
+
+            List<Card> copy = player.getCopyOfHand();
+            copy.add(Card.of(Card.parse("3-D")));
+            assertEquals(1, player.getHand().size());
+
+            player.giveCard(Card.parse("3-D"));
+            assertEquals(Card.maskOf(copy), Card.maskOf(player.getHand()));
+            player.removeCards(player.getHandMask());
+            assertTrue(player.getHand().isEmpty());
         }
 
 
@@ -343,5 +716,106 @@ class GameplayAndMovesTest {
             assertEquals(50, game.getAnte());
             assertEquals(1, game.getRound());
         }
+
+
+        @Test
+        void testBinaryMovesValidatedWithoutText() {
+            Game game = new Game();
+            Player creator = new Player(mock(SocketChannel.class));
+            creator.updateAvailableMoves(List.of("NEW_GAME"));
+            assertEquals("Niepoprawne parametry!", game.processMove(creator, BinaryMove.newGame(0, 0, 5, 10, null)));
+            assertEquals("Niepoprawne parametry!", game.processMove(creator, BinaryMove.newGame(0, 0, 2, 10, "UNKNOWN")));
+            assertEquals("Nowa gra została utworzona!", game.processMove(creator, BinaryMove.newGame(0, 0, 2, 10, "LOWBALL")));
+            assertEquals(2, game.getPlayerCount());
+            assertEquals(HandRanker.LOWBALL, game.getRanker().getName());
+
+            Player player1 = new Player(mock(SocketChannel.class));
+            Player player2 = new Player(mock(SocketChannel.class));
+            player1.updateAvailableMoves(List.of("JOIN"));
+            player2.updateAvailableMoves(List.of("JOIN"));
+            game.processMove(player1, BinaryMove.of(Moves.JOIN, game.getGameID(), 0));
+            game.processMove(player2, BinaryMove.of(Moves.JOIN, game.getGameID(), 0));
+            assertEquals(2, game.getRound());
+
+            Player current = game.whoseTurn() == player1.getPlayerID() ? player1 : player2;
+            Player other = current == player1 ? player2 : player1;
+            assertEquals("Nie twoja kolej!", game.processMove(other, BinaryMove.raise(game.getGameID(), other.getPlayerID(), 20)));
+            assertEquals("Niepoprawne parametry!", game.processMove(current, BinaryMove.raise(game.getGameID(), current.getPlayerID(), 0)));
+            assertEquals("Ruch wykonany prawidłowo!", game.processMove(current, BinaryMove.raise(game.getGameID(), current.getPlayerID(), 20)));
+            assertEquals(30, game.getHighestBet());
+
+            long notHeld = ~other.getHandMask() & (1L << Card.DECK_SIZE) - 1;
+            assertEquals("Niepoprawne parametry!", game.processMove(other,
+                    BinaryMove.exchange(game.getGameID(), other.getPlayerID(), Long.lowestOneBit(notHeld))));
+        }
+
+
+        @Test
+        void testStateBroadcasts() {
+            Game game = new Game();
+            game.startGame(2, 50);
+            List<StateBroadcast> broadcasts = new ArrayList<>();
+            game.setBroadcastListener(broadcasts::add);
+
+            Player player1 = new Player(mock(SocketChannel.class));
+            Player player2 = new Player(mock(SocketChannel.class));
+            player1.updateAvailableMoves(List.of("JOIN"));
+            player2.updateAvailableMoves(List.of("JOIN"));
+            Map<String, String> move = new HashMap<>();
+            move.put("ID_GRY", String.valueOf(game.getGameID()));
+            move.put("ID_GRACZA", "0");
+            move.put("RODZAJ_RUCHU", "JOIN");
+            move.put("PARAMETRY_RUCHU", "");
+            game.processMove(player1, move);
+            assertTrue(broadcasts.isEmpty());
+            game.processMove(player2, move);
+
+            assertEquals(1, broadcasts.size());
+            StateBroadcast broadcast = broadcasts.get(0);
+            assertEquals(List.of(player1, player2), broadcast.getRecipients());
+            String publicState = new String(broadcast.getPublicState(), StandardCharsets.UTF_8);
+            assertTrue(FrameCodec.isPushed(publicState));
+            assertTrue(FrameCodec.unmarkPushed(publicState).startsWith("Stan gry o ID: " + game.getGameID() + "\nRunda: 2"));
+            String privateState = new String(broadcast.getPrivateState(player2), StandardCharsets.UTF_8);
+            assertTrue(privateState.contains("Twoje karty: " + player2.getCopyOfHand()));
+
+            Player current = game.whoseTurn() == player1.getPlayerID() ? player1 : player2;
+            move.put("ID_GRACZA", String.valueOf(current.getPlayerID()));
+            move.put("RODZAJ_RUCHU", "STATUS");
+            game.processMove(current, move);
+            assertEquals(1, broadcasts.size());
+
+            move.put("RODZAJ_RUCHU", "RAISE");
+            move.put("PARAMETRY_RUCHU", "50");
+            assertEquals("Ruch wykonany prawidłowo!", game.processMove(current, move));
+            assertEquals(2, broadcasts.size());
+            assertTrue(new String(broadcasts.get(1).getPublicState(), StandardCharsets.UTF_8)
+                    .contains("najwyższy BET w grze: " + game.getHighestBet() + "zł"));
+        }
+
+
+        @Test
+        void testTableRegistryPublishesSummaries() {
+            TableRegistry registry = new TableRegistry();
+            Game game = new Game();
+            game.startGame(2, 50);
+            registry.open(game);
+            assertEquals(new TableRegistry.TableSummary(game.getGameID(), 0, 2, 50, true),
+                    registry.getSummaries().iterator().next());
+            assertSame(game, registry.findJoinable());
+
+            // The lobby sees the table filled only once the change is published.
+            game.addPlayer(new Player(mock(SocketChannel.class)));
+            game.addPlayer(new Player(mock(SocketChannel.class)));
+            assertSame(game, registry.findJoinable());
+            registry.publish(game);
+            assertNull(registry.findJoinable());
+            assertEquals(2, registry.getSummaries().iterator().next().players());
+
+            registry.close(game);
+            assertTrue(registry.getSummaries().isEmpty());
+            registry.publish(game);
+            assertTrue(registry.getSummaries().isEmpty());
+        }
     }
 }
@@ -7,7 +7,10 @@ import pl.pz1.poker.util.parser.Hands;
 import java.nio.channels.SocketChannel;
 import java.util.*;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 
 class HandEvaluatorTest {
@@ -388,4 +391,314 @@ class HandEvaluatorTest {
         assertEquals(1, result.size());
         assertEquals(1, result.get(0));
     }
+
+
+    private static long mask(String... cards) {
+        long mask = 0L;
+        for (String card : cards) {
+            mask |= 1L << Card.parse(card);
+        }
+        return mask;
+    }
+
+    private Player playerWithHand(int id, String... cards) {
+        Player player = new Player(mock(SocketChannel.class));
+        player.updateHand(Card.listOf(mask(cards)));
+        player.setPlayerID(id);
+        return player;
+    }
+
+
+    @Test
+    void strengthOrdersCategoriesAndKickersTest() {
+        Player wheel = playerWithHand(1, "A-S", "2-H", "3-C", "4-D", "5-S");
+        Player sixHigh = playerWithHand(2, "2-S", "3-H", "4-C", "5-D", "6-S");
+        Player lowFullHouse = playerWithHand(3, "2-S", "2-H", "2-C", "3-D", "3-S");
+        Player aceHighFlush = playerWithHand(4, "A-H", "J-H", "9-H", "7-H", "2-H");
+
+        assertEquals(Hands.STRAIGHT.getValue(), handEvaluator.evaluateHand(wheel));
+        assertEquals(Hands.FULL_HOUSE.getValue(), handEvaluator.evaluateHand(lowFullHouse));
+
+        int wheelStrength = handEvaluator.evaluateStrength(wheel.getHand());
+        int sixHighStrength = handEvaluator.evaluateStrength(sixHigh.getHand());
+        int fullHouseStrength = handEvaluator.evaluateStrength(lowFullHouse.getHand());
+        int flushStrength = handEvaluator.evaluateStrength(aceHighFlush.getHand());
+
+        assertTrue(wheelStrength < sixHighStrength);
+        assertTrue(sixHighStrength < flushStrength);
+        assertTrue(flushStrength < fullHouseStrength);
+        assertEquals(Hands.FLUSH, HandStrength.toHands(flushStrength));
+    }
+
+
+    @Test
+    void splitPotBetweenOnlyTheStrongestPlayersTest() {
+        Player player1 = playerWithHand(1, "K-S", "K-H", "9-C", "7-D", "2-S");
+        Player player2 = playerWithHand(2, "K-C", "K-D", "9-H", "7-S", "2-H");
+        Player player3 = playerWithHand(3, "Q-C", "Q-D", "A-H", "7-C", "2-C");
+
+        List<Integer> result = handEvaluator.evaluateHands(new ArrayList<>(Arrays.asList(player1, player2, player3)));
+        assertEquals(List.of(1, 2), result);
+    }
+
+
+    @Test
+    void exhaustiveEnumerationMatchesKnownCountsTest() {
+        HandEnumerator enumerator = new HandEnumerator();
+        HandEnumerator.Histogram histogram = enumerator.enumerate(handEvaluator::evaluateStrength);
+
+        assertEquals(HandEnumerator.ALL_HANDS, histogram.hands());
+        for (int category = 0; category < HandEnumerator.CATEGORIES; category++) {
+            assertEquals(HandEnumerator.knownCount(category), histogram.counts()[category]);
+        }
+        assertTrue(histogram.matchesKnownCounts());
+    }
+
+
+    @Test
+    void differentialComparisonWithReferenceEvaluatorTest() {
+        HandEnumerator enumerator = new HandEnumerator();
+
+        HandEnumerator.Difference same = enumerator.compare(ReferenceEvaluator::evaluate,
+                handEvaluator::evaluateStrength, 200_000, 7L);
+        assertTrue(same.isEmpty());
+
+        HandEnumerator.Difference broken = enumerator.compare(ReferenceEvaluator::evaluate,
+                hand -> -handEvaluator.evaluateStrength(hand), 1_000, 7L);
+        assertTrue(broken.categoryMismatches() > 0);
+        assertTrue(broken.orderingMismatches() > 0);
+    }
+
+
+    @Test
+    void equityEstimateTest() {
+        EquityCalculator calculator = new EquityCalculator(java.util.concurrent.ForkJoinPool.commonPool(), 11L);
+        long royal = mask("10-S", "J-S", "Q-S", "K-S", "A-S");
+        long aces = mask("A-H", "A-D", "9-C", "6-S", "2-H");
+        long discard = mask("9-C", "6-S", "2-H");
+
+        EquityCalculator.Equity certain = calculator.estimate(royal, 0L, 0L, 3, EquityCalculator.Budget.ofSamples(20_000));
+        assertEquals(20_000, certain.samples());
+        assertTrue(certain.win() > 0.999);
+        assertEquals(0.0, certain.loss());
+
+        EquityCalculator.Equity drawing = calculator.estimate(aces, discard, 0L, 1, EquityCalculator.Budget.ofSamples(50_000));
+        assertEquals(1.0, drawing.win() + drawing.tie() + drawing.loss(), 1e-9);
+        assertTrue(drawing.equity() > 0.92 && drawing.equity() < 0.95);
+        assertTrue(drawing.lowerBound() < drawing.equity() && drawing.equity() < drawing.upperBound());
+        assertTrue(drawing.margin() < 0.01);
+
+        long swappedAces = mask("A-S", "A-C", "9-D", "6-H", "2-S");
+        long swappedDiscard = mask("9-D", "6-H", "2-S");
+        assertEquals(drawing, calculator.estimate(swappedAces, swappedDiscard, 0L, 1, EquityCalculator.Budget.ofSamples(10)));
+        assertEquals(1, calculator.getCache().getHits());
+        EquityCalculator.Equity precise = calculator.estimate(swappedAces, swappedDiscard, 0L, 1,
+                EquityCalculator.Budget.ofSamples(80_000));
+        assertEquals(80_000, precise.samples());
+        assertEquals(precise, calculator.estimate(aces, discard, 0L, 1, EquityCalculator.Budget.ofSamples(50_000)));
+
+        EquityCalculator.Equity timed = calculator.estimateAsync(aces, 0L, 0L, 4,
+                EquityCalculator.Budget.ofTime(java.time.Duration.ofMillis(20))).join();
+        assertTrue(timed.samples() > 0);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> calculator.estimate(aces, royal, 0L, 1, EquityCalculator.Budget.ofSamples(10)));
+        assertThrows(IllegalArgumentException.class,
+                () -> calculator.estimate(aces, 0L, 0L, 10, EquityCalculator.Budget.ofSamples(10)));
+        assertThrows(IllegalArgumentException.class, () -> EquityCalculator.Budget.ofSamples(0));
+        assertThrows(IllegalArgumentException.class, () -> EquityCalculator.Budget.ofTime(java.time.Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> new EquityCalculator.Budget(Long.MAX_VALUE, Long.MAX_VALUE));
+    }
+
+
+    @Test
+    void drawOptimizerEnumeratesEveryDiscardTest() {
+        DrawOptimizer optimizer = new DrawOptimizer();
+        long aces = mask("A-H", "A-D", "9-C", "6-S", "2-H");
+        long junk = mask("9-C", "6-S", "2-H");
+        long[] combinations = {1, 47, 1081, 16215, 178365};
+
+        List<DrawOptimizer.DrawOption> options = optimizer.analyze(aces);
+        assertEquals(31, options.size());
+        assertEquals(0L, options.get(0).discard());
+        assertEquals(1.0, options.get(0).probability(Hands.ONE_PAIR.getValue()));
+        assertEquals(HandEvaluator.strength(aces), options.get(0).expectedStrength());
+        options.get(0).counts()[Hands.ONE_PAIR.getValue()] = 0;
+        assertEquals(1.0, options.get(0).probability(Hands.ONE_PAIR.getValue()));
+        for (DrawOptimizer.DrawOption option : options) {
+            assertEquals(combinations[Long.bitCount(option.discard())], option.draws());
+            assertEquals(0L, option.discard() & ~aces);
+        }
+        assertEquals(junk, optimizer.bestDiscard(aces));
+
+        long swappedAces = mask("A-S", "A-C", "9-D", "6-H", "2-S");
+        long swappedJunk = mask("9-D", "6-H", "2-S");
+        assertEquals(swappedJunk, optimizer.bestDiscard(swappedAces));
+        assertEquals(1, optimizer.getCache().size());
+        assertEquals(2, optimizer.getCache().getHits());
+
+        long flushDraw = mask("2-H", "5-H", "8-H", "J-H", "K-S");
+        assertEquals(mask("K-S"), optimizer.bestDiscard(flushDraw));
+        assertEquals(2, optimizer.getCache().size());
+    }
+
+
+    @Test
+    void batchEvaluationMatchesSingleHandsTest() {
+        SplittableRandom random = new SplittableRandom(5L);
+        long[] masks = new long[1003];
+        byte[] cards = new byte[masks.length * Player.HAND_SIZE];
+        for (int i = 0; i < masks.length; i++) {
+            masks[i] = i % 10 == 0 ? 0b11111L << (i % 4 * Card.RANKS_IN_SUIT + i % 8) : HandEnumerator.randomHand(random);
+            int card = i * Player.HAND_SIZE;
+            for (long rest = masks[i]; rest != 0; rest &= rest - 1) {
+                cards[card++] = (byte) Long.numberOfTrailingZeros(rest);
+            }
+        }
+
+        int[] batch = new int[masks.length];
+        int[] fromBytes = new int[masks.length];
+        int[] scalar = new int[masks.length];
+        handEvaluator.evaluateStrengths(masks, batch);
+        handEvaluator.evaluateStrengths(cards, fromBytes);
+        BatchKernel.SCALAR.evaluate(masks, scalar, masks.length);
+        for (int i = 0; i < masks.length; i++) {
+            assertEquals(handEvaluator.evaluateStrength(masks[i]), batch[i]);
+        }
+        assertArrayEquals(batch, fromBytes);
+        assertArrayEquals(batch, scalar);
+        assertThrows(IllegalArgumentException.class, () -> handEvaluator.evaluateStrengths(masks, new int[1]));
+    }
+
+
+    @Test
+    void suitCanonicalFormAndCacheTest() {
+        long hand = mask("A-H", "K-H", "9-C", "9-S", "2-D");
+        long swapped = mask("A-D", "K-D", "9-S", "9-H", "2-C");
+        int permutation = SuitCanonicalizer.permutation(hand);
+        long canonical = SuitCanonicalizer.canonicalize(hand);
+
+        assertEquals(canonical, SuitCanonicalizer.canonicalize(swapped));
+        assertEquals(hand, SuitCanonicalizer.revert(canonical, permutation));
+        assertEquals(handEvaluator.evaluateStrength(hand), handEvaluator.evaluateStrength(canonical));
+
+        EvaluationCache<String> cache = new EvaluationCache<>(16);
+        assertEquals("a", cache.get(canonical, key -> "a"));
+        assertEquals("a", cache.get(SuitCanonicalizer.canonicalize(swapped), key -> "b"));
+        assertEquals(0.5, cache.getHitRate());
+        for (long key = 0; key < 1000; key++) {
+            cache.put(key, "x");
+        }
+        assertTrue(cache.size() <= cache.getCapacity());
+        assertThrows(IllegalArgumentException.class, () -> new EvaluationCache<String>(1));
+    }
+
+
+    @Test
+    void sevenCardEvaluatorPicksBestFiveCardsTest() {
+        SevenCardEvaluator sevenCardEvaluator = new SevenCardEvaluator();
+        long twoTrips = mask("9-S", "9-H", "9-C", "4-D", "4-S", "4-H", "K-C");
+        long straightFlush = mask("5-H", "6-H", "7-H", "8-H", "9-H", "2-H", "9-S");
+        assertEquals(Hands.FULL_HOUSE.getValue(), HandStrength.category(sevenCardEvaluator.evaluateStrength(twoTrips)));
+        assertEquals(Hands.STRAIGHT_FLUSH.getValue(), HandStrength.category(sevenCardEvaluator.evaluateStrength(straightFlush)));
+
+        SplittableRandom random = new SplittableRandom(9L);
+        for (int i = 0; i < 100_000; i++) {
+            long cards = 0L;
+            while (Long.bitCount(cards) < SevenCardEvaluator.HAND_SIZE) {
+                cards |= 1L << random.nextInt(Card.DECK_SIZE);
+            }
+            int best = 0;
+            for (long first = cards; first != 0; first &= first - 1) {
+                for (long second = first & (first - 1); second != 0; second &= second - 1) {
+                    long hand = cards & ~Long.lowestOneBit(first) & ~Long.lowestOneBit(second);
+                    best = Math.max(best, handEvaluator.evaluateStrength(hand));
+                }
+            }
+            assertEquals(best, sevenCardEvaluator.evaluateStrength(cards));
+        }
+        assertThrows(IllegalArgumentException.class, () -> sevenCardEvaluator.evaluateStrength(twoTrips & (twoTrips - 1)));
+    }
+
+
+    @Test
+    void lowballRankerPrefersWorstHighHandTest() {
+        HandRanker lowball = HandRanker.forName("LOWBALL");
+        Player number1 = playerWithHand(1, "7-S", "5-H", "4-C", "3-D", "2-S");
+        Player eightLow = playerWithHand(2, "8-S", "6-H", "4-C", "3-D", "2-H");
+        Player aceHigh = playerWithHand(3, "A-S", "5-C", "4-H", "3-H", "2-D");
+        Player straight = playerWithHand(4, "6-C", "5-D", "4-D", "3-C", "2-C");
+        Player flush = playerWithHand(5, "9-H", "7-H", "5-H", "4-H", "2-H");
+
+        assertTrue(lowball.rank(number1.getHandMask()) > lowball.rank(eightLow.getHandMask()));
+        assertTrue(lowball.rank(eightLow.getHandMask()) > lowball.rank(aceHigh.getHandMask()));
+        assertTrue(lowball.rank(aceHigh.getHandMask()) > lowball.rank(straight.getHandMask()));
+        assertTrue(lowball.rank(aceHigh.getHandMask()) > lowball.rank(flush.getHandMask()));
+        assertEquals(List.of(2), lowball.winners(List.of(eightLow, aceHigh)));
+        assertEquals(List.of(3), HandRanker.forName("HIGH").winners(List.of(eightLow, aceHigh)));
+        assertEquals(null, HandRanker.forName("RAZZ"));
+    }
+
+
+    @Test
+    void rangeVersusRangeEquityTest() {
+        SplittableRandom random = new SplittableRandom(14);
+        for (int i = 0; i < 1000; i++) {
+            int index = random.nextInt(HandIndex.COMBINATIONS - 1);
+            assertEquals(index, HandIndex.index(HandIndex.hand(index)));
+            assertEquals(HandIndex.hand(index + 1), HandIndex.next(HandIndex.hand(index)));
+        }
+        assertEquals(HandIndex.COMBINATIONS, HandRange.all().size());
+
+        long aceOfSpades = 1L << new Card(Card.Rank.ACE, Card.Suit.SPADES).ordinal();
+        HandRange royals = HandRange.ofCategories(Hands.ROYAL_FLUSH.getValue(), Hands.ROYAL_FLUSH.getValue());
+        HandRange quads = HandRange.ofCategories(Hands.QUADS.getValue(), Hands.QUADS.getValue());
+        assertEquals(4, royals.size());
+        assertEquals(624, quads.size());
+        assertEquals(3, royals.withoutCards(aceOfSpades).size());
+        assertTrue(royals.contains(new HandRange().addClass(royals.hands()[0]).hands()[3]));
+        assertEquals(24, new HandRange().addClass(Card.maskOf(List.of(new Card(Card.Rank.TWO, Card.Suit.CLUBS),
+                new Card(Card.Rank.THREE, Card.Suit.DIAMONDS), new Card(Card.Rank.FOUR, Card.Suit.HEARTS),
+                new Card(Card.Rank.FIVE, Card.Suit.SPADES), new Card(Card.Rank.SEVEN, Card.Suit.CLUBS)))).size());
+
+        RangeEquity rangeEquity = new RangeEquity();
+        EquityCalculator.Equity royalsVersusRoyals = rangeEquity.exhaustive(royals, royals);
+        assertEquals(12, royalsVersusRoyals.samples());
+        assertEquals(0.5, royalsVersusRoyals.equity(), 1e-9);
+        assertEquals(1.0, rangeEquity.exhaustive(royals, quads).equity(), 1e-9);
+
+        HandRange fullHouses = HandRange.ofCategories(Hands.FULL_HOUSE.getValue(), Hands.FULL_HOUSE.getValue());
+        HandRange strong = HandRange.ofCategories(Hands.FLUSH.getValue(), Hands.QUADS.getValue());
+        EquityCalculator.Equity exact = rangeEquity.exhaustive(fullHouses, strong);
+        EquityCalculator.Equity sampled = rangeEquity.sample(fullHouses, strong, 2_000_000, 14);
+        assertEquals(0.0, exact.margin());
+        assertTrue(Math.abs(exact.equity() - sampled.equity()) < 2 * sampled.margin() + 1e-3,
+                exact + " vs " + sampled);
+    }
+
+
+    @Test
+    void tableFileRoundTripTest() throws java.io.IOException {
+        java.nio.file.Path directory = java.nio.file.Files.createTempDirectory("tables");
+        java.nio.file.Path file = directory.resolve("tables.bin");
+        try {
+            assertEquals(null, TableFile.read(file));
+
+            SevenCardTables.Data generated = SevenCardTables.generate();
+            TableFile.write(file, generated);
+            SevenCardTables.Data mapped = TableFile.read(file);
+            assertTrue(mapped.classes().isDirect());
+            assertArrayEquals(generated.flush(), mapped.flush());
+            assertArrayEquals(generated.strengths(), mapped.strengths());
+            assertEquals(generated.classes().rewind(), mapped.classes());
+
+            byte[] bytes = java.nio.file.Files.readAllBytes(file);
+            bytes[bytes.length / 2] ^= 1;
+            java.nio.file.Files.write(file, bytes);
+            assertEquals(null, TableFile.read(file));
+        } finally {
+            java.nio.file.Files.deleteIfExists(file);
+            java.nio.file.Files.delete(directory);
+        }
+    }
 }
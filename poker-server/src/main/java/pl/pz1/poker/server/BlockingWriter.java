@@ -0,0 +1,128 @@
+package pl.pz1.poker.server;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Writer of a connection served in the blocking mode. Frames are queued by any thread, including
+ * threads holding the lock of a game, and written in order by the writer's own thread with blocking
+ * writes, so a client which does not read its messages stalls only its own writer instead of the table.
+ * A client falling behind by more than the write limit is disconnected.
+ */
+final class BlockingWriter implements Runnable {
+
+    /**
+     * Marker queued after the last frame, ending the writer once the frames before it are written.
+     */
+    private static final ByteBuffer[] END = new ByteBuffer[0];
+
+    /**
+     * The server the connection belongs to.
+     */
+    private final PokerServer server;
+
+    /**
+     * The player's socket channel.
+     */
+    private final SocketChannel channel;
+
+    /**
+     * Frames waiting to be written, each made of its parts in order.
+     */
+    private final BlockingQueue<ByteBuffer[]> frames = new LinkedBlockingQueue<>();
+
+    /**
+     * Number of queued bytes not written yet.
+     */
+    private final AtomicLong queuedBytes = new AtomicLong();
+
+    /**
+     * Indicates if no more frames are accepted.
+     */
+    private volatile boolean closed;
+
+    /**
+     * Constructs the writer of a connection.
+     *
+     * @param server  the server the connection belongs to.
+     * @param channel the player's socket channel, in the blocking mode.
+     */
+    BlockingWriter(PokerServer server, SocketChannel channel) {
+        this.server = server;
+        this.channel = channel;
+    }
+
+    /**
+     * Queues a frame to be written by the writer's thread. May be called from any thread.
+     *
+     * @param frame the parts of the frame to be written, in order; parts may share their content.
+     */
+    void send(ByteBuffer... frame) {
+        if (closed) {
+            return;
+        }
+        if (queuedBytes.addAndGet(remaining(frame)) > server.getWriteLimit()) {
+            System.out.println("Gracz nie odbiera wiadomości i został rozłączony");
+            closed = true;
+            frames.clear();
+            frames.add(END);
+            closeChannel();
+            return;
+        }
+        frames.add(frame);
+    }
+
+    /**
+     * Stops accepting frames; the channel is closed once the frames already queued are written.
+     */
+    void close() {
+        closed = true;
+        frames.add(END);
+    }
+
+    /**
+     * Writes the queued frames until the writer is closed or the connection fails.
+     */
+    @Override
+    public void run() {
+        try {
+            ByteBuffer[] frame;
+            while ((frame = frames.take()) != END) {
+                long size = remaining(frame);
+                while (remaining(frame) > 0) {
+                    channel.write(frame);
+                }
+                queuedBytes.addAndGet(-size);
+            }
+        } catch (IOException e) {
+            if (channel.isOpen()) {
+                System.err.println("Błąd połączenia: " + e.getMessage());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            closed = true;
+            closeChannel();
+        }
+    }
+
+    private void closeChannel() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            System.err.println("Błąd połączenia: " + e.getMessage());
+        }
+    }
+
+    private static long remaining(ByteBuffer[] frame) {
+        long remaining = 0;
+        for (ByteBuffer part : frame) {
+            remaining += part.remaining();
+        }
+        return remaining;
+    }
+}
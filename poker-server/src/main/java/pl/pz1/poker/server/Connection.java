@@ -0,0 +1,268 @@
+package pl.pz1.poker.server;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+
+/**
+ * State of a connection handled by a reactor: the reader of incoming moves and the queue
+ * of outgoing frames. Frames are queued from any thread but written only by the reactor, with one
+ * gathering write per loop iteration; bytes the socket cannot take are kept and written when
+ * the channel becomes writable again, so a slow client never blocks the reactor.
+ * While more than the high watermark of bytes is queued the client's messages are not read,
+ * until the queue drains below the low watermark; a client falling behind by more than
+ * the write limit is disconnected. While a move is processed by the reactor owning its table,
+ * the client's following moves wait for it, so they see the state it has left.
+ */
+final class Connection {
+
+    /**
+     * Largest number of buffers written by one gathering write.
+     */
+    private static final int MAX_GATHER = 64;
+
+    /**
+     * The server the connection belongs to.
+     */
+    private final PokerServer server;
+
+    /**
+     * The player's socket channel.
+     */
+    private final SocketChannel channel;
+
+    /**
+     * The reactor handling the connection.
+     */
+    private final Reactor reactor;
+
+    /**
+     * The selection key of the channel in the selector of the reactor.
+     */
+    private final SelectionKey key;
+
+    /**
+     * The reader splitting incoming bytes into moves.
+     */
+    private final MessageReader reader = new MessageReader();
+
+    /**
+     * Parts of frames waiting to be written, the first one possibly written in part.
+     */
+    private final Deque<ByteBuffer> outbound = new ArrayDeque<>();
+
+    /**
+     * Buffers passed to one gathering write, reused between writes.
+     */
+    private final ByteBuffer[] gather = new ByteBuffer[MAX_GATHER];
+
+    /**
+     * Number of queued bytes not written yet.
+     */
+    private long queuedBytes;
+
+    /**
+     * Indicates if the connection is waiting for its flush at the end of the loop iteration.
+     */
+    private boolean flushScheduled;
+
+    /**
+     * Indicates if messages of the client are not read until the queue drains.
+     */
+    private boolean readPaused;
+
+    /**
+     * Indicates if a move of the client is processed by another reactor; the following moves
+     * are not dispatched until it has been processed.
+     */
+    private boolean handingOff;
+
+    /**
+     * Constructs the state of a connection registered with a reactor.
+     *
+     * @param server  the server the connection belongs to.
+     * @param channel the player's socket channel.
+     * @param reactor the reactor handling the connection.
+     * @param key     the selection key of the channel.
+     */
+    Connection(PokerServer server, SocketChannel channel, Reactor reactor, SelectionKey key) {
+        this.server = server;
+        this.channel = channel;
+        this.reactor = reactor;
+        this.key = key;
+    }
+
+    /**
+     * Gets the player's socket channel.
+     *
+     * @return the channel.
+     */
+    SocketChannel getChannel() {
+        return channel;
+    }
+
+    /**
+     * Gets the reader of incoming moves.
+     *
+     * @return the reader.
+     */
+    MessageReader getReader() {
+        return reader;
+    }
+
+    /**
+     * Gets the number of queued bytes not written yet.
+     *
+     * @return the number of bytes.
+     */
+    long getQueuedBytes() {
+        return queuedBytes;
+    }
+
+    /**
+     * Tells whether messages of the client are not read until the queue drains.
+     *
+     * @return true if reading is paused.
+     */
+    boolean isReadPaused() {
+        return readPaused;
+    }
+
+    /**
+     * Tells whether a move of the client is processed by another reactor.
+     *
+     * @return true if the following moves wait for the move handed over.
+     */
+    boolean isHandingOff() {
+        return handingOff;
+    }
+
+    /**
+     * Marks a move of the client as handed over to another reactor; the client's messages are
+     * not read until the move has been processed. Must be called from the reactor thread.
+     */
+    void startHandOff() {
+        handingOff = true;
+        updateInterest();
+    }
+
+    /**
+     * Ends the hand-off of a move once it has been processed, and dispatches the moves waiting
+     * behind it on the reactor of the connection. May be called from any thread; the reactor
+     * sees everything done by the move, as the task runs after it.
+     */
+    void finishHandOff() {
+        reactor.execute(() -> {
+            handingOff = false;
+            if (!channel.isOpen()) {
+                return;
+            }
+            updateInterest();
+            try {
+                server.dispatchReceived(this);
+            } catch (IOException e) {
+                System.err.println("Błąd połączenia: " + e.getMessage());
+                server.disconnect(channel);
+            } catch (RuntimeException e) {
+                System.err.println("Błąd przetwarzania ruchu: " + e);
+                server.disconnect(channel);
+            }
+        });
+    }
+
+    /**
+     * Queues a frame to be written by the reactor. May be called from any thread.
+     *
+     * @param frame the parts of the frame to be written, in order; parts may share their content.
+     */
+    void send(ByteBuffer... frame) {
+        reactor.execute(() -> enqueue(frame));
+    }
+
+    /**
+     * Adds the parts of a frame to the queue and schedules the flush, disconnecting the client
+     * if it has fallen behind by more than the write limit.
+     */
+    private void enqueue(ByteBuffer[] frame) {
+        if (!channel.isOpen()) {
+            return;
+        }
+        for (ByteBuffer part : frame) {
+            outbound.add(part);
+            queuedBytes += part.remaining();
+        }
+        if (queuedBytes > server.getWriteLimit()) {
+            System.out.println("Gracz nie odbiera wiadomości i został rozłączony");
+            outbound.clear();
+            queuedBytes = 0;
+            server.disconnect(channel);
+            return;
+        }
+        if (!flushScheduled) {
+            flushScheduled = true;
+            reactor.scheduleFlush(this);
+        }
+    }
+
+    /**
+     * Writes as many queued frames as the socket takes, using gathering writes, and updates
+     * the interest of the key: writability while frames remain, readability unless paused.
+     *
+     * @throws IOException if an I/O error occurs during the operation.
+     */
+    void flush() throws IOException {
+        flushScheduled = false;
+        if (!channel.isOpen()) {
+            return;
+        }
+        while (!outbound.isEmpty()) {
+            long requested = 0;
+            long written;
+            if (outbound.size() == 1) {
+                ByteBuffer frame = outbound.peek();
+                requested = frame.remaining();
+                written = channel.write(frame);
+            } else {
+                int count = 0;
+                for (ByteBuffer frame : outbound) {
+                    if (count == MAX_GATHER) {
+                        break;
+                    }
+                    gather[count++] = frame;
+                    requested += frame.remaining();
+                }
+                written = channel.write(gather, 0, count);
+                Arrays.fill(gather, 0, count, null);
+            }
+            queuedBytes -= written;
+            while (!outbound.isEmpty() && !outbound.peek().hasRemaining()) {
+                outbound.poll();
+            }
+            if (written < requested) {
+                break;
+            }
+        }
+
+        if (queuedBytes > server.getHighWatermark()) {
+            readPaused = true;
+        } else if (queuedBytes <= server.getLowWatermark()) {
+            readPaused = false;
+        }
+        updateInterest();
+    }
+
+    /**
+     * Updates the interest of the key: writability while frames remain, readability unless paused
+     * or waiting for a move handed over.
+     */
+    private void updateInterest() {
+        if (key.isValid()) {
+            key.interestOps((readPaused || handingOff ? 0 : SelectionKey.OP_READ)
+                    | (outbound.isEmpty() ? 0 : SelectionKey.OP_WRITE));
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package pl.pz1.poker.server;
+
+import pl.pz1.poker.gameplay.Card;
+import pl.pz1.poker.util.parser.BinaryMove;
+import pl.pz1.poker.util.parser.BinaryMoveCodec;
+import pl.pz1.poker.util.parser.FrameCodec;
+import pl.pz1.poker.util.parser.ServerMoveParser;
+
+import java.io.IOException;
+import java.net.ProtocolException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * Reads the moves of one connection in the protocol chosen by the client. The bytes of the first read
+ * select the protocol: the handshake byte of the binary protocol ({@link BinaryMoveCodec}), or
+ * the beginning of a text frame ({@link FrameCodec}); later reads go straight to the chosen codec.
+ * Moves of the text protocol are parsed into key-value pairs, moves of the binary protocol are decoded
+ * into {@link BinaryMove} records, which skip the text form altogether.
+ */
+final class MessageReader {
+
+    /**
+     * Size of the buffer of the first read of a connection.
+     */
+    private static final int FIRST_READ_SIZE = 1024;
+
+    /**
+     * The parser of the moves of the text protocol.
+     */
+    private static final ServerMoveParser TEXT_PARSER = new ServerMoveParser();
+
+    /**
+     * The codec of the text protocol, null if the client has chosen the binary protocol.
+     */
+    private FrameCodec textCodec;
+
+    /**
+     * The codec of the binary protocol, null if the client has chosen the text protocol.
+     */
+    private BinaryMoveCodec binaryCodec;
+
+    /**
+     * Reads the bytes available in a channel, choosing the protocol on the first bytes received.
+     *
+     * @param channel the channel of the connection.
+     * @return the number of bytes read, or -1 if the connection has been closed.
+     * @throws IOException if an I/O error occurs during the operation.
+     */
+    int read(ReadableByteChannel channel) throws IOException {
+        if (textCodec != null) {
+            return textCodec.read(channel);
+        }
+        if (binaryCodec != null) {
+            return binaryCodec.read(channel);
+        }
+        ByteBuffer first = ByteBuffer.allocate(FIRST_READ_SIZE);
+        int read = channel.read(first);
+        if (read <= 0) {
+            return read;
+        }
+        first.flip();
+        if (first.get(0) == BinaryMoveCodec.HANDSHAKE) {
+            binaryCodec = new BinaryMoveCodec(Card.DECK_SIZE);
+            binaryCodec.offer(first.position(1));
+        } else {
+            textCodec = new FrameCodec();
+            textCodec.offer(first);
+        }
+        return read;
+    }
+
+    /**
+     * Decodes the next complete move received.
+     *
+     * @return the move, or null if no complete move has been received yet.
+     * @throws ProtocolException if the move is malformed.
+     */
+    ReceivedMove next() throws ProtocolException {
+        if (binaryCodec != null) {
+            BinaryMove move = binaryCodec.next();
+            return move == null ? null : new ReceivedMove.Binary(move);
+        }
+        if (textCodec == null) {
+            return null;
+        }
+        String message = textCodec.next();
+        return message == null ? null : new ReceivedMove.Text(TEXT_PARSER.parse(message));
+    }
+}
@@ -7,16 +7,31 @@ import java.net.InetSocketAddress;
 import java.nio.ByteBuffer;
 import java.nio.channels.*;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import pl.pz1.poker.gameplay.*;
 import pl.pz1.poker.moves.Exit;
+import pl.pz1.poker.util.parser.FrameCodec;
 import pl.pz1.poker.util.parser.Moves;
 import pl.pz1.poker.util.parser.ServerMoveParser;
-import pl.pz1.poker.util.parser.Token;
 
 
 /**
  * The PokerServer class is responsible for handling a poker game server.
  * It manages player connections, game rounds, and processes player moves.
+ * Many tables are hosted at once on a single selector: every table is registered by its game ID,
+ * moves of seated players are routed to their table and players in the lobby choose a table
+ * with the game ID of their message.
+ * Connections are accepted on the main thread and spread across reactor threads, each with its own
+ * selector. A table is owned by the reactor of the player who created it and its moves are processed
+ * only on that reactor, so games are played without locks; messages addressed to a table of another
+ * reactor are handed over to it.
+ * In the blocking mode every connection is served by its own thread with blocking reads instead,
+ * and the moves of a table are serialized by the lock of its game; frames are written by a separate
+ * writer thread of every connection, so no socket is written while the lock of a game is held.
+ * Whenever a move changes the round, the turn or the highest bet of a table, its new state is pushed
+ * to all of its players.
  */
 public class PokerServer {
 
@@ -25,13 +40,25 @@ public class PokerServer {
      */
     private final int port;
 
+    /**
+     * Length of the queue of connections waiting to be accepted, large enough
+     * for bursts of clients connecting at once.
+     */
+    private static final int BACKLOG = 1024;
+
+    /**
+     * Maximum number of tables listed by the STATUS of the lobby, keeping the response well
+     * below the frame size limit however many tables are open.
+     */
+    static final int LOBBY_TABLES = 50;
+
     /**
      * The server socket channel used for accepting incoming connections.
      */
     private ServerSocketChannel serverSocketChannel;
 
     /**
-     * The selector for handling multiple channels in a non-blocking manner.
+     * The selector of the acceptor, handling incoming connections.
      */
     private Selector selector;
 
@@ -41,9 +68,9 @@ public class PokerServer {
     final Map<SocketChannel, Player> players;
 
     /**
-     * The current game instance being played on the server.
+     * The tables hosted by the server, keyed by game ID.
      */
-    private Game game;
+    private final TableRegistry tables = new TableRegistry();
 
     /**
      * The parser used to interpret player moves.
@@ -56,162 +83,443 @@ public class PokerServer {
     private final Exit exit = new Exit();
 
     /**
-     * Counter to track the number of rounds played.
+     * Indicates if a player has been accepted before.
      */
-    private int roundCounter = 0;
+    private volatile boolean hasAcceptedSomebodyBefore = false;
 
     /**
-     * Indicates if a player has been accepted before.
+     * Indicates if the acceptor is still running.
      */
-    private boolean hasAcceptedSomebodyBefore = false;
+    private volatile boolean running;
 
     /**
-     * Constructs a PokerServer with the specified port.
+     * Name of the system property holding the number of reactor threads.
+     */
+    public static final String REACTORS_PROPERTY = "poker.reactors";
+
+    /**
+     * The reactor threads handling the connections.
+     */
+    private final Reactor[] reactors;
+
+    /**
+     * Index of the reactor the next connection is assigned to.
+     */
+    private int nextReactor;
+
+    /**
+     * The reactors owning the tables, keyed by game ID.
+     */
+    private final Map<Integer, Reactor> tableOwners = new ConcurrentHashMap<>();
+
+    /**
+     * The connections handled by the reactors, keyed by their channels.
+     */
+    private final Map<SocketChannel, Connection> connections = new ConcurrentHashMap<>();
+
+    /**
+     * Name of the system property holding the number of queued bytes above which a client's
+     * messages are not read until its queue drains.
+     */
+    public static final String WRITE_HIGH_WATERMARK_PROPERTY = "poker.write.high";
+
+    /**
+     * Name of the system property holding the number of queued bytes below which reading resumes.
+     */
+    public static final String WRITE_LOW_WATERMARK_PROPERTY = "poker.write.low";
+
+    /**
+     * Name of the system property holding the number of queued bytes above which a client is disconnected.
+     */
+    public static final String WRITE_LIMIT_PROPERTY = "poker.write.limit";
+
+    /**
+     * Number of queued bytes above which a client's messages are not read.
+     */
+    private int writeHighWatermark = Integer.getInteger(WRITE_HIGH_WATERMARK_PROPERTY, 64 * 1024);
+
+    /**
+     * Number of queued bytes below which reading resumes.
+     */
+    private int writeLowWatermark = Integer.getInteger(WRITE_LOW_WATERMARK_PROPERTY, 16 * 1024);
+
+    /**
+     * Number of queued bytes above which a client is disconnected.
+     */
+    private int writeLimit = Integer.getInteger(WRITE_LIMIT_PROPERTY, 1024 * 1024);
+
+    /**
+     * Name of the system property enabling the blocking thread-per-connection mode.
+     */
+    public static final String BLOCKING_PROPERTY = "poker.blocking";
+
+    /**
+     * Indicates if every connection is served by its own thread instead of the reactors.
+     */
+    private final boolean blocking;
+
+    /**
+     * The threads serving connections in the blocking mode.
+     */
+    private ExecutorService connectionThreads;
+
+    /**
+     * The writers of the connections served in the blocking mode, keyed by their channels.
+     */
+    private final Map<SocketChannel, BlockingWriter> writers = new ConcurrentHashMap<>();
+
+    /**
+     * Name of the system property enabling decks shuffled in advance with SecureRandom.
+     */
+    public static final String SECURE_DECK_PROPERTY = "poker.deck.secure";
+
+    /**
+     * Buffer of decks shuffled with SecureRandom, or null if tables shuffle their own decks.
+     */
+    private final ShuffledDeckBuffer deckBuffer;
+
+    /**
+     * Name of the system property holding the master seed of the server.
+     */
+    public static final String SEED_PROPERTY = "poker.seed";
+
+    /**
+     * Master random stream the seeds of all games are drawn from.
+     */
+    private final SplittableRandom seeds;
+
+    /**
+     * Seed of the master random stream.
+     */
+    private final long masterSeed;
+
+    /**
+     * Constructs a PokerServer with the specified port. The number of reactor threads is read
+     * from the {@value #REACTORS_PROPERTY} system property and defaults to the number of processors.
      *
      * @param port the port number on which the server will listen for connections.
      */
     public PokerServer(int port) {
+        this(port, Integer.getInteger(REACTORS_PROPERTY, Runtime.getRuntime().availableProcessors()));
+    }
+
+    /**
+     * Constructs a PokerServer with the specified port and number of reactor threads.
+     * The blocking mode is enabled by the {@value #BLOCKING_PROPERTY} system property.
+     *
+     * @param port         the port number on which the server will listen for connections.
+     * @param reactorCount the number of reactor threads.
+     */
+    public PokerServer(int port, int reactorCount) {
+        this(port, reactorCount, Boolean.getBoolean(BLOCKING_PROPERTY));
+    }
+
+    /**
+     * Constructs a PokerServer with the specified port, number of reactor threads and mode.
+     *
+     * @param port         the port number on which the server will listen for connections.
+     * @param reactorCount the number of reactor threads, unused in the blocking mode.
+     * @param blocking     true if every connection should be served by its own thread.
+     */
+    public PokerServer(int port, int reactorCount, boolean blocking) {
+        if (reactorCount < 1) {
+            throw new IllegalArgumentException("Reactor count must be positive");
+        }
         this.port = port;
-        this.players = new HashMap<>();
+        this.blocking = blocking;
+        this.players = new ConcurrentHashMap<>();
+        this.reactors = new Reactor[reactorCount];
+        for (int i = 0; i < reactorCount; i++) {
+            reactors[i] = new Reactor(this, "reactor-" + i);
+        }
+        this.masterSeed = Long.getLong(SEED_PROPERTY, new SplittableRandom().nextLong());
+        this.seeds = new SplittableRandom(masterSeed);
+        this.deckBuffer = Boolean.getBoolean(SECURE_DECK_PROPERTY)
+                ? new ShuffledDeckBuffer(ShuffledDeckBuffer.DEFAULT_CAPACITY).start() : null;
     }
 
     /**
-     * Starts the poker server and initializes the game loop.
+     * Starts the poker server: the reactor threads and the acceptor loop, which runs until
+     * every player has left.
      */
     public void start() {
+        if (blocking) {
+            startBlocking();
+            return;
+        }
         try {
             serverSocketChannel = ServerSocketChannel.open();
-            serverSocketChannel.bind(new InetSocketAddress(port));
+            serverSocketChannel.bind(new InetSocketAddress(port), BACKLOG);
             serverSocketChannel.configureBlocking(false);
 
             selector = Selector.open();
             serverSocketChannel.register(selector, SelectionKey.OP_ACCEPT);
 
+            running = true;
+            for (Reactor reactor : reactors) {
+                reactor.start();
+            }
+
             System.out.println("Serwer rozpoczął pracę na porcie: " + port);
+            System.out.println("Ziarno serwera: " + masterSeed);
+            System.out.println("Liczba reaktorów: " + reactors.length);
             System.out.println();
 
-            boolean gameEndChecker = false;
-
-            while (true) {
-                this.roundCounter++;
-                this.game = new Game();
-
-                while (game.getRound() <= 1) {
-                    selector.select();
-                    Set<SelectionKey> keys = selector.selectedKeys();
-                    Iterator<SelectionKey> iterator = keys.iterator();
+            while (running) {
+                selector.select();
+                Iterator<SelectionKey> iterator = selector.selectedKeys().iterator();
 
-                    while (iterator.hasNext()) {
-                        SelectionKey key = iterator.next();
-                        iterator.remove();
+                while (iterator.hasNext()) {
+                    SelectionKey key = iterator.next();
+                    iterator.remove();
 
-                        if (key.isAcceptable()) {
-                            handleAccept();
-                        } else if (key.isReadable()) {
-                            handleRead(key);
-                        }
-
-                        if (players.isEmpty() && (roundCounter > 1 || hasAcceptedSomebodyBefore)) {
-                            gameEndChecker = true;
-                            break;
-                        }
+                    if (running && key.isAcceptable()) {
+                        handleAccept();
                     }
-
-                    if (gameEndChecker) {
-                        break;
-                    }
-                }
-
-                if (gameEndChecker) {
-                    break;
                 }
+            }
+        } catch (IOException e) {
+            System.err.println("Błąd serwera: " + e.getMessage());
+        } finally {
+            close();
+        }
+    }
 
-                while (game.getRound() < 5) {
-                    selector.select();
-                    Set<SelectionKey> keys = selector.selectedKeys();
-                    Iterator<SelectionKey> iterator = keys.iterator();
-
-                    while (iterator.hasNext()) {
-                        SelectionKey key = iterator.next();
-                        iterator.remove();
+    /**
+     * Starts the poker server in the blocking mode: connections are accepted on the calling thread
+     * and each of them is served by its own thread, until every player has left.
+     */
+    private void startBlocking() {
+        try {
+            serverSocketChannel = ServerSocketChannel.open();
+            serverSocketChannel.bind(new InetSocketAddress(port), BACKLOG);
+            connectionThreads = newConnectionThreads();
+            running = true;
 
-                        if (key.isAcceptable()) {
-                            handleAccept();
-                        } else if (key.isReadable()) {
-                            handleRead(key);
-                        }
-                    }
-                }
+            System.out.println("Serwer rozpoczął pracę na porcie: " + port);
+            System.out.println("Ziarno serwera: " + masterSeed);
+            System.out.println("Tryb blokujący: wątek na połączenie");
+            System.out.println();
 
-                while (!game.hasAllCheckedResults()) {
-                    selector.select();
-                    Set<SelectionKey> keys = selector.selectedKeys();
-                    Iterator<SelectionKey> iterator = keys.iterator();
+            while (running) {
+                SocketChannel clientChannel = serverSocketChannel.accept();
+                players.put(clientChannel, new Player(clientChannel));
+                hasAcceptedSomebodyBefore = true;
+                BlockingWriter writer = new BlockingWriter(this, clientChannel);
+                writers.put(clientChannel, writer);
+                connectionThreads.execute(writer);
+                connectionThreads.execute(() -> serve(clientChannel));
+            }
+        } catch (AsynchronousCloseException e) {
+            // The server has been stopped after every player has left.
+        } catch (IOException e) {
+            System.err.println("Błąd serwera: " + e.getMessage());
+        } finally {
+            close();
+        }
+    }
 
-                    while (iterator.hasNext()) {
-                        SelectionKey key = iterator.next();
-                        iterator.remove();
+    /**
+     * Creates the executor running one thread per connection: a virtual thread if the runtime
+     * supports them, otherwise a platform thread.
+     *
+     * @return the executor of the connection threads.
+     */
+    static ExecutorService newConnectionThreads() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool();
+        }
+    }
 
-                        if (key.isAcceptable()) {
-                            handleAccept();
-                        } else if (key.isReadable()) {
-                            handleRead(key);
-                        }
-                    }
+    /**
+     * Serves a connection in the blocking mode: greets the player and handles their messages
+     * until the connection is closed.
+     *
+     * @param clientChannel the player's socket channel.
+     */
+    void serve(SocketChannel clientChannel) {
+        try {
+            Player player = players.get(clientChannel);
+            System.out.println("Nowy gracz został połączony: " + clientChannel.getRemoteAddress());
+            player.updateAvailableMoves(lobbyMoves());
+            sendMessage(clientChannel, "Możliwe ruchy: " + player.getAvailableMoves());
+
+            MessageReader reader = new MessageReader();
+            while (players.containsKey(clientChannel) && reader.read(clientChannel) != -1) {
+                ReceivedMove move;
+                while ((move = reader.next()) != null) {
+                    dispatch(clientChannel, move);
                 }
-
-                game.endGame(new ArrayList<>(players.values()));
             }
+        } catch (ClosedChannelException e) {
+            // The channel has been closed by its writer, as the client has fallen behind.
         } catch (IOException e) {
-            System.err.println("Błąd serwera: " + e.getMessage());
+            System.err.println("Błąd połączenia: " + e.getMessage());
+        } catch (RuntimeException e) {
+            System.err.println("Błąd przetwarzania ruchu: " + e);
         } finally {
-            close();
+            disconnect(clientChannel);
+            if (isDrained()) {
+                stop();
+            }
+        }
+    }
+
+    /**
+     * Stops the acceptor and the threads serving connections.
+     */
+    void stop() {
+        running = false;
+        for (Reactor reactor : reactors) {
+            reactor.stop();
+        }
+        if (selector != null) {
+            selector.wakeup();
+        }
+        if (blocking && serverSocketChannel != null) {
+            // Closing the channel releases the acceptor blocked in accept().
+            try {
+                serverSocketChannel.close();
+            } catch (IOException e) {
+                System.err.println("Error closing server: " + e.getMessage());
+            }
         }
     }
 
     /**
-     * Handles a new player connection.
+     * Tells whether every player has left the server.
+     *
+     * @return true if players have connected and all of them have left.
+     */
+    boolean isDrained() {
+        return players.isEmpty() && hasAcceptedSomebodyBefore;
+    }
+
+    /**
+     * Handles a new player connection and assigns it to the next reactor in turn.
      *
      * @throws IOException if an I/O error occurs during the operation.
      */
     protected void handleAccept() throws IOException {
         SocketChannel clientChannel = serverSocketChannel.accept();
         clientChannel.configureBlocking(false);
-        clientChannel.register(selector, SelectionKey.OP_READ);
 
         Player player = new Player(clientChannel);
         players.put(clientChannel, player);
 
         System.out.println("Nowy gracz został połączony: " + clientChannel.getRemoteAddress());
         hasAcceptedSomebodyBefore = true;
-        if (game != null && game.getRound() > 0) {
-            List<String> moves = new ArrayList<>(Arrays.asList(Moves.JOIN.getName(), Moves.STATUS.getName(), Moves.EXIT.getName()));
-            player.updateAvailableMoves(moves);
-        }
+        player.updateAvailableMoves(lobbyMoves());
+
+        Reactor reactor = reactors[nextReactor];
+        nextReactor = (nextReactor + 1) % reactors.length;
+        connections.put(clientChannel, reactor.register(clientChannel));
         sendMessage(clientChannel, "Możliwe ruchy: " + player.getAvailableMoves());
     }
 
     /**
-     * Handles incoming messages from a player.
+     * Handles incoming messages from a player. The bytes read are added to the reader
+     * of the connection attached to the key, and every move completed by them is dispatched
+     * in order; an incomplete move waits in the reader for the next read.
      *
      * @param key the selection key representing the player connection.
-     * @throws IOException if an I/O error occurs during the operation.
+     * @throws IOException if an I/O error occurs during the operation or a frame is malformed.
      */
     protected void handleRead(SelectionKey key) throws IOException {
         SocketChannel clientChannel = (SocketChannel) key.channel();
-        ByteBuffer buffer = ByteBuffer.allocate(1024);
-        int bytesRead = clientChannel.read(buffer);
+        Connection connection = (Connection) key.attachment();
+        MessageReader reader = connection.getReader();
 
-        if (bytesRead == -1) {
-            players.remove(clientChannel);
-            clientChannel.close();
-            System.out.println("Gracz został rozłączony");
+        if (reader.read(clientChannel) == -1) {
+            disconnect(clientChannel);
             return;
         }
+        dispatchReceived(connection);
+    }
 
-        String message = new String(buffer.array(), 0, bytesRead).trim();
-        String response = processMessage(clientChannel, message);
-        sendMessage(clientChannel, response);
+    /**
+     * Dispatches the moves completed in the reader of a connection, in order. Once a move is handed
+     * over to the reactor owning its table, the following moves wait in the reader until it has been
+     * processed, so they are routed by the state it leaves.
+     *
+     * @param connection the connection of the player.
+     * @throws IOException if a frame is malformed.
+     */
+    void dispatchReceived(Connection connection) throws IOException {
+        MessageReader reader = connection.getReader();
+        ReceivedMove move;
+        while (!connection.isHandingOff() && (move = reader.next()) != null) {
+            dispatch(connection.getChannel(), move);
+        }
+    }
+
+    /**
+     * Removes a player whose connection has been closed or has failed.
+     *
+     * @param clientChannel the player's socket channel.
+     */
+    void disconnect(SocketChannel clientChannel) {
+        players.remove(clientChannel);
+        connections.remove(clientChannel);
+        BlockingWriter writer = writers.remove(clientChannel);
+        if (writer != null) {
+            // The writer closes the channel once the frames already queued are written.
+            writer.close();
+        } else {
+            try {
+                clientChannel.close();
+            } catch (IOException e) {
+                System.err.println("Błąd połączenia: " + e.getMessage());
+            }
+        }
+        System.out.println("Gracz został rozłączony");
+    }
+
+    /**
+     * Processes a message on the reactor owning the addressed table and sends the response.
+     * A message handed over to another reactor holds back the following messages of the player
+     * until it has been processed, as it may seat the player at the table.
+     * In the blocking mode the message is processed on the calling thread holding the lock of the game.
+     * Messages to no table are processed on the calling thread. The table is found once, so a JOIN
+     * without a game ID is processed at the table it has been handed over to.
+     *
+     * @param clientChannel the player's socket channel.
+     * @param move          the move received from the player.
+     */
+    void dispatch(SocketChannel clientChannel, ReceivedMove move) {
+        Player player = players.get(clientChannel);
+        Game game = player == null ? null : findTable(player, move);
+        if (game == null) {
+            respond(clientChannel, processMessage(clientChannel, move, null));
+            return;
+        }
+        if (blocking) {
+            String response;
+            synchronized (game) {
+                response = processMessage(clientChannel, move, game);
+            }
+            respond(clientChannel, response);
+            return;
+        }
+        Reactor owner = tableOwners.get(game.getGameID());
+        Connection connection = connections.get(clientChannel);
+        if (owner == null || owner.isCurrentThread() || connection == null) {
+            respond(clientChannel, processMessage(clientChannel, move, game));
+            return;
+        }
+        connection.startHandOff();
+        owner.execute(() -> {
+            try {
+                respond(clientChannel, processMessage(clientChannel, move, game));
+            } catch (RuntimeException e) {
+                System.err.println("Błąd przetwarzania ruchu: " + e);
+                disconnect(clientChannel);
+            } finally {
+                connection.finishHandOff();
+            }
+        });
     }
 
     /**
@@ -222,42 +530,316 @@ public class PokerServer {
      * @return the response to be sent to the player.
      */
     String processMessage(SocketChannel clientChannel, String message) {
+        ReceivedMove move = new ReceivedMove.Text(moveParser.parse(message));
         Player player = players.get(clientChannel);
-        Map<String, String> parsedMessage = moveParser.parse(message);
+        return processMessage(clientChannel, move, player == null ? null : findTable(player, move));
+    }
 
-        if (parsedMessage.get(Token.RODZAJ_RUCHU.getName()).equals(Moves.EXIT.getName()) && player.isMoveAvailable(Moves.EXIT.getName())) {
+    /**
+     * Processes a move from a player and generates an appropriate response.
+     * Moves of a table must be processed on the reactor owning it.
+     *
+     * @param clientChannel the player's socket channel.
+     * @param move          the move received from the player.
+     * @param game          the table the move is addressed to, or null if there is none.
+     * @return the response to be sent to the player.
+     */
+    private String processMessage(SocketChannel clientChannel, ReceivedMove move, Game game) {
+        Player player = players.get(clientChannel);
+        if (player == null) {
+            return "Brak gry do procesowania wiadomości!";
+        }
+        if (!move.isWellFormed()) {
+            return "Niepoprawny ruch!";
+        }
+        String moveName = move.name();
+        if (player.getPlayerID() == 0) {
+            player.updateAvailableMoves(lobbyMoves());
+        }
+
+        if (moveName.equals(Moves.EXIT.getName()) && player.isMoveAvailable(Moves.EXIT.getName())) {
             players.remove(clientChannel);
-            if (players.isEmpty() && this.roundCounter == 1) {
-                this.game = new Game();
+            String result = exit.execute(game, player, move.parameters());
+            if (game != null) {
+                tables.publish(game);
             }
-            return exit.execute(this.game, player, parsedMessage.get(Token.PARAMETRY_RUCHU.getName()));
+            return result;
         }
 
-        if (this.game == null) {
-            return "Brak gry do procesowania wiadomości!";
+        if (player.getPlayerID() == 0 && moveName.equals(Moves.NEW_GAME.getName())) {
+            Game created = newGame();
+            String result = move.processAt(created, player);
+            if (result.equals("Nowa gra została utworzona!")) {
+                Reactor owner = currentReactor();
+                if (owner != null) {
+                    tableOwners.put(created.getGameID(), owner);
+                }
+                tables.open(created);
+                result += " ID gry: " + created.getGameID();
+            }
+            return result;
         }
 
-        String result = game.processMove(player, parsedMessage);
-        if (result.equals("Nowa gra została utworzona!")) {
-            List<String> moves = new ArrayList<>(Arrays.asList(Moves.JOIN.getName(), Moves.STATUS.getName(), Moves.EXIT.getName()));
-            for (Player player_ : players.values()) {
-                player_.updateAvailableMoves(moves);
+        if (game == null) {
+            if (player.getPlayerID() == 0 && moveName.equals(Moves.STATUS.getName())) {
+                return lobbyStatus(player);
             }
+            return "Brak gry do procesowania wiadomości!";
+        }
+
+        String result = move.processAt(game, player);
+        tables.publish(game);
+        if (game.getRound() == 5 && game.hasAllCheckedResults()) {
+            game.endGame(new ArrayList<>(game.getPlayers()));
+            tables.close(game);
+            tableOwners.remove(game.getGameID());
         }
 
         return result;
     }
 
     /**
-     * Sends a message to a player.
+     * Finds the table a message is addressed to. Seated players always play at their own table;
+     * players in the lobby address a table with the game ID of the message, and a JOIN without
+     * a game ID joins the oldest table still accepting players.
+     *
+     * @param player the player sending the message.
+     * @param move   the move received from the player.
+     * @return the addressed table, or null if there is none.
+     */
+    private Game findTable(Player player, ReceivedMove move) {
+        if (player.getPlayerID() != 0) {
+            return tables.get(player.getGameID());
+        }
+        int gameID = move.gameID();
+        if (gameID != 0) {
+            return gameID < 0 ? null : tables.get(gameID);
+        }
+        return move.name().equals(Moves.JOIN.getName()) ? tables.findJoinable() : null;
+    }
+
+    /**
+     * Lists the moves available in the lobby: a new table can always be created,
+     * and tables can be joined while any of them accepts players. Tables are checked by their published
+     * summaries, so the moves can be listed on any reactor.
+     *
+     * @return the moves of players not seated at any table.
+     */
+    private List<String> lobbyMoves() {
+        List<String> moves = new ArrayList<>(List.of(Moves.NEW_GAME.getName()));
+        if (tables.findJoinable() != null) {
+            moves.add(Moves.JOIN.getName());
+        }
+        moves.add(Moves.STATUS.getName());
+        moves.add(Moves.EXIT.getName());
+        return moves;
+    }
+
+    /**
+     * Finds the reactor the caller runs on.
+     *
+     * @return the reactor, or null if called from another thread.
+     */
+    private Reactor currentReactor() {
+        for (Reactor reactor : reactors) {
+            if (reactor.isCurrentThread()) {
+                return reactor;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Runs a task on the reactor owning a table, or on the calling thread if the table has no owner.
+     *
+     * @param gameID the ID of the game played at the table.
+     * @param task   the task to be run.
+     */
+    private void execute(int gameID, Runnable task) {
+        Reactor owner = tableOwners.get(gameID);
+        if (owner == null) {
+            task.run();
+        } else {
+            owner.execute(task);
+        }
+    }
+
+    /**
+     * Describes the lobby: the moves of the player and the tables accepting players, as described
+     * by their published summaries, so the lobby can be described on any reactor. At most
+     * {@link #LOBBY_TABLES} tables are listed; the others are only counted.
+     *
+     * @param player the player in the lobby.
+     * @return the status of the lobby.
+     */
+    private String lobbyStatus(Player player) {
+        StringBuilder status = new StringBuilder("Możliwe ruchy: " + player.getAvailableMoves());
+        int listed = 0;
+        int omitted = 0;
+        for (TableRegistry.TableSummary table : tables.getSummaries()) {
+            if (!table.joinable()) {
+                continue;
+            }
+            if (listed == LOBBY_TABLES) {
+                omitted++;
+                continue;
+            }
+            status.append("\nStół o ID: ").append(table.gameID()).append(", gracze: ")
+                    .append(table.players()).append("/").append(table.seats())
+                    .append(", ante: ").append(table.ante()).append("zł");
+            listed++;
+        }
+        if (omitted > 0) {
+            status.append("\nPozostałe stoły przyjmujące graczy: ").append(omitted);
+        }
+        return status.toString();
+    }
+
+    /**
+     * Creates a game whose pushed messages are sent to the players by the reactor owning its table.
+     * The seed of its deck is drawn from the master stream of the server and logged.
+     *
+     * @return the created game.
+     */
+    Game newGame() {
+        long seed;
+        synchronized (seeds) {
+            seed = seeds.nextLong();
+        }
+        Game created = new Game(seed);
+        if (deckBuffer != null) {
+            created.setDeck(new Deck(deckBuffer));
+        } else {
+            System.out.println("Ziarno talii nowej gry: " + created.getSeed());
+        }
+        created.setPushListener((player, message) -> execute(created.getGameID(), () -> sendPushed(player, message)));
+        created.setBroadcastListener(this::sendBroadcast);
+        return created;
+    }
+
+    /**
+     * Sends a change of the state of a table to its players still connected. The public part
+     * is wrapped once and shared by the frames of all players; only the length prefix and
+     * the private part are encoded per player.
+     *
+     * @param broadcast the state of the table.
+     */
+    private void sendBroadcast(StateBroadcast broadcast) {
+        ByteBuffer publicState = ByteBuffer.wrap(broadcast.getPublicState()).asReadOnlyBuffer();
+        for (Player player : broadcast.getRecipients()) {
+            SocketChannel clientChannel = player.getChannel();
+            if (clientChannel == null || !players.containsKey(clientChannel)) {
+                continue;
+            }
+            byte[] privateState = broadcast.getPrivateState(player);
+            ByteBuffer header = ByteBuffer.allocate(FrameCodec.HEADER_SIZE);
+            header.putInt(publicState.remaining() + privateState.length).flip();
+            try {
+                sendFrame(clientChannel, header, publicState.duplicate(), ByteBuffer.wrap(privateState));
+            } catch (IOException e) {
+                System.err.println("Błąd połączenia: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Sends a message pushed by a game to the player, if still connected.
+     *
+     * @param player  the player the message is addressed to.
+     * @param message the pushed message.
+     */
+    private void sendPushed(Player player, String message) {
+        SocketChannel clientChannel = player.getChannel();
+        if (clientChannel != null && players.get(clientChannel) == player) {
+            respond(clientChannel, message);
+        }
+    }
+
+    /**
+     * Sends a response to a player, reporting failed connections instead of throwing.
+     *
+     * @param clientChannel the player's socket channel.
+     * @param message        the message to be sent.
+     */
+    private void respond(SocketChannel clientChannel, String message) {
+        try {
+            sendMessage(clientChannel, message);
+        } catch (IOException e) {
+            System.err.println("Błąd połączenia: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Sends a message to a player as one frame. Connections of the reactors queue the frame
+     * to be written by their reactor, connections of the blocking mode by their writer.
      *
      * @param clientChannel the player's socket channel.
      * @param message        the message to be sent.
      * @throws IOException if an I/O error occurs during the operation.
      */
     protected void sendMessage(SocketChannel clientChannel, String message) throws IOException {
-        ByteBuffer buffer = ByteBuffer.wrap(message.getBytes());
-        clientChannel.write(buffer);
+        sendFrame(clientChannel, FrameCodec.encode(message));
+    }
+
+    /**
+     * Sends a frame made of parts, which may share their content with frames of other players.
+     *
+     * @param clientChannel the player's socket channel.
+     * @param frame         the parts of the frame, in order.
+     * @throws IOException if an I/O error occurs during the operation.
+     */
+    private void sendFrame(SocketChannel clientChannel, ByteBuffer... frame) throws IOException {
+        Connection connection = connections.get(clientChannel);
+        BlockingWriter writer;
+        if (connection != null) {
+            connection.send(frame);
+        } else if ((writer = writers.get(clientChannel)) != null) {
+            writer.send(frame);
+        } else if (frame.length == 1) {
+            clientChannel.write(frame[0]);
+        } else {
+            clientChannel.write(frame);
+        }
+    }
+
+    /**
+     * Sets the watermarks of the outbound queues of connections, primarily used for testing purposes.
+     *
+     * @param low   number of queued bytes below which reading resumes.
+     * @param high  number of queued bytes above which a client's messages are not read.
+     * @param limit number of queued bytes above which a client is disconnected.
+     */
+    void setWriteWatermarks(int low, int high, int limit) {
+        this.writeLowWatermark = low;
+        this.writeHighWatermark = high;
+        this.writeLimit = limit;
+    }
+
+    /**
+     * Gets the number of queued bytes below which reading resumes.
+     *
+     * @return the low watermark.
+     */
+    int getLowWatermark() {
+        return writeLowWatermark;
+    }
+
+    /**
+     * Gets the number of queued bytes above which a client's messages are not read.
+     *
+     * @return the high watermark.
+     */
+    int getHighWatermark() {
+        return writeHighWatermark;
+    }
+
+    /**
+     * Gets the number of queued bytes above which a client is disconnected.
+     *
+     * @return the write limit.
+     */
+    int getWriteLimit() {
+        return writeLimit;
     }
 
     /**
@@ -273,7 +855,17 @@ public class PokerServer {
      * Closes the server and releases resources.
      */
     public void close() {
+        stop();
+        if (deckBuffer != null) {
+            deckBuffer.close();
+        }
         try {
+            for (Reactor reactor : reactors) {
+                reactor.close();
+            }
+            if (connectionThreads != null) {
+                connectionThreads.shutdown();
+            }
             if (serverSocketChannel != null) {
                 serverSocketChannel.close();
             }
@@ -0,0 +1,247 @@
+package pl.pz1.poker.server;
+
+import java.io.IOException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * A reactor thread of the server with its own selector. Connections are assigned to a reactor
+ * by the acceptor and their messages are read only by it; tables opened by its players are owned
+ * by it, so every move of a table is processed by one thread. Work for the tables of a reactor
+ * is submitted from other threads as tasks run between two selections. Responses queued during
+ * an iteration of the loop are flushed together at its end.
+ */
+final class Reactor implements Runnable {
+
+    /**
+     * The server whose connections are handled.
+     */
+    private final PokerServer server;
+
+    /**
+     * Name of the reactor thread.
+     */
+    private final String name;
+
+    /**
+     * Tasks submitted by other threads, waiting to be run by the reactor thread.
+     */
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Connections with frames queued during the current iteration of the loop.
+     */
+    private final List<Connection> pendingFlushes = new ArrayList<>();
+
+    /**
+     * The selector of the connections assigned to the reactor.
+     */
+    private Selector selector;
+
+    /**
+     * The reactor thread.
+     */
+    private Thread thread;
+
+    /**
+     * Indicates if the reactor is still running.
+     */
+    private volatile boolean running;
+
+    /**
+     * Constructs a reactor of the server.
+     *
+     * @param server the server whose connections are handled.
+     * @param name   name of the reactor thread.
+     */
+    Reactor(PokerServer server, String name) {
+        this.server = server;
+        this.name = name;
+    }
+
+    /**
+     * Opens the selector and starts the reactor thread.
+     *
+     * @throws IOException if the selector cannot be opened.
+     */
+    void start() throws IOException {
+        selector = Selector.open();
+        running = true;
+        thread = new Thread(this, name);
+        thread.start();
+    }
+
+    /**
+     * Assigns a connection to the reactor. Registration does not wait for the running selection,
+     * which is woken up to include the new connection.
+     *
+     * @param clientChannel the player's socket channel.
+     * @return the state of the connection, attached to its selection key.
+     * @throws IOException if an I/O error occurs during the operation.
+     */
+    Connection register(SocketChannel clientChannel) throws IOException {
+        SelectionKey key = clientChannel.register(selector, SelectionKey.OP_READ);
+        Connection connection = new Connection(server, clientChannel, this, key);
+        key.attach(connection);
+        selector.wakeup();
+        return connection;
+    }
+
+    /**
+     * Schedules a connection to be flushed at the end of the current iteration of the loop.
+     * Must be called from the reactor thread.
+     *
+     * @param connection the connection with queued frames.
+     */
+    void scheduleFlush(Connection connection) {
+        pendingFlushes.add(connection);
+    }
+
+    /**
+     * Runs a task on the reactor thread, immediately if called from it.
+     *
+     * @param task the task to be run.
+     */
+    void execute(Runnable task) {
+        if (isCurrentThread() || !running) {
+            task.run();
+            return;
+        }
+        tasks.add(task);
+        selector.wakeup();
+    }
+
+    /**
+     * Tells whether the caller runs on the reactor thread.
+     *
+     * @return true if called from the reactor thread.
+     */
+    boolean isCurrentThread() {
+        return Thread.currentThread() == thread;
+    }
+
+    /**
+     * Selects ready connections and handles their messages until the reactor is stopped.
+     */
+    @Override
+    public void run() {
+        try {
+            while (running) {
+                selector.select();
+                runTasks();
+                Iterator<SelectionKey> iterator = selector.selectedKeys().iterator();
+                while (iterator.hasNext()) {
+                    SelectionKey key = iterator.next();
+                    iterator.remove();
+                    if (key.isValid() && key.isWritable()) {
+                        flush((Connection) key.attachment());
+                    }
+                    if (key.isValid() && key.isReadable()) {
+                        handleRead(key);
+                    }
+                }
+                flushPending();
+                if (server.isDrained()) {
+                    server.stop();
+                }
+            }
+            runTasks();
+            flushPending();
+        } catch (IOException e) {
+            System.err.println("Błąd serwera: " + e.getMessage());
+            server.stop();
+        }
+    }
+
+    /**
+     * Handles a message of a connection, disconnecting the player if the connection fails
+     * or their move cannot be processed; other connections of the reactor are not affected.
+     *
+     * @param key the selection key representing the player connection.
+     */
+    private void handleRead(SelectionKey key) {
+        try {
+            server.handleRead(key);
+        } catch (IOException e) {
+            System.err.println("Błąd połączenia: " + e.getMessage());
+            server.disconnect((SocketChannel) key.channel());
+        } catch (RuntimeException e) {
+            System.err.println("Błąd przetwarzania ruchu: " + e);
+            server.disconnect((SocketChannel) key.channel());
+        }
+    }
+
+    /**
+     * Flushes the connections with frames queued during the iteration of the loop.
+     */
+    private void flushPending() {
+        for (int i = 0; i < pendingFlushes.size(); i++) {
+            flush(pendingFlushes.get(i));
+        }
+        pendingFlushes.clear();
+    }
+
+    /**
+     * Writes the queued frames of a connection, disconnecting the player if the connection fails.
+     *
+     * @param connection the connection with queued frames.
+     */
+    private void flush(Connection connection) {
+        try {
+            connection.flush();
+        } catch (IOException e) {
+            System.err.println("Błąd połączenia: " + e.getMessage());
+            server.disconnect(connection.getChannel());
+        }
+    }
+
+    /**
+     * Runs the tasks submitted by other threads. A failing task is reported and does not stop
+     * the reactor.
+     */
+    private void runTasks() {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                System.err.println("Błąd serwera: " + e);
+            }
+        }
+    }
+
+    /**
+     * Stops the reactor thread.
+     */
+    void stop() {
+        running = false;
+        if (selector != null) {
+            selector.wakeup();
+        }
+    }
+
+    /**
+     * Waits for the reactor thread to finish and closes the selector.
+     *
+     * @throws IOException if the selector cannot be closed.
+     */
+    void close() throws IOException {
+        stop();
+        if (thread != null && !isCurrentThread()) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (selector != null) {
+            selector.close();
+        }
+    }
+}
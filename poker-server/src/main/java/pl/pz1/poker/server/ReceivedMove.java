@@ -0,0 +1,134 @@
+package pl.pz1.poker.server;
+
+import pl.pz1.poker.gameplay.Game;
+import pl.pz1.poker.gameplay.Player;
+import pl.pz1.poker.util.parser.BinaryMove;
+import pl.pz1.poker.util.parser.Token;
+
+import java.util.Map;
+
+/**
+ * A move received from a client in either protocol. The server routes both kinds the same way,
+ * while each of them is validated and executed by the game in its own form: the key-value pairs
+ * of the text protocol as text, the moves of the binary protocol as primitive fields.
+ */
+sealed interface ReceivedMove {
+
+    /**
+     * Gets the name of the move.
+     *
+     * @return the name, as sent by the client, or an empty string if it is missing.
+     */
+    String name();
+
+    /**
+     * Gets the game ID of the move.
+     *
+     * @return the game ID, or -1 if it is missing or not a number.
+     */
+    int gameID();
+
+    /**
+     * Tells whether the move carries everything the game needs to validate it.
+     *
+     * @return true if the move may be processed.
+     */
+    boolean isWellFormed();
+
+    /**
+     * Gets the parameters of the move in their text form, as used by the EXIT move.
+     *
+     * @return the parameters.
+     */
+    String parameters();
+
+    /**
+     * Validates and executes the move at a table.
+     *
+     * @param game   the game played at the table.
+     * @param player the player making the move.
+     * @return the result of the move execution.
+     */
+    String processAt(Game game, Player player);
+
+    /**
+     * A move of the text protocol, parsed into key-value pairs.
+     *
+     * @param message the key-value pairs of the move.
+     */
+    record Text(Map<String, String> message) implements ReceivedMove {
+
+        @Override
+        public String name() {
+            return message.getOrDefault(Token.RODZAJ_RUCHU.getName(), "");
+        }
+
+        @Override
+        public int gameID() {
+            String gameID = message.get(Token.ID_GRY.getName());
+            try {
+                return gameID == null ? -1 : Integer.parseInt(gameID.trim());
+            } catch (NumberFormatException e) {
+                return -1;
+            }
+        }
+
+        @Override
+        public boolean isWellFormed() {
+            if (!message.containsKey(Token.RODZAJ_RUCHU.getName())
+                    || !message.containsKey(Token.PARAMETRY_RUCHU.getName())) {
+                return false;
+            }
+            try {
+                Integer.parseInt(message.get(Token.ID_GRY.getName()));
+                Integer.parseInt(message.get(Token.ID_GRACZA.getName()));
+                return true;
+            } catch (NumberFormatException e) {
+                return false;
+            }
+        }
+
+        @Override
+        public String parameters() {
+            return message.get(Token.PARAMETRY_RUCHU.getName());
+        }
+
+        @Override
+        public String processAt(Game game, Player player) {
+            return game.processMove(player, message);
+        }
+    }
+
+    /**
+     * A move of the binary protocol.
+     *
+     * @param move the decoded move.
+     */
+    record Binary(BinaryMove move) implements ReceivedMove {
+
+        @Override
+        public String name() {
+            return move.type().getName();
+        }
+
+        @Override
+        public int gameID() {
+            return move.gameID();
+        }
+
+        @Override
+        public boolean isWellFormed() {
+            return true;
+        }
+
+        @Override
+        public String parameters() {
+            return "";
+        }
+
+        @Override
+        public String processAt(Game game, Player player) {
+            return game.processMove(player, move);
+        }
+    }
+}
@@ -12,8 +12,17 @@ import java.nio.ByteBuffer;
 import org.mockito.ArgumentCaptor;
 
 import pl.pz1.poker.gameplay.Player;
+import pl.pz1.poker.util.parser.BinaryMoveCodec;
 import pl.pz1.poker.util.parser.ClientMoveParser;
+import pl.pz1.poker.util.parser.FrameCodec;
+import pl.pz1.poker.util.parser.Moves;
 import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.nio.channels.ServerSocketChannel;
 
 
@@ -30,14 +39,17 @@ class Main1Test {
 
             // Mockowanie kanału do odczytu
             when(mockSelectionKey.channel()).thenReturn(mockClientChannel);
+            when(mockSelectionKey.attachment()).thenReturn(
+                    new Connection(server, mockClientChannel, new Reactor(server, "reactor-test"), mockSelectionKey));
 
             String mockMessage = clientMoveParser.parse("JOIN", 0, 0);
-            ByteBuffer buffer = ByteBuffer.wrap(mockMessage.getBytes());
+            ByteBuffer buffer = FrameCodec.encode(mockMessage);
 
             when(mockClientChannel.read(any(ByteBuffer.class))).thenAnswer(invocation -> {
                 ByteBuffer argBuffer = invocation.getArgument(0);
+                int length = buffer.remaining();
                 argBuffer.put(buffer);
-                return mockMessage.length();
+                return length;
             });
 
             // Wywołanie metody
@@ -47,6 +59,100 @@ class Main1Test {
             verify(mockClientChannel).read(any(ByteBuffer.class));
         }
 
+        @Test
+        void testHandleRead_PipelinedAndPartialFrames() throws IOException {
+            PokerServer server = new PokerServer(8080);
+            SocketChannel mockClientChannel = mock(SocketChannel.class);
+            SelectionKey mockKey = mock(SelectionKey.class);
+            ClientMoveParser clientMoveParser = new ClientMoveParser();
+            when(mockKey.channel()).thenReturn(mockClientChannel);
+            when(mockKey.attachment()).thenReturn(
+                    new Connection(server, mockClientChannel, new Reactor(server, "reactor-test"), mockKey));
+            server.players.put(mockClientChannel, new Player(mockClientChannel));
+
+            ByteBuffer stream = ByteBuffer.allocate(1024);
+            for (int i = 0; i < 3; i++) {
+                stream.put(FrameCodec.encode(clientMoveParser.parse("STATUS", 0, 0)));
+            }
+            stream.flip();
+            int[] chunks = {stream.limit() - 10, 10};
+            when(mockClientChannel.read(any(ByteBuffer.class))).thenAnswer(invocation -> {
+                ByteBuffer argBuffer = invocation.getArgument(0);
+                int length = chunks[0] != 0 ? chunks[0] : chunks[1];
+                argBuffer.put(stream.slice(stream.position(), length));
+                stream.position(stream.position() + length);
+                chunks[chunks[0] != 0 ? 0 : 1] = 0;
+                return length;
+            });
+
+            // Two whole frames and the beginning of the third one: two responses.
+            server.handleRead(mockKey);
+            verify(mockClientChannel, times(2)).write(any(ByteBuffer.class));
+
+            // The rest of the third frame completes it in the codec attached to the connection.
+            server.handleRead(mockKey);
+            verify(mockClientChannel, times(3)).write(any(ByteBuffer.class));
+        }
+
+        @Test
+        void testSlowClientIsPausedAndDisconnected() throws IOException {
+            PokerServer server = new PokerServer(8080, 1, false);
+            server.setWriteWatermarks(100, 200, 1000);
+            SocketChannel mockClientChannel = mock(SocketChannel.class);
+            SelectionKey mockKey = mock(SelectionKey.class);
+            when(mockClientChannel.isOpen()).thenReturn(true);
+            when(mockKey.isValid()).thenReturn(true);
+            server.players.put(mockClientChannel, new Player(mockClientChannel));
+            Connection connection = new Connection(server, mockClientChannel, new Reactor(server, "reactor-test"), mockKey);
+
+            // Bytes the socket takes before it is full again.
+            int[] socketSpace = {0};
+            when(mockClientChannel.write(any(ByteBuffer.class))).thenAnswer(invocation ->
+                    consume(invocation.getArgument(0), socketSpace));
+            when(mockClientChannel.write(any(ByteBuffer[].class), anyInt(), anyInt())).thenAnswer(invocation -> {
+                ByteBuffer[] frames = invocation.getArgument(0);
+                int offset = invocation.getArgument(1);
+                int length = invocation.getArgument(2);
+                long written = 0;
+                for (int i = offset; i < offset + length; i++) {
+                    written += consume(frames[i], socketSpace);
+                }
+                return written;
+            });
+
+            for (int i = 0; i < 3; i++) {
+                connection.send(FrameCodec.encode("x".repeat(100 - FrameCodec.HEADER_SIZE)));
+            }
+            connection.flush();
+            assertEquals(300, connection.getQueuedBytes());
+            assertTrue(connection.isReadPaused());
+            verify(mockKey).interestOps(SelectionKey.OP_WRITE);
+
+            socketSpace[0] = 150;
+            connection.flush();
+            assertEquals(150, connection.getQueuedBytes());
+            assertTrue(connection.isReadPaused());
+
+            socketSpace[0] = 1000;
+            connection.flush();
+            assertEquals(0, connection.getQueuedBytes());
+            assertFalse(connection.isReadPaused());
+            verify(mockKey).interestOps(SelectionKey.OP_READ);
+
+            for (int i = 0; i < 11; i++) {
+                connection.send(FrameCodec.encode("x".repeat(100 - FrameCodec.HEADER_SIZE)));
+            }
+            assertTrue(server.players.isEmpty());
+            verify(mockClientChannel).close();
+        }
+
+        private int consume(ByteBuffer frame, int[] socketSpace) {
+            int written = Math.min(frame.remaining(), socketSpace[0]);
+            frame.position(frame.position() + written);
+            socketSpace[0] -= written;
+            return written;
+        }
+
         @Test
         void testProcessingMessages() throws IOException {
             PokerServer server = new PokerServer(8080);
@@ -62,29 +168,24 @@ class Main1Test {
             verify(mockClientChannel).write(bufferCaptor.capture());
 
             ByteBuffer capturedBuffer = bufferCaptor.getValue();
-            String sentMessage = new String(capturedBuffer.array()).trim();
+            String sentMessage = new String(capturedBuffer.array(), FrameCodec.HEADER_SIZE, capturedBuffer.getInt(0),
+                    StandardCharsets.UTF_8);
 
             assertEquals(testMessage, sentMessage);
         }
 
         @Test
-        void testHandleAccept() throws IOException {
-            PokerServer server = new PokerServer(8080);
-            ServerSocketChannel mockServerSocketChannel = mock(ServerSocketChannel.class);
-            SocketChannel mockClientChannel = mock(SocketChannel.class);
-
-            // Mockowanie akceptacji klienta
-            when(mockServerSocketChannel.accept()).thenReturn(mockClientChannel);
-            when(mockClientChannel.getRemoteAddress()).thenReturn(new java.net.InetSocketAddress("localhost", 12345));
-
-            server.setServerSocketChannel(mockServerSocketChannel);
-
-            // Wywołanie
-            server.handleAccept();
-
-            // Weryfikacja
-            verify(mockClientChannel).configureBlocking(false);
-            verify(mockClientChannel).register(any(), eq(SelectionKey.OP_READ));
+        void testHandleAccept() throws Exception {
+            PokerServer server = new PokerServer(8097, 2, false);
+            ExecutorService executorService = Executors.newSingleThreadExecutor();
+            Future<?> running = executorService.submit(server::start);
+
+            // Akceptacja klienta: gracz zostaje przypisany do reaktora i otrzymuje możliwe ruchy
+            try (SocketChannel client = connect(8097)) {
+                assertEquals("Możliwe ruchy: [NEW_GAME, STATUS, EXIT]", receive(client, new FrameCodec()));
+            }
+            running.get(10, TimeUnit.SECONDS);
+            executorService.shutdownNow();
         }
 
         @Test
@@ -94,6 +195,8 @@ class Main1Test {
             SelectionKey mockKey = mock(SelectionKey.class);
 
             when(mockKey.channel()).thenReturn(mockClientChannel);
+            when(mockKey.attachment()).thenReturn(
+                    new Connection(server, mockClientChannel, new Reactor(server, "reactor-test"), mockKey));
             when(mockClientChannel.read(any(ByteBuffer.class))).thenReturn(-1); // Klient się rozłącza
 
             server.players.put(mockClientChannel, new Player(mockClientChannel));
@@ -106,6 +209,243 @@ class Main1Test {
         }
 
 
+        @Test
+        void testTablesProgressConcurrently() {
+            PokerServer server = new PokerServer(8080);
+            ClientMoveParser parser = new ClientMoveParser();
+            SocketChannel[] channels = new SocketChannel[4];
+            Player[] seated = new Player[4];
+            for (int i = 0; i < channels.length; i++) {
+                channels[i] = mock(SocketChannel.class);
+                seated[i] = new Player(channels[i]);
+                server.players.put(channels[i], seated[i]);
+            }
+
+            String first = server.processMessage(channels[0], parser.parse("NEW_GAME 2, 10", 0, 0));
+            String second = server.processMessage(channels[1], parser.parse("NEW_GAME 2, 20", 0, 0));
+            assertTrue(first.startsWith("Nowa gra została utworzona! ID gry: "));
+            int firstID = Integer.parseInt(first.substring(first.lastIndexOf(' ') + 1));
+            int secondID = Integer.parseInt(second.substring(second.lastIndexOf(' ') + 1));
+            assertNotEquals(firstID, secondID);
+
+            String lobby = server.processMessage(channels[2], parser.parse("STATUS", 0, 0));
+            assertTrue(seated[2].isMoveAvailable("JOIN"));
+            assertTrue(lobby.contains("Stół o ID: " + firstID + ", gracze: 0/2, ante: 10zł"));
+            assertTrue(lobby.contains("Stół o ID: " + secondID + ", gracze: 0/2, ante: 20zł"));
+
+            assertTrue(server.processMessage(channels[0], parser.parse("JOIN " + firstID, 0, 0)).startsWith("Dołączono do gry o ID: " + firstID));
+            assertTrue(server.processMessage(channels[1], parser.parse("JOIN " + secondID, 0, 0)).startsWith("Dołączono do gry o ID: " + secondID));
+            assertTrue(server.processMessage(channels[2], parser.parse("JOIN", 0, 0)).startsWith("Dołączono do gry o ID: " + firstID));
+            assertTrue(server.processMessage(channels[3], parser.parse("JOIN", 0, 0)).startsWith("Dołączono do gry o ID: " + secondID));
+            assertFalse(seated[3].isMoveAvailable("JOIN"));
+
+            for (Player player : seated) {
+                assertEquals(Player.HAND_SIZE, player.getHand().size());
+            }
+            assertEquals("Ruch wykonany prawidłowo!", server.processMessage(channels[0],
+                    parser.parse("RAISE 5", firstID, seated[0].getPlayerID())));
+            assertEquals("Ruch wykonany prawidłowo!", server.processMessage(channels[1],
+                    parser.parse("FOLD", secondID, seated[1].getPlayerID())));
+            assertEquals("Ruch wykonany został przez gracza o niepoprawnych danych ID!", server.processMessage(channels[2],
+                    parser.parse("CALL", secondID, seated[2].getPlayerID())));
+        }
+
+        @Test
+        void testMalformedMessagesAreRejected() {
+            PokerServer server = new PokerServer(8080);
+            SocketChannel channel = mock(SocketChannel.class);
+            Player player = new Player(channel);
+            server.players.put(channel, player);
+
+            assertEquals("Niepoprawny ruch!", server.processMessage(channel, "JOIN"));
+            assertEquals("Niepoprawny ruch!", server.processMessage(channel, "ID_GRACZA:0\nRODZAJ_RUCHU:JOIN\nPARAMETRY_RUCHU:"));
+            assertEquals("Niepoprawny ruch!", server.processMessage(channel, "ID_GRY:0\nID_GRACZA:x\nRODZAJ_RUCHU:STATUS\nPARAMETRY_RUCHU:"));
+            assertEquals("Niepoprawny ruch!", server.processMessage(channel, "ID_GRY:0\nID_GRACZA:0\nPARAMETRY_RUCHU:"));
+            assertEquals("Niepoprawny ruch!", server.processMessage(channel, "ID_GRY:0\nID_GRACZA:0\nRODZAJ_RUCHU:NEW_GAME"));
+            assertTrue(server.players.containsKey(channel));
+        }
+
+        @Test
+        void testLobbyStatusListsLimitedNumberOfTables() {
+            PokerServer server = new PokerServer(8080);
+            ClientMoveParser parser = new ClientMoveParser();
+            SocketChannel channel = mock(SocketChannel.class);
+            server.players.put(channel, new Player(channel));
+            for (int i = 0; i < PokerServer.LOBBY_TABLES + 10; i++) {
+                assertTrue(server.processMessage(channel, parser.parse("NEW_GAME 2, 10", 0, 0))
+                        .startsWith("Nowa gra została utworzona!"));
+            }
+
+            String lobby = server.processMessage(channel, parser.parse("STATUS", 0, 0));
+            assertEquals(PokerServer.LOBBY_TABLES, lobby.split("\nStół o ID: ").length - 1);
+            assertTrue(lobby.endsWith("\nPozostałe stoły przyjmujące graczy: 10"));
+        }
+
+        @Test
+        void testPlayersOfDifferentReactorsShareTable() throws Exception {
+            playSharedTable(new PokerServer(8091, 2, false), 8091);
+        }
+
+        @Test
+        void testPlayersOfBlockingModeShareTable() throws Exception {
+            playSharedTable(new PokerServer(8092, 1, true), 8092);
+        }
+
+        private void playSharedTable(PokerServer server, int port) throws Exception {
+            ExecutorService executorService = Executors.newSingleThreadExecutor();
+            Future<?> running = executorService.submit(server::start);
+            ClientMoveParser parser = new ClientMoveParser();
+
+            try (SocketChannel first = connect(port); SocketChannel second = connect(port)) {
+                FrameCodec firstCodec = new FrameCodec();
+                FrameCodec secondCodec = new FrameCodec();
+                assertTrue(receive(first, firstCodec).contains("NEW_GAME"));
+                assertTrue(receive(second, secondCodec).contains("NEW_GAME"));
+
+                first.write(FrameCodec.encode(parser.parse("NEW_GAME 2, 10", 0, 0)));
+                String created = receive(first, firstCodec);
+                int gameID = Integer.parseInt(created.substring(created.lastIndexOf(' ') + 1));
+
+                first.write(FrameCodec.encode(parser.parse("JOIN", 0, 0)));
+                assertTrue(receive(first, firstCodec).startsWith("Dołączono do gry o ID: " + gameID + "! Twoje ID: 1"));
+                second.write(FrameCodec.encode(parser.parse("JOIN", 0, 0)));
+
+                // The table is full: its state is pushed to both players before the response to the move.
+                String pushedToSecond = receive(second, secondCodec);
+                assertTrue(pushedToSecond.startsWith(FrameCodec.PUSH_MARKER + "Stan gry o ID: " + gameID + "\nRunda: 2"));
+                assertTrue(pushedToSecond.contains("Twoje karty: "));
+                assertTrue(receive(second, secondCodec).startsWith("Dołączono do gry o ID: " + gameID + "! Twoje ID: 2"));
+                String pushedToFirst = receive(first, firstCodec);
+                assertTrue(pushedToFirst.contains("Kolejka: Twoja kolej!"));
+                assertEquals(pushedToFirst.substring(0, pushedToFirst.indexOf("\nTwoje karty")),
+                        pushedToSecond.substring(0, pushedToSecond.indexOf("\nTwoje karty")));
+            }
+            running.get(10, TimeUnit.SECONDS);
+            executorService.shutdownNow();
+        }
+
+        @Test
+        void testMovesPipelinedBehindHandOffSeeItsResult() throws Exception {
+            PokerServer server = new PokerServer(8096, 2, false);
+            ExecutorService executorService = Executors.newSingleThreadExecutor();
+            Future<?> running = executorService.submit(server::start);
+            ClientMoveParser parser = new ClientMoveParser();
+
+            try (SocketChannel owner = connect(8096); SocketChannel joining = connect(8096)) {
+                FrameCodec ownerCodec = new FrameCodec();
+                FrameCodec joiningCodec = new FrameCodec();
+                assertTrue(receive(owner, ownerCodec).contains("NEW_GAME"));
+                assertTrue(receive(joining, joiningCodec).contains("NEW_GAME"));
+
+                owner.write(FrameCodec.encode(parser.parse("NEW_GAME 3, 10", 0, 0)));
+                String created = receive(owner, ownerCodec);
+                int gameID = Integer.parseInt(created.substring(created.lastIndexOf(' ') + 1));
+
+                // The second move is read together with the JOIN handed over to the owner of the table,
+                // and is routed only once the player has been seated by it.
+                ByteBuffer join = FrameCodec.encode(parser.parse("JOIN " + gameID, 0, 0));
+                ByteBuffer status = FrameCodec.encode(parser.parse("STATUS", 0, 0));
+                joining.write(ByteBuffer.allocate(join.remaining() + status.remaining()).put(join).put(status).flip());
+                assertTrue(receive(joining, joiningCodec).startsWith("Dołączono do gry o ID: " + gameID + "! Twoje ID: 1"));
+                assertEquals("Ruch wykonany został przez gracza o niepoprawnych danych ID!", receive(joining, joiningCodec));
+            }
+            running.get(10, TimeUnit.SECONDS);
+            executorService.shutdownNow();
+        }
+
+        @Test
+        void testStalledClientOfBlockingModeDoesNotBlockSenders() throws Exception {
+            PokerServer server = new PokerServer(8095, 1, true);
+            server.setWriteWatermarks(100, 200, 1024 * 1024);
+            try (ServerSocketChannel listener = ServerSocketChannel.open().bind(new InetSocketAddress("localhost", 8095));
+                 SocketChannel client = SocketChannel.open(new InetSocketAddress("localhost", 8095));
+                 SocketChannel accepted = listener.accept()) {
+                BlockingWriter writer = new BlockingWriter(server, accepted);
+                Thread thread = new Thread(writer);
+                thread.start();
+
+                FrameCodec codec = new FrameCodec();
+                writer.send(FrameCodec.encode("Pierwsza"));
+                writer.send(FrameCodec.encode("Druga"));
+                assertEquals("Pierwsza", receive(client, codec));
+                assertEquals("Druga", receive(client, codec));
+
+                // The client stops reading: frames are only queued, until the write limit is exceeded.
+                ByteBuffer frame = FrameCodec.encode("x".repeat(1000));
+                for (int i = 0; i < 100_000 && accepted.isOpen(); i++) {
+                    writer.send(frame.duplicate());
+                }
+                assertFalse(accepted.isOpen());
+                thread.join(10_000);
+                assertFalse(thread.isAlive());
+            }
+        }
+
+        @Test
+        void testBinaryAndTextClientsShareReactorPort() throws Exception {
+            playBinaryAndText(new PokerServer(8093, 2, false), 8093);
+        }
+
+        @Test
+        void testBinaryAndTextClientsShareBlockingPort() throws Exception {
+            playBinaryAndText(new PokerServer(8094, 1, true), 8094);
+        }
+
+        private void playBinaryAndText(PokerServer server, int port) throws Exception {
+            ExecutorService executorService = Executors.newSingleThreadExecutor();
+            Future<?> running = executorService.submit(server::start);
+            ClientMoveParser parser = new ClientMoveParser();
+
+            try (SocketChannel bot = connect(port); SocketChannel human = connect(port)) {
+                FrameCodec botCodec = new FrameCodec();
+                FrameCodec humanCodec = new FrameCodec();
+                assertTrue(receive(bot, botCodec).contains("NEW_GAME"));
+                assertTrue(receive(human, humanCodec).contains("NEW_GAME"));
+
+                // The handshake and the first move arrive together; responses are text frames.
+                bot.write(new ByteBuffer[]{BinaryMoveCodec.handshake(), BinaryMoveCodec.encodeNewGame(0, 0, 2, 10, null)});
+                String created = receive(bot, botCodec);
+                assertTrue(created.startsWith("Nowa gra została utworzona!"));
+                int gameID = Integer.parseInt(created.substring(created.lastIndexOf(' ') + 1));
+
+                bot.write(BinaryMoveCodec.encode(Moves.JOIN, gameID, 0));
+                assertTrue(receive(bot, botCodec).startsWith("Dołączono do gry o ID: " + gameID + "! Twoje ID: 1"));
+                human.write(FrameCodec.encode(parser.parse("JOIN " + gameID, 0, 0)));
+                String pushed = receive(human, humanCodec);
+                assertTrue(pushed.startsWith(FrameCodec.PUSH_MARKER + "Stan gry o ID: " + gameID));
+                assertTrue(receive(human, humanCodec).startsWith("Dołączono do gry o ID: " + gameID + "! Twoje ID: 2"));
+
+                assertTrue(receive(bot, botCodec).contains("Kolejka: Twoja kolej!"));
+                bot.write(BinaryMoveCodec.encodeRaise(gameID, 1, 20));
+                assertTrue(receive(bot, botCodec).contains("najwyższy BET w grze: 30zł"));
+                assertEquals("Ruch wykonany prawidłowo!", receive(bot, botCodec));
+                assertTrue(receive(human, humanCodec).contains("najwyższy BET w grze: 30zł"));
+            }
+            running.get(10, TimeUnit.SECONDS);
+            executorService.shutdownNow();
+        }
+
+        private SocketChannel connect(int port) throws InterruptedException {
+            for (int attempt = 0; ; attempt++) {
+                try {
+                    return SocketChannel.open(new InetSocketAddress("localhost", port));
+                } catch (IOException e) {
+                    if (attempt == 50) {
+                        fail("Serwer nie odpowiada: " + e.getMessage());
+                    }
+                    Thread.sleep(100);
+                }
+            }
+        }
+
+        private String receive(SocketChannel channel, FrameCodec codec) throws IOException {
+            String message;
+            while ((message = codec.next()) == null) {
+                assertNotEquals(-1, codec.read(channel));
+            }
+            return message;
+        }
+
         @Test
         void testServerClose() throws IOException {
             PokerServer server = new PokerServer(8080);
@@ -0,0 +1,82 @@
+package pl.pz1.poker.evaluator;
+
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+import pl.pz1.poker.gameplay.Card;
+
+/**
+ * Batch kernel computing rank histograms of several hands at once with the Vector API.
+ * Ranks are summed over the four suits in three interleaved groups (ranks with the same
+ * remainder modulo 3), which leaves three bits for every rank count, so the sums never carry
+ * into a neighbouring rank. The histogram is turned into the pattern key of {@link HandTables}
+ * lane-wise; only the final table lookups and the rare flushes are done per hand.
+ * This class is loaded reflectively by {@link BatchKernel#load()} and must not be referenced
+ * directly, as it links only when the incubator module is present.
+ */
+final class VectorBatchKernel implements BatchKernel {
+
+    private static final VectorSpecies<Long> SPECIES = LongVector.SPECIES_PREFERRED;
+
+    private static final long SUIT = (1L << Card.RANKS_IN_SUIT) - 1;
+
+    /**
+     * Masks of the ranks of one suit in each of the three interleaved groups.
+     */
+    private static final long[] GROUPS = new long[3];
+
+    static {
+        for (int rank = 0; rank < Card.RANKS_IN_SUIT; rank++) {
+            GROUPS[rank % 3] |= 1L << rank;
+        }
+    }
+
+    @Override
+    public void evaluate(long[] masks, int[] strengths, int count) {
+        long[] keys = new long[SPECIES.length()];
+        int bound = SPECIES.loopBound(count);
+        int i = 0;
+        for (; i < bound; i += SPECIES.length()) {
+            LongVector hands = LongVector.fromArray(SPECIES, masks, i);
+
+            LongVector first = groupSum(hands, 0);
+            LongVector second = groupSum(hands, 1);
+            LongVector third = groupSum(hands, 2);
+
+            LongVector key = LongVector.zero(SPECIES);
+            for (int rank = 0; rank < Card.RANKS_IN_SUIT; rank++) {
+                LongVector sum = rank % 3 == 0 ? first : rank % 3 == 1 ? second : third;
+                LongVector rankCount = sum.lanewise(VectorOperators.LSHR, rank).and(7);
+                key = key.add(rankCount.mul(HandTables.RANK_KEYS[rank]));
+            }
+
+            VectorMask<Long> flush = hands.and(~SUIT).compare(VectorOperators.EQ, 0);
+            for (int suit = 1; suit < SuitCanonicalizer.SUITS; suit++) {
+                flush = flush.or(hands.and(~(SUIT << (suit * Card.RANKS_IN_SUIT))).compare(VectorOperators.EQ, 0));
+            }
+
+            key.intoArray(keys, 0);
+            long flushes = flush.toLong();
+            for (int lane = 0; lane < keys.length; lane++) {
+                strengths[i + lane] = (flushes & (1L << lane)) != 0
+                        ? HandEvaluator.strength(masks[i + lane])
+                        : HandTables.PATTERN[(int) keys[lane]];
+            }
+        }
+        for (; i < count; i++) {
+            strengths[i] = HandEvaluator.strength(masks[i]);
+        }
+    }
+
+    /**
+     * Sums the ranks of one interleaved group over all suits, giving 3-bit counts of its ranks.
+     */
+    private static LongVector groupSum(LongVector hands, int group) {
+        LongVector sum = hands.and(GROUPS[group]);
+        for (int suit = 1; suit < SuitCanonicalizer.SUITS; suit++) {
+            sum = sum.add(hands.lanewise(VectorOperators.LSHR, suit * Card.RANKS_IN_SUIT).and(GROUPS[group]));
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,27 @@
+package pl.pz1.poker.evaluator;
+
+import org.junit.jupiter.api.Test;
+
+import pl.pz1.poker.gameplay.Card;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VectorBatchKernelTest {
+    @Test
+    void vectorKernelMatchesScalarKernelTest() {
+        assertTrue(HandEvaluator.isBatchVectorized());
+
+        SplittableRandom random = new SplittableRandom(5L);
+        long[] masks = new long[1003];
+        for (int i = 0; i < masks.length; i++) {
+            masks[i] = i % 10 == 0 ? 0b11111L << (i % 4 * Card.RANKS_IN_SUIT + i % 8) : HandEnumerator.randomHand(random);
+        }
+        int[] vector = new int[masks.length];
+        int[] scalar = new int[masks.length];
+        new VectorBatchKernel().evaluate(masks, vector, masks.length);
+        BatchKernel.SCALAR.evaluate(masks, scalar, masks.length);
+        assertArrayEquals(scalar, vector);
+    }
+}